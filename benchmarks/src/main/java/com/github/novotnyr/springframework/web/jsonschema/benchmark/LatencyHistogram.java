@@ -0,0 +1,82 @@
+package com.github.novotnyr.springframework.web.jsonschema.benchmark;
+
+/**
+ * Histogram of latencies in nanoseconds with logarithmic buckets.
+ * <p>
+ *     Each power of two is split into 32 linear buckets, so that percentiles
+ *     are reported with a relative error below 4 %. Recording does not allocate.
+ *     The histogram is not thread-safe: each thread records into its own histogram,
+ *     and histograms are merged once the threads finish.
+ * </p>
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private final long[] counts = new long[(64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT];
+
+    private long totalCount;
+
+    private long maxValue;
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        this.counts[getIndex(value)]++;
+        this.totalCount++;
+        this.maxValue = Math.max(this.maxValue, value);
+    }
+
+    private static int getIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    private static long getLowestValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKET_COUNT;
+        return (long) (SUB_BUCKET_COUNT + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * Adds all latencies recorded by the other histogram.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < this.counts.length; i++) {
+            this.counts[i] += other.counts[i];
+        }
+        this.totalCount += other.totalCount;
+        this.maxValue = Math.max(this.maxValue, other.maxValue);
+    }
+
+    /**
+     * Returns the latency in nanoseconds, which is not exceeded by the percentage of recorded latencies.
+     * @param percentile percentage between 0 and 100
+     */
+    public long getValueAtPercentile(double percentile) {
+        long countAtPercentile = Math.max(1, (long) Math.ceil(percentile / 100 * this.totalCount));
+        long count = 0;
+        for (int i = 0; i < this.counts.length; i++) {
+            count += this.counts[i];
+            if (count >= countAtPercentile) {
+                return Math.min(getLowestValue(i), this.maxValue);
+            }
+        }
+        return this.maxValue;
+    }
+
+    public long getTotalCount() {
+        return this.totalCount;
+    }
+
+    public long getMaxValue() {
+        return this.maxValue;
+    }
+}
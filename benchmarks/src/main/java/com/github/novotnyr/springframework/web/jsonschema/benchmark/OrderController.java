@@ -0,0 +1,40 @@
+package com.github.novotnyr.springframework.web.jsonschema.benchmark;
+
+import com.github.novotnyr.springframework.web.jsonschema.annotation.JsonRequestBody;
+import org.springframework.core.MethodParameter;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Handler methods whose parameters are resolved by the benchmarks,
+ * one for each validation mode, and one with a different schema.
+ */
+public class OrderController {
+    public void register(@JsonRequestBody(schemaPath = "order") Order order) {
+    }
+
+    public void registerLaxly(@JsonRequestBody(schemaPath = "order", strict = false) Order order) {
+    }
+
+    public void registerInSingleParse(@JsonRequestBody(schemaPath = "order", singleParse = true) Order order) {
+    }
+
+    public void registerInStreaming(@JsonRequestBody(schemaPath = "order", streaming = true) Order order) {
+    }
+
+    public void registerValidatingBeforeBinding(@JsonRequestBody(schemaPath = "order", validateBeforeBinding = true) Order order) {
+    }
+
+    public void registerCompiled(@JsonRequestBody(schemaPath = "order", engine = "compiled") Order order) {
+    }
+
+    public void registerCustomer(@JsonRequestBody(schemaPath = "customer") Order.Customer customer) {
+    }
+
+    public static MethodParameter getOrderParameter(String methodName) {
+        return new MethodParameter(ClassUtils.getMethod(OrderController.class, methodName, Order.class), 0);
+    }
+
+    public static MethodParameter getCustomerParameter() {
+        return new MethodParameter(ClassUtils.getMethod(OrderController.class, "registerCustomer", Order.Customer.class), 0);
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.novotnyr.springframework.web.jsonschema.benchmark;
+
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaLoader;
+import com.github.novotnyr.springframework.web.jsonschema.ParallelJsonSchemaValidator;
+import org.everit.json.schema.Schema;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validates large parsed order payloads sequentially by Everit and in parallel
+ * on fork-join pools of increasing parallelism.
+ * <p>
+ *     The speedup is bounded by the number of available cores, therefore
+ *     the parallelism should not exceed the core count of the machine.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelValidationBenchmark {
+    @Param({"10000", "100000"})
+    public int itemCount;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private Schema schema;
+
+    private JSONObject payload;
+
+    private ForkJoinPool forkJoinPool;
+
+    private ParallelJsonSchemaValidator parallelJsonSchemaValidator;
+
+    @Setup
+    public void setUp() {
+        this.schema = new JsonSchemaLoader().load(new ClassPathResource("order.json"));
+        this.payload = Payloads.order(this.itemCount, true);
+        this.forkJoinPool = new ForkJoinPool(this.parallelism);
+        this.parallelJsonSchemaValidator = new ParallelJsonSchemaValidator(this.forkJoinPool, ParallelJsonSchemaValidator.DEFAULT_THRESHOLD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.forkJoinPool.shutdown();
+    }
+
+    /**
+     * Validates the payload on the calling thread, as without the parallel mode.
+     * Independent of the parallelism.
+     */
+    @Benchmark
+    public JSONObject validateSequentially() {
+        this.schema.validate(this.payload);
+        return this.payload;
+    }
+
+    /**
+     * Validates the payload on the fork-join pool.
+     */
+    @Benchmark
+    public JSONObject validateInParallel() {
+        this.parallelJsonSchemaValidator.validate(this.schema, this.payload);
+        return this.payload;
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.novotnyr.springframework.web.jsonschema.benchmark;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Generates deterministic order payloads of a given size.
+ */
+public final class Payloads {
+    private Payloads() {
+        // utility class
+    }
+
+    /**
+     * Creates an order with the number of line items.
+     * @param itemCount number of line items
+     * @param valid if {@code false}, each line item misses the required <code>quantity</code>
+     *              and declares an extraneous property, resulting in two violations per item
+     */
+    public static JSONObject order(int itemCount, boolean valid) {
+        JSONObject order = new JSONObject();
+        order.put("id", "ORD-" + itemCount);
+        order.put("customer", new JSONObject()
+                .put("name", "John Doe")
+                .put("email", "john.doe@example.com"));
+        JSONArray items = new JSONArray();
+        for (int i = 0; i < itemCount; i++) {
+            JSONObject item = new JSONObject()
+                    .put("sku", "SKU-" + i)
+                    .put("price", 10.5 + i)
+                    .put("tags", new JSONArray().put("tag-" + (i % 10)).put("benchmark"));
+            if (valid) {
+                item.put("quantity", 1 + i % 5);
+            } else {
+                item.put("discount", 0.1);
+            }
+            items.put(item);
+        }
+        order.put("items", items);
+        return order;
+    }
+
+    /**
+     * Creates a customer.
+     * @param valid if {@code false}, the customer misses the required <code>email</code>
+     *              and declares an extraneous property
+     */
+    public static JSONObject customer(boolean valid) {
+        JSONObject customer = new JSONObject().put("name", "John Doe");
+        if (valid) {
+            customer.put("email", "john.doe@example.com");
+        } else {
+            customer.put("phone", "+1 555 0100");
+        }
+        return customer;
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.novotnyr.springframework.web.jsonschema.benchmark;
+
+import com.github.novotnyr.springframework.web.jsonschema.JsonRequestBodyArgumentResolver;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaValidationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.bind.support.DefaultDataBinderFactory;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestResponseBodyMethodProcessor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves a <code>@JsonRequestBody</code> argument end-to-end, from a mock HTTP request
+ * to the bound and validated value, in each validation mode.
+ * <p>
+ *     Invalid payloads contain two violations per line item. In strict modes,
+ *     they are rejected with {@link JsonSchemaValidationException}, which is the
+ *     typical outcome of invalid traffic.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResolveArgumentBenchmark {
+    @Param({"register", "registerLaxly", "registerInSingleParse", "registerInStreaming", "registerValidatingBeforeBinding"})
+    public String handlerMethod;
+
+    @Param({"10", "1000"})
+    public int itemCount;
+
+    @Param({"true", "false"})
+    public boolean valid;
+
+    private JsonRequestBodyArgumentResolver argumentResolver;
+
+    private MethodParameter parameter;
+
+    private WebDataBinderFactory binderFactory;
+
+    private byte[] content;
+
+    @Setup
+    public void setUp() {
+        MappingJackson2HttpMessageConverter messageConverter = new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build());
+        List<HttpMessageConverter<?>> messageConverters = Collections.singletonList(messageConverter);
+        this.argumentResolver = new JsonRequestBodyArgumentResolver(new RequestResponseBodyMethodProcessor(messageConverters));
+        this.argumentResolver.setObjectMapper(messageConverter.getObjectMapper());
+        this.parameter = OrderController.getOrderParameter(this.handlerMethod);
+        this.binderFactory = new DefaultDataBinderFactory(null);
+        this.content = Payloads.order(this.itemCount, this.valid).toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object resolveArgument() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/orders");
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(this.content);
+        ServletWebRequest webRequest = new ServletWebRequest(request, new MockHttpServletResponse());
+        try {
+            return this.argumentResolver.resolveArgument(this.parameter, new ModelAndViewContainer(), webRequest, this.binderFactory);
+        } catch (JsonSchemaValidationException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package com.github.novotnyr.springframework.web.jsonschema.benchmark;
+
+import com.github.novotnyr.springframework.web.jsonschema.CompiledJsonSchemaValidatorEngine;
+import com.github.novotnyr.springframework.web.jsonschema.EveritJsonSchemaValidatorEngine;
+import com.github.novotnyr.springframework.web.jsonschema.JsonRequestBodyArgumentResolver;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaLoader;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaValidationException;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaValidatorEngine;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaValidatorEngines;
+import com.github.novotnyr.springframework.web.jsonschema.ValidationResultCache;
+import org.everit.json.schema.Schema;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.bind.support.DefaultDataBinderFactory;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestResponseBodyMethodProcessor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives the {@link JsonRequestBodyArgumentResolver} from increasing numbers of concurrent threads,
+ * as servlet containers do, and reports how the resolver scales.
+ * <p>
+ *     Each thread resolves a mix of requests: valid and invalid orders in each validation mode,
+ *     by the Everit and compiled engines, and customers validated against another schema.
+ *     For each thread count, a fresh resolver is started cold by all threads at once,
+ *     then warmed up and measured for a fixed duration. The suite reports throughput,
+ *     p50, p99 and maximum latency, and the share of time the threads were blocked on monitors.
+ * </p>
+ * <p>
+ *     The suite flags cache stampedes, that is, schemas loaded or validators compiled
+ *     more times by the concurrent cold start than by a single-threaded one,
+ *     and lock contention, that is, threads blocked for more than 5 % of the measured time.
+ * </p>
+ * <p>
+ *     Configured by system properties: <code>threads</code> (comma-separated thread counts,
+ *     defaults to <code>1,2,4,8,16</code>), <code>warmup</code> and <code>duration</code>
+ *     (seconds, default to 5 and 10), and <code>resultCache</code> (whether validation results
+ *     are cached, defaults to <code>false</code>).
+ * </p>
+ */
+public class ResolveArgumentStressTest {
+    private static final double CONTENTION_THRESHOLD = 0.05;
+
+    private static final String[] ORDER_HANDLER_METHODS = {
+            "register", "registerLaxly", "registerInSingleParse", "registerInStreaming",
+            "registerValidatingBeforeBinding", "registerCompiled"
+    };
+
+    private final int warmupSeconds;
+
+    private final int durationSeconds;
+
+    private final boolean resultCache;
+
+    private final List<StressRequest> requests = new ArrayList<>();
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    private int expectedSchemaLoadCount;
+
+    private int expectedValidatorCompilationCount;
+
+    public ResolveArgumentStressTest(int warmupSeconds, int durationSeconds, boolean resultCache) {
+        this.warmupSeconds = warmupSeconds;
+        this.durationSeconds = durationSeconds;
+        this.resultCache = resultCache;
+        for (String handlerMethod : ORDER_HANDLER_METHODS) {
+            MethodParameter parameter = OrderController.getOrderParameter(handlerMethod);
+            for (int itemCount : new int[] { 1, 10, 100 }) {
+                this.requests.add(new StressRequest(parameter, Payloads.order(itemCount, true).toString()));
+                this.requests.add(new StressRequest(parameter, Payloads.order(itemCount, false).toString()));
+            }
+        }
+        MethodParameter customerParameter = OrderController.getCustomerParameter();
+        this.requests.add(new StressRequest(customerParameter, Payloads.customer(true).toString()));
+        this.requests.add(new StressRequest(customerParameter, Payloads.customer(false).toString()));
+        if (this.threadMXBean.isThreadContentionMonitoringSupported()) {
+            this.threadMXBean.setThreadContentionMonitoringEnabled(true);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] threadCounts = Arrays.stream(System.getProperty("threads", "1,2,4,8,16").split(","))
+                .mapToInt(threadCount -> Integer.parseInt(threadCount.trim()))
+                .toArray();
+        ResolveArgumentStressTest stressTest = new ResolveArgumentStressTest(
+                Integer.getInteger("warmup", 5),
+                Integer.getInteger("duration", 10),
+                Boolean.getBoolean("resultCache"));
+        System.out.printf("%d available processors, %d request kinds, result cache %s%n",
+                Runtime.getRuntime().availableProcessors(), stressTest.requests.size(), stressTest.resultCache ? "enabled" : "disabled");
+        System.out.printf("%8s %12s %10s %10s %10s %9s %14s%n",
+                "threads", "ops/s", "p50 [us]", "p99 [us]", "max [us]", "blocked", "compilations");
+        stressTest.calibrate();
+        boolean flagged = false;
+        for (int threadCount : threadCounts) {
+            flagged |= stressTest.run(threadCount);
+        }
+        if (flagged) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs the cold start and the measurement with the number of threads.
+     * @return {@code true} if a cache stampede or lock contention has been detected
+     */
+    public boolean run(int threadCount) throws InterruptedException {
+        StressFixture fixture = new StressFixture();
+        StressThread[] threads = new StressThread[threadCount];
+        CountDownLatch coldStart = new CountDownLatch(1);
+        for (int i = 0; i < threadCount; i++) {
+            threads[i] = new StressThread(fixture.argumentResolver, i, coldStart);
+            threads[i].start();
+        }
+        coldStart.countDown();
+        sleep(this.warmupSeconds);
+        long[] blockedTimes = getBlockedTimes(threads);
+        for (StressThread thread : threads) {
+            thread.startMeasurement();
+        }
+        long start = System.nanoTime();
+        sleep(this.durationSeconds);
+        for (StressThread thread : threads) {
+            thread.stopMeasurement();
+        }
+        long elapsed = System.nanoTime() - start;
+        long blockedTime = sum(getBlockedTimes(threads)) - sum(blockedTimes);
+        for (StressThread thread : threads) {
+            thread.interrupt();
+            thread.join();
+        }
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (StressThread thread : threads) {
+            histogram.add(thread.histogram);
+        }
+        double blockedRatio = blockedTime < 0 ? 0 : (double) blockedTime / (TimeUnit.NANOSECONDS.toMillis(elapsed) * threadCount);
+        int schemaLoadCount = fixture.getSchemaLoadCount();
+        int validatorCompilationCount = fixture.getValidatorCompilationCount();
+        System.out.printf("%8d %12.0f %10.1f %10.1f %10.1f %8.1f%% %7d / %-6d%n",
+                threadCount,
+                histogram.getTotalCount() / (elapsed / 1e9),
+                histogram.getValueAtPercentile(50) / 1e3,
+                histogram.getValueAtPercentile(99) / 1e3,
+                histogram.getMaxValue() / 1e3,
+                blockedRatio * 100,
+                schemaLoadCount,
+                validatorCompilationCount);
+
+        boolean flagged = false;
+        for (StressThread thread : threads) {
+            if (thread.failure != null) {
+                System.out.println("  FAILURE: " + thread.failure);
+                flagged = true;
+            }
+        }
+        if (schemaLoadCount > this.expectedSchemaLoadCount || validatorCompilationCount > this.expectedValidatorCompilationCount) {
+            System.out.printf("  STAMPEDE: schemas were loaded %d times instead of %d and validators were compiled %d times instead of %d%n",
+                    schemaLoadCount, this.expectedSchemaLoadCount, validatorCompilationCount, this.expectedValidatorCompilationCount);
+            flagged = true;
+        }
+        if (blockedRatio > CONTENTION_THRESHOLD) {
+            System.out.printf("  CONTENTION: threads were blocked on monitors for %.1f %% of the time%n", blockedRatio * 100);
+            flagged = true;
+        }
+        return flagged;
+    }
+
+    /**
+     * Resolves each request once in a single thread, and records how many times schemas
+     * are loaded and validators compiled by a cold start without concurrency.
+     */
+    public void calibrate() throws Exception {
+        StressFixture fixture = new StressFixture();
+        StressThread thread = new StressThread(fixture.argumentResolver, 0, new CountDownLatch(0));
+        for (StressRequest request : this.requests) {
+            thread.resolve(request);
+        }
+        this.expectedSchemaLoadCount = fixture.getSchemaLoadCount();
+        this.expectedValidatorCompilationCount = fixture.getValidatorCompilationCount();
+    }
+
+    /**
+     * Returns the total time in milliseconds each thread has been blocked on monitors,
+     * or {@code -1} if the thread contention monitoring is not supported.
+     */
+    private long[] getBlockedTimes(Thread[] threads) {
+        long[] blockedTimes = new long[threads.length];
+        for (int i = 0; i < threads.length; i++) {
+            ThreadInfo threadInfo = this.threadMXBean.getThreadInfo(threads[i].getId());
+            blockedTimes[i] = threadInfo != null ? threadInfo.getBlockedTime() : -1;
+        }
+        return blockedTimes;
+    }
+
+    private static long sum(long[] values) {
+        return Arrays.stream(values).sum();
+    }
+
+    private static void sleep(int seconds) throws InterruptedException {
+        TimeUnit.SECONDS.sleep(seconds);
+    }
+
+    /**
+     * Resolver started cold, with loaders and engines counting schema loads and validator compilations.
+     */
+    private class StressFixture {
+        private final CountingJsonSchemaLoader jsonSchemaLoader = new CountingJsonSchemaLoader();
+
+        private final CountingJsonSchemaValidatorEngine everitEngine = new CountingJsonSchemaValidatorEngine(new EveritJsonSchemaValidatorEngine());
+
+        private final CountingJsonSchemaValidatorEngine compiledEngine = new CountingJsonSchemaValidatorEngine(new CompiledJsonSchemaValidatorEngine());
+
+        private final JsonRequestBodyArgumentResolver argumentResolver;
+
+        StressFixture() {
+            JsonSchemaValidatorEngines engines = new JsonSchemaValidatorEngines();
+            engines.setDefaultEngine(this.everitEngine);
+            engines.register(this.compiledEngine);
+            MappingJackson2HttpMessageConverter messageConverter = new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build());
+            List<HttpMessageConverter<?>> messageConverters = Collections.singletonList(messageConverter);
+            this.argumentResolver = new JsonRequestBodyArgumentResolver(new RequestResponseBodyMethodProcessor(messageConverters));
+            this.argumentResolver.setObjectMapper(messageConverter.getObjectMapper());
+            this.argumentResolver.setJsonSchemaLoader(this.jsonSchemaLoader);
+            this.argumentResolver.setJsonSchemaValidatorEngines(engines);
+            if (resultCache) {
+                this.argumentResolver.setValidationResultCache(new ValidationResultCache());
+            }
+        }
+
+        int getSchemaLoadCount() {
+            return this.jsonSchemaLoader.getLoadCount();
+        }
+
+        int getValidatorCompilationCount() {
+            return this.everitEngine.getCompilationCount() + this.compiledEngine.getCompilationCount();
+        }
+    }
+
+    private static class StressRequest {
+        private final MethodParameter parameter;
+
+        private final byte[] content;
+
+        StressRequest(MethodParameter parameter, String content) {
+            this.parameter = parameter;
+            this.content = content.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Thread resolving requests in a loop, starting at a different request than other threads.
+     */
+    private class StressThread extends Thread {
+        private final JsonRequestBodyArgumentResolver argumentResolver;
+
+        private final int offset;
+
+        private final CountDownLatch coldStart;
+
+        private final WebDataBinderFactory binderFactory = new DefaultDataBinderFactory(null);
+
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        private volatile boolean measuring;
+
+        private volatile Exception failure;
+
+        StressThread(JsonRequestBodyArgumentResolver argumentResolver, int offset, CountDownLatch coldStart) {
+            super("stress-" + offset);
+            this.argumentResolver = argumentResolver;
+            this.offset = offset;
+            this.coldStart = coldStart;
+        }
+
+        @Override
+        public void run() {
+            try {
+                this.coldStart.await();
+            } catch (InterruptedException e) {
+                return;
+            }
+            int requestCount = requests.size();
+            for (long i = this.offset; !isInterrupted(); i++) {
+                StressRequest request = requests.get((int) (i % requestCount));
+                long start = System.nanoTime();
+                try {
+                    resolve(request);
+                } catch (Exception e) {
+                    this.failure = e;
+                    return;
+                }
+                if (this.measuring) {
+                    this.histogram.record(System.nanoTime() - start);
+                }
+            }
+        }
+
+        private void resolve(StressRequest stressRequest) throws Exception {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/orders");
+            request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            request.setContent(stressRequest.content);
+            ServletWebRequest webRequest = new ServletWebRequest(request, new MockHttpServletResponse());
+            try {
+                this.argumentResolver.resolveArgument(stressRequest.parameter, new ModelAndViewContainer(), webRequest, this.binderFactory);
+            } catch (JsonSchemaValidationException e) {
+                // invalid payloads are rejected
+            }
+        }
+
+        void startMeasurement() {
+            this.measuring = true;
+        }
+
+        void stopMeasurement() {
+            this.measuring = false;
+        }
+    }
+
+    /**
+     * Loader counting how many times schemas have been loaded.
+     */
+    private static class CountingJsonSchemaLoader extends JsonSchemaLoader {
+        private final AtomicInteger loadCount = new AtomicInteger();
+
+        @Override
+        public Schema load(Resource jsonSchemaResource) {
+            this.loadCount.incrementAndGet();
+            return super.load(jsonSchemaResource);
+        }
+
+        int getLoadCount() {
+            return this.loadCount.get();
+        }
+    }
+
+    /**
+     * Engine counting how many times validators have been compiled.
+     */
+    private static class CountingJsonSchemaValidatorEngine implements JsonSchemaValidatorEngine {
+        private final JsonSchemaValidatorEngine engine;
+
+        private final AtomicInteger compilationCount = new AtomicInteger();
+
+        CountingJsonSchemaValidatorEngine(JsonSchemaValidatorEngine engine) {
+            this.engine = engine;
+        }
+
+        @Override
+        public String getName() {
+            return this.engine.getName();
+        }
+
+        @Override
+        public Validator compile(Schema schema) {
+            this.compilationCount.incrementAndGet();
+            return this.engine.compile(schema);
+        }
+
+        int getCompilationCount() {
+            return this.compilationCount.get();
+        }
+    }
+}
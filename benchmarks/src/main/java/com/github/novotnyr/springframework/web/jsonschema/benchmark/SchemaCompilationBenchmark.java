@@ -0,0 +1,69 @@
+package com.github.novotnyr.springframework.web.jsonschema.benchmark;
+
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaLoader;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.loader.SchemaLoader;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads and compiles the order schema, which is the cost of each request
+ * that misses the schema cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchemaCompilationBenchmark {
+    private final JsonSchemaLoader jsonSchemaLoader = new JsonSchemaLoader();
+
+    private final Resource jsonSchemaResource = new ClassPathResource("order.json");
+
+    private String rawSchema;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream inputStream = this.jsonSchemaResource.getInputStream()) {
+            this.rawSchema = new JSONObject(new JSONTokener(inputStream)).toString();
+        }
+    }
+
+    /**
+     * Reads the classpath resource, parses and compiles the schema.
+     */
+    @Benchmark
+    public Schema loadFromResource() {
+        return this.jsonSchemaLoader.load(this.jsonSchemaResource);
+    }
+
+    /**
+     * Parses and compiles the schema already held in memory.
+     */
+    @Benchmark
+    public Schema compile() {
+        return SchemaLoader.builder()
+                .schemaJson(new JSONObject(this.rawSchema))
+                .draftV6Support()
+                .build()
+                .load()
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.novotnyr.springframework.web.jsonschema.benchmark;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.novotnyr.springframework.web.jsonschema.JsonNodeConverter;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaLoader;
+import com.github.novotnyr.springframework.web.jsonschema.StreamingJsonSchemaValidator;
+import org.everit.json.schema.Schema;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validates valid order payloads against the compiled schema.
+ * <p>
+ *     Small, medium and large payloads have 1, 100 and 10 000 line items,
+ *     which is roughly 200 B, 10 KiB and 1 MiB of JSON.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchemaValidationBenchmark {
+    @Param({"1", "100", "10000"})
+    public int itemCount;
+
+    private Schema schema;
+
+    private String payload;
+
+    private byte[] payloadBytes;
+
+    private JSONObject parsedPayload;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final JsonNodeConverter jsonNodeConverter = new JsonNodeConverter();
+
+    private final StreamingJsonSchemaValidator streamingJsonSchemaValidator = new StreamingJsonSchemaValidator();
+
+    @Setup
+    public void setUp() {
+        this.schema = new JsonSchemaLoader().load(new ClassPathResource("order.json"));
+        this.payload = Payloads.order(this.itemCount, true).toString();
+        this.payloadBytes = this.payload.getBytes(StandardCharsets.UTF_8);
+        this.parsedPayload = new JSONObject(this.payload);
+    }
+
+    /**
+     * Validates the already parsed payload.
+     */
+    @Benchmark
+    public JSONObject validate() {
+        this.schema.validate(this.parsedPayload);
+        return this.parsedPayload;
+    }
+
+    /**
+     * Parses the payload by <code>org.json</code> and validates it, as in the default mode.
+     */
+    @Benchmark
+    public JSONObject parseAndValidate() {
+        JSONObject json = new JSONObject(this.payload);
+        this.schema.validate(json);
+        return json;
+    }
+
+    /**
+     * Parses the payload into a Jackson tree, converts and validates it, as in the single-parse mode.
+     */
+    @Benchmark
+    public Object parseTreeAndValidate() throws IOException {
+        Object json = this.jsonNodeConverter.convert(this.objectMapper.readTree(this.payloadBytes));
+        this.schema.validate(json);
+        return json;
+    }
+
+    /**
+     * Validates the payload token by token, as in the streaming mode.
+     */
+    @Benchmark
+    public Schema validateStream() throws IOException {
+        try (JsonParser parser = this.objectMapper.getFactory().createParser(this.payloadBytes)) {
+            this.streamingJsonSchemaValidator.validate(this.schema, parser);
+        }
+        return this.schema;
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.novotnyr.springframework.web.jsonschema.benchmark;
+
+import com.github.novotnyr.springframework.web.jsonschema.DetailsValidationExceptionMediator;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaLoader;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.MapBindingResult;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts violations of error-heavy documents, with two violations per line item,
+ * to Spring binding errors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationExceptionMediatorBenchmark {
+    @Param({"10", "1000"})
+    public int itemCount;
+
+    private final DetailsValidationExceptionMediator mediator = new DetailsValidationExceptionMediator();
+
+    private ValidationException validationException;
+
+    @Setup
+    public void setUp() {
+        Schema schema = new JsonSchemaLoader().load(new ClassPathResource("order.json"));
+        try {
+            schema.validate(Payloads.order(this.itemCount, false));
+            throw new IllegalStateException("Payload must be invalid");
+        } catch (ValidationException e) {
+            this.validationException = e;
+        }
+    }
+
+    @Benchmark
+    public BindingResult convert() {
+        BindingResult bindingResult = new MapBindingResult(new HashMap<>(), "order");
+        this.mediator.convert(this.validationException, bindingResult);
+        return bindingResult;
+    }
+}
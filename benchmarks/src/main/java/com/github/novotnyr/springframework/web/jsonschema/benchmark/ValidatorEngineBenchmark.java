@@ -0,0 +1,89 @@
+package com.github.novotnyr.springframework.web.jsonschema.benchmark;
+
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaLoader;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaValidatorEngine;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaValidatorEngines;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compiles the order schema and validates parsed order payloads by each validation engine.
+ * <p>
+ *     Engines are selected by name from the {@link JsonSchemaValidatorEngines}.
+ *     To compare a custom engine, register it in {@link #createEngines()}
+ *     and add its name to the <code>engine</code> parameter.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorEngineBenchmark {
+    @Param({"everit", "compiled"})
+    public String engine;
+
+    @Param({"1", "100", "10000"})
+    public int itemCount;
+
+    @Param({"true", "false"})
+    public boolean valid;
+
+    private Schema schema;
+
+    private JsonSchemaValidatorEngine validatorEngine;
+
+    private JsonSchemaValidatorEngine.Validator validator;
+
+    private JSONObject payload;
+
+    @Setup
+    public void setUp() {
+        this.schema = new JsonSchemaLoader().load(new ClassPathResource("order.json"));
+        this.validatorEngine = createEngines().getEngine(this.engine);
+        this.validator = this.validatorEngine.compile(this.schema);
+        this.payload = Payloads.order(this.itemCount, this.valid);
+    }
+
+    private JsonSchemaValidatorEngines createEngines() {
+        return new JsonSchemaValidatorEngines();
+    }
+
+    /**
+     * Compiles the schema into a validator, which is the cost of the first request
+     * after each schema reload.
+     */
+    @Benchmark
+    public JsonSchemaValidatorEngine.Validator compile() {
+        return this.validatorEngine.compile(this.schema);
+    }
+
+    /**
+     * Validates the payload, catching violations of invalid payloads.
+     */
+    @Benchmark
+    public Object validate() {
+        try {
+            this.validator.validate(this.payload);
+            return this.payload;
+        } catch (ValidationException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Raw request body bytes captured into pooled buffers.
+ * <p>
+ *     The body is read exactly once from the request and can then be
+ *     read repeatedly via {@link #getInputStream()}, e. g. by the JSON parser
+ *     for validation and by message converters for data binding.
+ * </p>
+ * <p>
+ *     The captured body must be {@link #close() closed} to return
+ *     the buffers to the pool. Streams obtained from a closed body must not be used.
+ * </p>
+ */
+public class CapturedRequestBody implements Closeable {
+    private final RequestBodyBufferPool bufferPool;
+
+    private final long maxSize;
+
+    private final List<byte[]> buffers = new ArrayList<>();
+
+    private long size;
+
+    /**
+     * Creates an empty body that will be captured by {@link #append(InputStream) appending} stream contents.
+     * @param bufferPool pool of buffers
+     * @param maxSize maximum number of bytes, or a negative value for unlimited body size
+     */
+    public CapturedRequestBody(RequestBodyBufferPool bufferPool, long maxSize) {
+        this.bufferPool = bufferPool;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Captures the stream contents into pooled buffers.
+     * @param inputStream stream with request body. The stream is not closed.
+     * @param maxSize maximum number of bytes, or a negative value for unlimited body size
+     * @param bufferPool pool of buffers
+     * @return captured body
+     * @throws RequestBodyTooLargeException when the stream contains more than <code>maxSize</code> bytes.
+     * Reading is stopped as soon as the limit is exceeded.
+     * @throws IOException when the stream cannot be read
+     */
+    public static CapturedRequestBody capture(InputStream inputStream, long maxSize, RequestBodyBufferPool bufferPool) throws IOException {
+        CapturedRequestBody body = new CapturedRequestBody(bufferPool, maxSize);
+        try {
+            body.append(inputStream);
+            return body;
+        } catch (IOException | RuntimeException e) {
+            body.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends the stream contents to the captured bytes. This allows to capture
+     * request bodies that arrive in multiple chunks.
+     * @param inputStream stream with a part of the request body. The stream is not closed.
+     * @throws RequestBodyTooLargeException when the captured body exceeds the maximum size
+     * @throws IOException when the stream cannot be read
+     */
+    public void append(InputStream inputStream) throws IOException {
+        while (true) {
+            byte[] buffer = getWritableBuffer();
+            int position = (int) (this.size % buffer.length);
+            int count = inputStream.read(buffer, position, buffer.length - position);
+            if (count == -1) {
+                return;
+            }
+            this.size += count;
+            if (this.maxSize >= 0 && this.size > this.maxSize) {
+                throw new RequestBodyTooLargeException(this.maxSize);
+            }
+        }
+    }
+
+    /**
+     * Returns the last buffer, if it has some free space, or a new buffer from the pool.
+     */
+    private byte[] getWritableBuffer() {
+        int bufferSize = this.bufferPool.getBufferSize();
+        if (this.size == (long) this.buffers.size() * bufferSize) {
+            byte[] buffer = this.bufferPool.acquire();
+            this.buffers.add(buffer);
+            return buffer;
+        }
+        return this.buffers.get(this.buffers.size() - 1);
+    }
+
+    /**
+     * Returns the number of captured bytes.
+     */
+    public long size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Returns a new stream over the captured bytes. The bytes are not copied.
+     */
+    public InputStream getInputStream() {
+        return new CapturedRequestBodyInputStream();
+    }
+
+    /**
+     * Copies captured bytes into a new array.
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[Math.toIntExact(this.size)];
+        int position = 0;
+        for (byte[] buffer : this.buffers) {
+            int count = (int) Math.min(buffer.length, this.size - position);
+            System.arraycopy(buffer, 0, bytes, position, count);
+            position += count;
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns buffers to the pool.
+     */
+    @Override
+    public void close() {
+        for (byte[] buffer : this.buffers) {
+            this.bufferPool.release(buffer);
+        }
+        this.buffers.clear();
+        this.size = 0;
+    }
+
+    private class CapturedRequestBodyInputStream extends InputStream {
+        private int bufferIndex;
+
+        private int bufferPosition;
+
+        private long position;
+
+        @Override
+        public int read() {
+            byte[] buffer = nextBuffer();
+            if (buffer == null) {
+                return -1;
+            }
+            this.position++;
+            return buffer[this.bufferPosition++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            byte[] buffer = nextBuffer();
+            if (buffer == null) {
+                return -1;
+            }
+            int count = (int) Math.min(Math.min(length, buffer.length - this.bufferPosition), size - this.position);
+            System.arraycopy(buffer, this.bufferPosition, bytes, offset, count);
+            this.bufferPosition += count;
+            this.position += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, size - this.position);
+        }
+
+        /**
+         * Returns the buffer with the next unread byte, or {@code null} at the end of body.
+         */
+        private byte[] nextBuffer() {
+            if (this.position >= size) {
+                return null;
+            }
+            byte[] buffer = buffers.get(this.bufferIndex);
+            if (this.bufferPosition == buffer.length) {
+                this.bufferIndex++;
+                this.bufferPosition = 0;
+                buffer = buffers.get(this.bufferIndex);
+            }
+            return buffer;
+        }
+    }
+}
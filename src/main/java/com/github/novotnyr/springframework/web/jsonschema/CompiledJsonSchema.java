@@ -0,0 +1,558 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import org.everit.json.schema.ArraySchema;
+import org.everit.json.schema.BooleanSchema;
+import org.everit.json.schema.CombinedSchema;
+import org.everit.json.schema.EmptySchema;
+import org.everit.json.schema.FormatValidator;
+import org.everit.json.schema.NotSchema;
+import org.everit.json.schema.NullSchema;
+import org.everit.json.schema.NumberSchema;
+import org.everit.json.schema.ObjectSchema;
+import org.everit.json.schema.ReferenceSchema;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.StringSchema;
+import org.everit.json.schema.ValidationException;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * JSON schema compiled into a tree of specialized validators.
+ * <p>
+ *     The Everit {@link Schema} graph is interpreted anew for each validated value,
+ *     collecting violations into lists and streams even for valid documents.
+ *     The compiled schema decides whether a parsed JSON document is valid, keyword by keyword,
+ *     without any allocation. Keywords are resolved once, during the compilation, and each
+ *     node of the tree checks only the keywords that are defined by its schema.
+ * </p>
+ * <p>
+ *     Only invalid documents are validated by Everit, which reports the violations.
+ *     Therefore, the violations are always the same as of the Everit validation.
+ *     Schemas, which are not compiled, such as enumerations or objects with
+ *     <code>patternProperties</code>, are validated by Everit as a whole.
+ * </p>
+ */
+public class CompiledJsonSchema {
+    private static final Method EXCLUSIVE_MINIMUM_LIMIT_GETTER = ReflectionUtils.findMethod(NumberSchema.class, "getExclusiveMinimumLimit");
+
+    private static final Method EXCLUSIVE_MAXIMUM_LIMIT_GETTER = ReflectionUtils.findMethod(NumberSchema.class, "getExclusiveMaximumLimit");
+
+    private final Schema schema;
+
+    private final Node root;
+
+    private CompiledJsonSchema(Schema schema, Node root) {
+        this.schema = schema;
+        this.root = root;
+    }
+
+    /**
+     * Compiles the JSON schema, including all referenced schemas.
+     * @param schema compiled Everit JSON schema
+     */
+    public static CompiledJsonSchema compile(Schema schema) {
+        return new CompiledJsonSchema(schema, new Compiler().compile(schema));
+    }
+
+    /**
+     * Returns the Everit JSON schema, which validates invalid documents.
+     */
+    public Schema getSchema() {
+        return this.schema;
+    }
+
+    /**
+     * Indicates whether the parsed JSON document conforms to the schema.
+     * @param json parsed JSON document, such as a {@link JSONObject}
+     */
+    public boolean isValid(Object json) {
+        return this.root.isValid(json);
+    }
+
+    /**
+     * Validates the parsed JSON document.
+     * @param json parsed JSON document, such as a {@link JSONObject}
+     * @throws ValidationException when the document does not conform to the schema
+     */
+    public void validate(Object json) throws ValidationException {
+        if (!this.root.isValid(json)) {
+            this.schema.validate(json);
+        }
+    }
+
+    /**
+     * Compiles schemas into nodes. Each schema instance is compiled once, so that
+     * shared and recursive schemas are represented by the same node.
+     */
+    private static class Compiler {
+        private final Map<Schema, Node> nodes = new IdentityHashMap<>();
+
+        Node compile(Schema schema) {
+            Node node = this.nodes.get(schema);
+            if (node != null) {
+                return node;
+            }
+            if (schema instanceof ReferenceSchema) {
+                ReferenceNode referenceNode = new ReferenceNode();
+                this.nodes.put(schema, referenceNode);
+                referenceNode.referredNode = compile(((ReferenceSchema) schema).getReferredSchema());
+                return referenceNode;
+            }
+            node = compileSchema(schema);
+            this.nodes.put(schema, node);
+            return node;
+        }
+
+        private Node compileSchema(Schema schema) {
+            if (schema instanceof EmptySchema) {
+                return EmptyNode.INSTANCE;
+            }
+            if (schema instanceof ObjectSchema && StreamingJsonSchemaValidator.isStreamable(schema)) {
+                return compileObject((ObjectSchema) schema);
+            }
+            if (schema instanceof ArraySchema && StreamingJsonSchemaValidator.isStreamable(schema)) {
+                return compileArray((ArraySchema) schema);
+            }
+            if (schema instanceof StringSchema) {
+                return new StringNode((StringSchema) schema);
+            }
+            if (schema instanceof NumberSchema && isCompilable((NumberSchema) schema)) {
+                return new NumberNode((NumberSchema) schema);
+            }
+            if (schema instanceof BooleanSchema) {
+                return BooleanNode.INSTANCE;
+            }
+            if (schema instanceof NullSchema) {
+                return NullNode.INSTANCE;
+            }
+            if (schema instanceof CombinedSchema) {
+                return compileCombined((CombinedSchema) schema);
+            }
+            if (schema instanceof NotSchema) {
+                return new NotNode(compile(((NotSchema) schema).getMustNotMatch()));
+            }
+            return new EveritNode(schema);
+        }
+
+        private Node compileObject(ObjectSchema schema) {
+            Map<String, Schema> propertySchemas = schema.getPropertySchemas();
+            String[] propertyNames = propertySchemas.keySet().toArray(new String[0]);
+            Node[] propertyNodes = new Node[propertyNames.length];
+            for (int i = 0; i < propertyNames.length; i++) {
+                propertyNodes[i] = compile(propertySchemas.get(propertyNames[i]));
+            }
+            Schema schemaOfAdditionalProperties = schema.getSchemaOfAdditionalProperties();
+            return new ObjectNode(schema, propertyNames, propertyNodes,
+                    schemaOfAdditionalProperties != null ? compile(schemaOfAdditionalProperties) : null);
+        }
+
+        private Node compileArray(ArraySchema schema) {
+            Node allItemNode = schema.getAllItemSchema() != null ? compile(schema.getAllItemSchema()) : null;
+            Node[] itemNodes = null;
+            List<Schema> itemSchemas = schema.getItemSchemas();
+            if (itemSchemas != null) {
+                itemNodes = new Node[itemSchemas.size()];
+                for (int i = 0; i < itemNodes.length; i++) {
+                    itemNodes[i] = compile(itemSchemas.get(i));
+                }
+            }
+            Schema schemaOfAdditionalItems = schema.getSchemaOfAdditionalItems();
+            return new ArrayNode(schema, allItemNode, itemNodes,
+                    schemaOfAdditionalItems != null ? compile(schemaOfAdditionalItems) : null);
+        }
+
+        private Node compileCombined(CombinedSchema schema) {
+            Node[] subschemaNodes = schema.getSubschemas().stream().map(this::compile).toArray(Node[]::new);
+            if (schema.getCriterion() == CombinedSchema.ALL_CRITERION) {
+                return new AllOfNode(subschemaNodes);
+            }
+            if (schema.getCriterion() == CombinedSchema.ANY_CRITERION) {
+                return new AnyOfNode(subschemaNodes);
+            }
+            if (schema.getCriterion() == CombinedSchema.ONE_CRITERION) {
+                return new OneOfNode(subschemaNodes);
+            }
+            return new EveritNode(schema);
+        }
+
+        /**
+         * Indicates whether the number schema uses only the keywords checked by the {@link NumberNode}.
+         */
+        private boolean isCompilable(NumberSchema schema) {
+            return schema.getMultipleOf() == null
+                    && !isDefined(EXCLUSIVE_MINIMUM_LIMIT_GETTER, schema)
+                    && !isDefined(EXCLUSIVE_MAXIMUM_LIMIT_GETTER, schema);
+        }
+
+        private boolean isDefined(Method keywordGetter, Schema schema) {
+            return keywordGetter != null && ReflectionUtils.invokeMethod(keywordGetter, schema) != null;
+        }
+    }
+
+    /**
+     * Compiled schema deciding whether a value is valid.
+     */
+    private abstract static class Node {
+        abstract boolean isValid(Object value);
+    }
+
+    private static final class EmptyNode extends Node {
+        static final EmptyNode INSTANCE = new EmptyNode();
+
+        @Override
+        boolean isValid(Object value) {
+            return true;
+        }
+    }
+
+    private static final class ReferenceNode extends Node {
+        private Node referredNode;
+
+        @Override
+        boolean isValid(Object value) {
+            return this.referredNode.isValid(value);
+        }
+    }
+
+    /**
+     * Schema which is not compiled, validated by Everit.
+     */
+    private static final class EveritNode extends Node {
+        private final Schema schema;
+
+        EveritNode(Schema schema) {
+            this.schema = schema;
+        }
+
+        @Override
+        boolean isValid(Object value) {
+            return isValidByEverit(this.schema, value);
+        }
+    }
+
+    /**
+     * Plain object schema, whose properties are matched by names only.
+     */
+    private static final class ObjectNode extends Node {
+        private final boolean requiresObject;
+
+        private final String[] propertyNames;
+
+        private final Node[] propertyNodes;
+
+        private final Set<String> definedPropertyNames;
+
+        private final boolean permitsAdditionalProperties;
+
+        private final Node additionalPropertyNode;
+
+        private final String[] requiredProperties;
+
+        private final int minProperties;
+
+        private final int maxProperties;
+
+        ObjectNode(ObjectSchema schema, String[] propertyNames, Node[] propertyNodes, Node additionalPropertyNode) {
+            this.requiresObject = schema.requiresObject();
+            this.propertyNames = propertyNames;
+            this.propertyNodes = propertyNodes;
+            this.definedPropertyNames = schema.getPropertySchemas().keySet();
+            this.permitsAdditionalProperties = schema.permitsAdditionalProperties();
+            this.additionalPropertyNode = additionalPropertyNode;
+            this.requiredProperties = schema.getRequiredProperties().toArray(new String[0]);
+            this.minProperties = schema.getMinProperties() != null ? schema.getMinProperties() : 0;
+            this.maxProperties = schema.getMaxProperties() != null ? schema.getMaxProperties() : Integer.MAX_VALUE;
+        }
+
+        @Override
+        boolean isValid(Object value) {
+            if (!(value instanceof JSONObject)) {
+                return !this.requiresObject;
+            }
+            JSONObject object = (JSONObject) value;
+            int propertyCount = object.length();
+            if (propertyCount < this.minProperties || propertyCount > this.maxProperties) {
+                return false;
+            }
+            for (String requiredProperty : this.requiredProperties) {
+                if (!object.has(requiredProperty)) {
+                    return false;
+                }
+            }
+            int definedPropertyCount = 0;
+            for (int i = 0; i < this.propertyNames.length; i++) {
+                Object propertyValue = object.opt(this.propertyNames[i]);
+                if (propertyValue == null) {
+                    continue;
+                }
+                definedPropertyCount++;
+                if (!this.propertyNodes[i].isValid(propertyValue)) {
+                    return false;
+                }
+            }
+            if (definedPropertyCount == propertyCount
+                    || (this.permitsAdditionalProperties && this.additionalPropertyNode == null)) {
+                return true;
+            }
+            if (!this.permitsAdditionalProperties) {
+                return false;
+            }
+            for (String propertyName : object.keySet()) {
+                if (!this.definedPropertyNames.contains(propertyName)
+                        && !this.additionalPropertyNode.isValid(object.get(propertyName))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Array schema without unique items.
+     */
+    private static final class ArrayNode extends Node {
+        private final boolean requiresArray;
+
+        private final int minItems;
+
+        private final int maxItems;
+
+        private final Node allItemNode;
+
+        private final Node[] itemNodes;
+
+        private final boolean permitsAdditionalItems;
+
+        private final Node additionalItemNode;
+
+        ArrayNode(ArraySchema schema, Node allItemNode, Node[] itemNodes, Node additionalItemNode) {
+            this.requiresArray = schema.requiresArray();
+            this.minItems = schema.getMinItems() != null ? schema.getMinItems() : 0;
+            this.maxItems = schema.getMaxItems() != null ? schema.getMaxItems() : Integer.MAX_VALUE;
+            this.allItemNode = allItemNode;
+            this.itemNodes = itemNodes;
+            this.permitsAdditionalItems = schema.permitsAdditionalItems();
+            this.additionalItemNode = additionalItemNode;
+        }
+
+        @Override
+        boolean isValid(Object value) {
+            if (!(value instanceof JSONArray)) {
+                return !this.requiresArray;
+            }
+            JSONArray array = (JSONArray) value;
+            int itemCount = array.length();
+            if (itemCount < this.minItems || itemCount > this.maxItems) {
+                return false;
+            }
+            if (this.allItemNode != null) {
+                for (int i = 0; i < itemCount; i++) {
+                    if (!this.allItemNode.isValid(array.get(i))) {
+                        return false;
+                    }
+                }
+            } else if (this.itemNodes != null) {
+                for (int i = 0; i < itemCount; i++) {
+                    Node itemNode;
+                    if (i < this.itemNodes.length) {
+                        itemNode = this.itemNodes[i];
+                    } else if (!this.permitsAdditionalItems) {
+                        return false;
+                    } else if (this.additionalItemNode != null) {
+                        itemNode = this.additionalItemNode;
+                    } else {
+                        break;
+                    }
+                    if (!itemNode.isValid(array.get(i))) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class StringNode extends Node {
+        private final StringSchema schema;
+
+        private final int minLength;
+
+        private final int maxLength;
+
+        private final Pattern pattern;
+
+        private final FormatValidator formatValidator;
+
+        StringNode(StringSchema schema) {
+            this.schema = schema;
+            this.minLength = schema.getMinLength() != null ? schema.getMinLength() : 0;
+            this.maxLength = schema.getMaxLength() != null ? schema.getMaxLength() : Integer.MAX_VALUE;
+            this.pattern = schema.getPattern();
+            this.formatValidator = schema.getFormatValidator() != FormatValidator.NONE ? schema.getFormatValidator() : null;
+        }
+
+        @Override
+        boolean isValid(Object value) {
+            if (!(value instanceof String)) {
+                // whether a string is required is not exposed by the schema
+                return isValidByEverit(this.schema, value);
+            }
+            String string = (String) value;
+            if (this.minLength > 0 || this.maxLength < Integer.MAX_VALUE) {
+                int length = string.codePointCount(0, string.length());
+                if (length < this.minLength || length > this.maxLength) {
+                    return false;
+                }
+            }
+            if (this.pattern != null && !this.pattern.matcher(string).find()) {
+                return false;
+            }
+            return this.formatValidator == null || !this.formatValidator.validate(string).isPresent();
+        }
+    }
+
+    /**
+     * Number schema without <code>multipleOf</code>.
+     */
+    private static final class NumberNode extends Node {
+        private final NumberSchema schema;
+
+        private final boolean requiresInteger;
+
+        private final double minimum;
+
+        private final boolean exclusiveMinimum;
+
+        private final double maximum;
+
+        private final boolean exclusiveMaximum;
+
+        NumberNode(NumberSchema schema) {
+            this.schema = schema;
+            this.requiresInteger = schema.requiresInteger();
+            this.minimum = schema.getMinimum() != null ? schema.getMinimum().doubleValue() : Double.NEGATIVE_INFINITY;
+            this.exclusiveMinimum = schema.getMinimum() != null && schema.isExclusiveMinimum();
+            this.maximum = schema.getMaximum() != null ? schema.getMaximum().doubleValue() : Double.POSITIVE_INFINITY;
+            this.exclusiveMaximum = schema.getMaximum() != null && schema.isExclusiveMaximum();
+        }
+
+        @Override
+        boolean isValid(Object value) {
+            if (!(value instanceof Number)) {
+                // whether a number is required is not exposed by the schema
+                return isValidByEverit(this.schema, value);
+            }
+            if (this.requiresInteger && !(value instanceof Integer || value instanceof Long)) {
+                return false;
+            }
+            double number = ((Number) value).doubleValue();
+            if (this.exclusiveMinimum ? number <= this.minimum : number < this.minimum) {
+                return false;
+            }
+            return this.exclusiveMaximum ? number < this.maximum : number <= this.maximum;
+        }
+    }
+
+    private static final class BooleanNode extends Node {
+        static final BooleanNode INSTANCE = new BooleanNode();
+
+        @Override
+        boolean isValid(Object value) {
+            return value instanceof Boolean;
+        }
+    }
+
+    private static final class NullNode extends Node {
+        static final NullNode INSTANCE = new NullNode();
+
+        @Override
+        boolean isValid(Object value) {
+            return value == null || value == JSONObject.NULL;
+        }
+    }
+
+    private static final class AllOfNode extends Node {
+        private final Node[] subschemaNodes;
+
+        AllOfNode(Node[] subschemaNodes) {
+            this.subschemaNodes = subschemaNodes;
+        }
+
+        @Override
+        boolean isValid(Object value) {
+            for (Node subschemaNode : this.subschemaNodes) {
+                if (!subschemaNode.isValid(value)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class AnyOfNode extends Node {
+        private final Node[] subschemaNodes;
+
+        AnyOfNode(Node[] subschemaNodes) {
+            this.subschemaNodes = subschemaNodes;
+        }
+
+        @Override
+        boolean isValid(Object value) {
+            for (Node subschemaNode : this.subschemaNodes) {
+                if (subschemaNode.isValid(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class OneOfNode extends Node {
+        private final Node[] subschemaNodes;
+
+        OneOfNode(Node[] subschemaNodes) {
+            this.subschemaNodes = subschemaNodes;
+        }
+
+        @Override
+        boolean isValid(Object value) {
+            int matchingCount = 0;
+            for (Node subschemaNode : this.subschemaNodes) {
+                if (subschemaNode.isValid(value) && ++matchingCount > 1) {
+                    return false;
+                }
+            }
+            return matchingCount == 1;
+        }
+    }
+
+    private static final class NotNode extends Node {
+        private final Node mustNotMatchNode;
+
+        NotNode(Node mustNotMatchNode) {
+            this.mustNotMatchNode = mustNotMatchNode;
+        }
+
+        @Override
+        boolean isValid(Object value) {
+            return !this.mustNotMatchNode.isValid(value);
+        }
+    }
+
+    private static boolean isValidByEverit(Schema schema, Object value) {
+        try {
+            schema.validate(value);
+            return true;
+        } catch (ValidationException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import org.everit.json.schema.Schema;
+
+/**
+ * Validates request bodies by JSON schemas compiled into specialized validators.
+ * @see CompiledJsonSchema
+ */
+public class CompiledJsonSchemaValidatorEngine implements JsonSchemaValidatorEngine {
+    /**
+     * Name of the engine
+     */
+    public static final String NAME = "compiled";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Validator compile(Schema schema) {
+        return CompiledJsonSchema.compile(schema)::validate;
+    }
+}
@@ -2,7 +2,15 @@ package com.github.novotnyr.springframework.web.jsonschema;
 
 import org.everit.json.schema.ValidationException;
 import org.springframework.core.convert.converter.Converter;
+import org.springframework.validation.AbstractBindingResult;
 import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Converts {@link ValidationException} from Everit JSON Schema
@@ -13,8 +21,49 @@ import org.springframework.validation.Errors;
  *     Instead, we will contribute errors to the instance
  *     provided in the second parameter.
  * </p>
+ * <p>
+ *     Each violation is contributed as a separate error:
+ * </p>
+ * <ul>
+ *     <li>The field is derived from the JSON pointer to the violating value, such as
+ *     <code>#/items/0/name</code>, which is converted to the <code>items[0].name</code> property path.
+ *     Violations of the whole document are contributed as global errors.</li>
+ *     <li>Missing required properties are contributed to the field of the missing property
+ *     with the <code>required-field</code> code.</li>
+ *     <li>Other error codes are derived from JSON schema keywords, such as
+ *     <code>exclusive-minimum</code> for the <code>exclusiveMinimum</code> keyword.</li>
+ * </ul>
+ * <p>
+ *     Violations of <code>anyOf</code>, <code>oneOf</code> and <code>not</code> are reported as a single error,
+ *     since their causes are just failed alternatives. Violations nested deeper than
+ *     the maximum depth are reported as a single error as well.
+ * </p>
  */
 public class DetailsValidationExceptionMediator implements ValidationExceptionMediator {
+    /**
+     * Default maximum depth of traversed nested violations
+     */
+    public static final int DEFAULT_MAX_DEPTH = 32;
+
+    /**
+     * Everit does not expose the missing property of the <code>required</code> keyword
+     * other than in the message, formatted as <code>required key [name] not found</code>
+     */
+    private static final String REQUIRED_MESSAGE_PREFIX = "required key [";
+
+    private static final String REQUIRED_MESSAGE_SUFFIX = "] not found";
+
+    private static final String REQUIRED_ERROR_CODE = "required-field";
+
+    private static final String DEFAULT_ERROR_CODE = "invalid";
+
+    /**
+     * Error codes of JSON schema keywords, avoiding the code conversion on each violation
+     */
+    private static final ConcurrentMap<String, String> errorCodes = new ConcurrentHashMap<>();
+
+    private int maxDepth = DEFAULT_MAX_DEPTH;
+
     /**
      * Does the best effort to convert the validation exception
      * to errors that will be contributed to the {@link Errors} instance
@@ -22,38 +71,163 @@ public class DetailsValidationExceptionMediator implements ValidationExceptionMe
      * @param errors binding errors that will be used in Spring MVC mechanism
      */
     public void convert(ValidationException validationException, Errors errors) {
-        if("exclusiveMinimum".equals(validationException.getKeyword())) {
-            String schemaLocation = validationException.getSchemaLocation();
-            String field = schemaLocation.substring(schemaLocation.lastIndexOf("/") + 1);
-            errors.rejectValue(field, "exclusive-minimum", validationException.getErrorMessage());
-        }
-        if("required".equals(validationException.getKeyword())) {
-            String schemaLocation = validationException.getSchemaLocation();
-            parseRequired(validationException, errors);
-        }
-        for (ValidationException nestedException : validationException.getCausingExceptions()) {
-            if(isRequired(nestedException)) {
-                parseRequired(nestedException, errors);
+        Deque<ValidationException> exceptions = new ArrayDeque<>();
+        Deque<Integer> depths = new ArrayDeque<>();
+        exceptions.push(validationException);
+        depths.push(0);
+        while (!exceptions.isEmpty()) {
+            ValidationException exception = exceptions.pop();
+            int depth = depths.pop();
+            List<ValidationException> causingExceptions = exception.getCausingExceptions();
+            if (causingExceptions.isEmpty() || isAlternative(exception) || depth >= this.maxDepth) {
+                reject(exception, errors);
                 continue;
             }
-            errors.reject("reject", validationException.getErrorMessage());
+            for (int i = causingExceptions.size() - 1; i >= 0; i--) {
+                exceptions.push(causingExceptions.get(i));
+                depths.push(depth + 1);
+            }
+        }
+    }
+
+    private boolean isAlternative(ValidationException exception) {
+        String keyword = exception.getKeyword();
+        return "anyOf".equals(keyword) || "oneOf".equals(keyword) || "not".equals(keyword);
+    }
+
+    private void reject(ValidationException exception, Errors errors) {
+        String keyword = exception.getKeyword();
+        String field = toPropertyPath(exception.getPointerToViolation());
+        String errorCode;
+        String message;
+        String requiredProperty = "required".equals(keyword) ? getRequiredProperty(exception) : null;
+        if (requiredProperty != null) {
+            field = field.isEmpty() ? requiredProperty : field + "." + requiredProperty;
+            errorCode = REQUIRED_ERROR_CODE;
+            message = "Field is required";
+        } else {
+            errorCode = getErrorCode(keyword);
+            message = exception.getErrorMessage();
+        }
+        if (field.isEmpty()) {
+            errors.reject(errorCode, message);
+        } else {
+            rejectValue(errors, field, errorCode, message);
+        }
+    }
+
+    /**
+     * Contributes the field error without reading the field value. The field might
+     * not exist in the target object, since the JSON document has been rejected.
+     */
+    private void rejectValue(Errors errors, String field, String errorCode, String message) {
+        if (!(errors instanceof AbstractBindingResult)) {
+            errors.rejectValue(field, errorCode, message);
+            return;
+        }
+        AbstractBindingResult bindingResult = (AbstractBindingResult) errors;
+        String fullField = bindingResult.getNestedPath() + field;
+        String[] errorCodes = bindingResult.getMessageCodesResolver()
+                .resolveMessageCodes(errorCode, bindingResult.getObjectName(), fullField, null);
+        bindingResult.addError(new FieldError(bindingResult.getObjectName(), fullField, null, false, errorCodes, null, message));
+    }
+
+    private String getRequiredProperty(ValidationException exception) {
+        String message = exception.getErrorMessage();
+        if (message.startsWith(REQUIRED_MESSAGE_PREFIX) && message.endsWith(REQUIRED_MESSAGE_SUFFIX)) {
+            return message.substring(REQUIRED_MESSAGE_PREFIX.length(), message.length() - REQUIRED_MESSAGE_SUFFIX.length());
+        }
+        return null;
+    }
+
+    private String getErrorCode(String keyword) {
+        if (keyword == null) {
+            return DEFAULT_ERROR_CODE;
+        }
+        String errorCode = errorCodes.get(keyword);
+        if (errorCode == null) {
+            errorCode = errorCodes.computeIfAbsent(keyword, DetailsValidationExceptionMediator::toErrorCode);
+        }
+        return errorCode;
+    }
+
+    /**
+     * Converts the camel case keyword to the lower case error code with dashes,
+     * such as <code>exclusiveMinimum</code> to <code>exclusive-minimum</code>.
+     */
+    private static String toErrorCode(String keyword) {
+        StringBuilder errorCode = new StringBuilder(keyword.length() + 4);
+        for (int i = 0; i < keyword.length(); i++) {
+            char c = keyword.charAt(i);
+            if (Character.isUpperCase(c)) {
+                errorCode.append('-').append(Character.toLowerCase(c));
+            } else {
+                errorCode.append(c);
+            }
+        }
+        return errorCode.toString();
+    }
+
+    /**
+     * Converts the JSON pointer to the Spring property path. Numeric segments are
+     * treated as array indexes, such as <code>#/items/0/name</code> to <code>items[0].name</code>.
+     * Escaped <code>~0</code> and <code>~1</code> sequences are unescaped.
+     * @return property path, or empty string for the pointer to the whole document
+     */
+    static String toPropertyPath(String pointer) {
+        int start = pointer.startsWith("#") ? 1 : 0;
+        if (pointer.length() <= start + 1) {
+            return "";
+        }
+        StringBuilder path = new StringBuilder(pointer.length() + 4);
+        int segmentStart = start + 1;
+        while (segmentStart <= pointer.length()) {
+            int segmentEnd = pointer.indexOf('/', segmentStart);
+            if (segmentEnd < 0) {
+                segmentEnd = pointer.length();
+            }
+            appendSegment(path, pointer, segmentStart, segmentEnd);
+            segmentStart = segmentEnd + 1;
         }
+        return path.toString();
     }
 
-    private boolean isRequired(ValidationException exception) {
-        return exception.getErrorMessage().startsWith("required key");
+    private static void appendSegment(StringBuilder path, String pointer, int start, int end) {
+        if (isIndex(pointer, start, end)) {
+            path.append('[').append(pointer, start, end).append(']');
+            return;
+        }
+        if (path.length() > 0) {
+            path.append('.');
+        }
+        for (int i = start; i < end; i++) {
+            char c = pointer.charAt(i);
+            if (c == '~' && i + 1 < end) {
+                char escaped = pointer.charAt(++i);
+                path.append(escaped == '1' ? '/' : escaped == '0' ? '~' : escaped);
+            } else {
+                path.append(c);
+            }
+        }
     }
 
-    private void parseRequired(ValidationException exception, Errors errors) {
-        String message = exception.getMessage();
-        int leftBracket = message.indexOf("[");
-        int rightBracket = message.indexOf("]");
-        String field = message.substring(leftBracket + 1, rightBracket);
-        String schemaLocation = exception.getSchemaLocation();
-        if (schemaLocation.contains("/")) {
-            String path = schemaLocation.substring(schemaLocation.lastIndexOf("/") + 1);
-            errors.setNestedPath(path);
+    private static boolean isIndex(String pointer, int start, int end) {
+        if (start == end) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (!Character.isDigit(pointer.charAt(i))) {
+                return false;
+            }
         }
-        errors.rejectValue(field, "required-field", "Field is required");
+        return true;
+    }
+
+    /**
+     * Sets the maximum depth of traversed nested violations. Deeper violations are
+     * reported as a single error of their ancestor. Defaults to {@value #DEFAULT_MAX_DEPTH}.
+     */
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
     }
 }
@@ -0,0 +1,36 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.nio.file.Path;
+
+/**
+ * JSON schema resolver that resolves schema {@link Resource}s from a filesystem directory,
+ * using the same naming convention as the {@link ParamNameJsonSchemaResolver}.
+ * <p>
+ *     Resolving the resource does not access the filesystem. Combined
+ *     with the {@link JsonSchemaDirectoryWatcher}, schemas can be changed
+ *     without redeploying the application.
+ * </p>
+ */
+public class DirectoryJsonSchemaResolver extends ParamNameJsonSchemaResolver {
+    private final Path directory;
+
+    /**
+     * Creates a resolver of schemas in the directory.
+     * @param directory directory with JSON schema files
+     */
+    public DirectoryJsonSchemaResolver(Path directory) {
+        this.directory = directory.toAbsolutePath().normalize();
+    }
+
+    @Override
+    protected Resource createJsonSchemaResource(String schemaFileName) {
+        return new FileSystemResource(this.directory.resolve(schemaFileName).toFile());
+    }
+
+    public Path getDirectory() {
+        return this.directory;
+    }
+}
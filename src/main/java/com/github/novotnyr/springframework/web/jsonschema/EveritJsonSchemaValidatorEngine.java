@@ -0,0 +1,23 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import org.everit.json.schema.Schema;
+
+/**
+ * Validates request bodies by interpreting the Everit {@link Schema}. This is the default engine.
+ */
+public class EveritJsonSchemaValidatorEngine implements JsonSchemaValidatorEngine {
+    /**
+     * Name of the engine
+     */
+    public static final String NAME = "everit";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Validator compile(Schema schema) {
+        return schema::validate;
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Indicates a JSON schema that is available, but cannot be parsed or compiled.
+ */
+public class InvalidJsonSchemaException extends JsonSchemaException {
+
+    public InvalidJsonSchemaException(Resource jsonSchemaResource, Throwable cause) {
+        super("Unable to compile JSON schema from " + jsonSchemaResource.getDescription(), cause);
+    }
+
+    public InvalidJsonSchemaException(String msg) {
+        super(msg);
+    }
+
+    public InvalidJsonSchemaException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
@@ -0,0 +1,419 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.github.novotnyr.springframework.web.jsonschema.annotation.JsonRequestBody;
+import com.github.novotnyr.springframework.web.jsonschema.annotation.PayloadFormat;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Validates and binds batch request bodies, that is, top-level JSON arrays
+ * or newline-delimited JSON values.
+ * <p>
+ *     Each element is validated against the JSON schema while it is being parsed,
+ *     without materializing the whole batch. Violations are reported with JSON
+ *     pointers prefixed by the element index, such as <code>#/2/count</code>,
+ *     which are contributed to the <code>[2].count</code> field.
+ * </p>
+ * <p>
+ *     Elements are bound to a {@link List} or a {@link Collection} parameter, or to a {@link Stream}
+ *     or an {@link Iterator} parameter, which can bind the elements lazily, one by one.
+ *     Elements are validated and bound in a single pass over the batch: each element is read
+ *     into a JSON tree, validated by the {@link BatchValidation}, and bound from the tree.
+ * </p>
+ * @see JsonRequestBody#format()
+ */
+public class JsonBatchReader {
+    private final ObjectMapper objectMapper;
+
+    private final StreamingJsonSchemaValidator streamingJsonSchemaValidator;
+
+    /**
+     * Creates a reader binding elements by the object mapper.
+     */
+    public JsonBatchReader(ObjectMapper objectMapper, StreamingJsonSchemaValidator streamingJsonSchemaValidator) {
+        this.objectMapper = objectMapper;
+        this.streamingJsonSchemaValidator = streamingJsonSchemaValidator;
+    }
+
+    /**
+     * Validates each element of the batch against the JSON schema.
+     * @param maxViolations maximum number of reported violations in all elements,
+     *                      non-positive for unlimited number of violations
+     * @throws ValidationException when some elements do not conform to the schema
+     * @throws IOException when the batch cannot be read or parsed
+     */
+    public void validate(Schema schema, InputStream body, PayloadFormat format, int maxViolations) throws ValidationException, IOException {
+        List<ValidationException> failures = new ArrayList<>();
+        int violationCount = 0;
+        try (JsonParser parser = this.objectMapper.getFactory().createParser(body)) {
+            ElementParser elementParser = new ElementParser(parser, format);
+            while (elementParser.nextElement()) {
+                int remainingViolations = maxViolations > 0 ? maxViolations - violationCount : -1;
+                try {
+                    this.streamingJsonSchemaValidator.validateCurrentValue(schema, parser, remainingViolations);
+                } catch (ValidationException e) {
+                    failures.add(e.prepend(String.valueOf(elementParser.getIndex())));
+                    violationCount += e.getViolationCount();
+                    if (maxViolations > 0 && violationCount >= maxViolations) {
+                        break;
+                    }
+                }
+            }
+        }
+        if (!failures.isEmpty()) {
+            ValidationException.throwFor(schema, failures);
+        }
+    }
+
+    /**
+     * Binds all elements of the batch to the parameter value without validation.
+     * @return a {@link List} of elements, or a {@link Stream} or an {@link Iterator} over the list
+     * @throws IOException when the batch cannot be read, parsed or bound
+     */
+    public Object read(InputStream body, PayloadFormat format, MethodParameter parameter) throws IOException {
+        return read(body, format, parameter, null);
+    }
+
+    /**
+     * Validates and binds all elements of the batch to the parameter value, in a single pass.
+     * The validation is {@link BatchValidation#onComplete() completed} once all elements are read.
+     * @param validation validation of elements, or {@code null} to bind elements without validation
+     * @return a {@link List} of elements, or a {@link Stream} or an {@link Iterator} over the list
+     * @throws IOException when the batch cannot be read, parsed or bound
+     */
+    public Object read(InputStream body, PayloadFormat format, MethodParameter parameter, BatchValidation validation) throws IOException {
+        ObjectReader elementReader = this.objectMapper.readerFor(getElementType(parameter));
+        List<Object> elements = new ArrayList<>();
+        try (JsonParser parser = this.objectMapper.getFactory().createParser(body)) {
+            ElementParser elementParser = new ElementParser(parser, format);
+            while (elementParser.nextElement()) {
+                if (validation != null && validation.isBindingStopped() && validation.isLimitReached()) {
+                    break;
+                }
+                JsonNode element = validateElement(elementParser, validation);
+                if (validation == null || !validation.isBindingStopped()) {
+                    elements.add(bindElement(parser, element, elementReader));
+                }
+            }
+        }
+        if (validation != null) {
+            validation.onComplete();
+        }
+        Class<?> parameterType = parameter.getNestedParameterType();
+        if (Stream.class.equals(parameterType)) {
+            return elements.stream();
+        }
+        if (Iterator.class.equals(parameterType)) {
+            return elements.iterator();
+        }
+        return elements;
+    }
+
+    /**
+     * Binds the elements of the batch on demand, while the parameter value is consumed.
+     * The body must remain readable until the value is consumed.
+     * <p>
+     *     Elements that cannot be parsed or bound are reported by {@link HttpMessageNotReadableException}
+     *     thrown while consuming the value.
+     * </p>
+     * <p>
+     *     Each element is validated just before it is bound, therefore the violations are
+     *     {@link BatchValidation#onViolation(ValidationException) reported} while consuming the value,
+     *     and the validation is {@link BatchValidation#onComplete() completed} once the last element is consumed.
+     * </p>
+     * @param validation validation of elements, or {@code null} to bind elements without validation
+     * @return a {@link Stream} or an {@link Iterator} of elements
+     * @throws IOException when the batch cannot be read
+     * @see #isLazilyReadable(MethodParameter)
+     */
+    public Object readLazily(InputStream body, PayloadFormat format, MethodParameter parameter, BatchValidation validation) throws IOException {
+        ObjectReader elementReader = this.objectMapper.readerFor(getElementType(parameter));
+        JsonParser parser = this.objectMapper.getFactory().createParser(body);
+        Iterator<Object> elements = new ElementIterator(new ElementParser(parser, format), elementReader, validation);
+        if (Stream.class.equals(parameter.getNestedParameterType())) {
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(elements, Spliterator.ORDERED), false)
+                    .onClose(() -> closeQuietly(parser));
+        }
+        return elements;
+    }
+
+    /**
+     * Indicates whether the parameter value can be bound on demand, that is,
+     * whether the parameter is a {@link Stream} or an {@link Iterator}.
+     */
+    public static boolean isLazilyReadable(MethodParameter parameter) {
+        Class<?> parameterType = parameter.getNestedParameterType();
+        return Stream.class.equals(parameterType) || Iterator.class.equals(parameterType);
+    }
+
+    /**
+     * Validates the element at the current token, until the maximum number of violations is reached.
+     * The validated element is read into a JSON tree, which is bound afterwards.
+     * @return the validated element, or {@code null} when the element was not read
+     */
+    private JsonNode validateElement(ElementParser elementParser, BatchValidation validation) throws IOException {
+        if (validation == null || validation.isLimitReached()) {
+            return null;
+        }
+        JsonNode element = elementParser.parser.readValueAsTree();
+        if (element == null) {
+            element = NullNode.getInstance();
+        }
+        long start = System.nanoTime();
+        ValidationException failure = null;
+        try (JsonParser elementTokens = this.objectMapper.treeAsTokens(element)) {
+            this.streamingJsonSchemaValidator.validate(validation.getSchema(), elementTokens, validation.getRemainingViolations());
+        } catch (ValidationException e) {
+            failure = e.prepend(String.valueOf(elementParser.getIndex()));
+        }
+        validation.validationTime += System.nanoTime() - start;
+        if (failure != null) {
+            validation.addFailure(failure);
+        }
+        return element;
+    }
+
+    /**
+     * Binds the validated element, or the element at the current token, when it was not validated.
+     */
+    private Object bindElement(JsonParser parser, JsonNode element, ObjectReader elementReader) throws IOException {
+        return element != null ? elementReader.readValue(element) : elementReader.readValue(parser);
+    }
+
+    private JavaType getElementType(MethodParameter parameter) {
+        Class<?> parameterType = parameter.getNestedParameterType();
+        if (!Stream.class.equals(parameterType) && !Iterator.class.equals(parameterType)
+                && !parameterType.isAssignableFrom(List.class)) {
+            throw new IllegalStateException("Batch request body can be bound only to a List, Collection, Stream or Iterator parameter: "
+                    + parameter.getExecutable().toGenericString());
+        }
+        ResolvableType elementType = ResolvableType.forMethodParameter(parameter).getGeneric(0);
+        return this.objectMapper.constructType(elementType == ResolvableType.NONE ? Object.class : elementType.getType());
+    }
+
+    private static void closeQuietly(JsonParser parser) {
+        try {
+            parser.close();
+        } catch (IOException e) {
+            // nothing to release, since the body is held in memory
+        }
+    }
+
+    /**
+     * Validation of batch elements while they are bound, up to the maximum number of violations
+     * in all elements. Elements beyond the maximum are bound without validation.
+     * <p>
+     *     Subclasses can react to violations of each element, which is useful when elements
+     *     are bound on demand, and to the completed validation of the whole batch.
+     * </p>
+     */
+    public static class BatchValidation {
+        private final Schema schema;
+
+        private final int maxViolations;
+
+        private final boolean strict;
+
+        private final List<ValidationException> failures = new ArrayList<>();
+
+        private int violationCount;
+
+        private long validationTime;
+
+        /**
+         * @param schema JSON schema of a single element
+         * @param maxViolations maximum number of reported violations in all elements,
+         *                      non-positive for unlimited number of violations
+         * @param strict whether the binding of all elements read at once stops at the first invalid element,
+         *               since the batch is rejected anyway
+         */
+        public BatchValidation(Schema schema, int maxViolations, boolean strict) {
+            this.schema = schema;
+            this.maxViolations = maxViolations;
+            this.strict = strict;
+        }
+
+        /**
+         * Called with the violations of each invalid element, prefixed by the element index.
+         * Runtime exceptions are propagated to the reader of elements.
+         */
+        protected void onViolation(ValidationException failure) {
+        }
+
+        /**
+         * Called once all elements are validated. Runtime exceptions are propagated to the reader of elements.
+         */
+        protected void onComplete() {
+        }
+
+        /**
+         * Returns the violations of all elements.
+         * @return the violations, or {@code null} when all validated elements are valid
+         */
+        public ValidationException getValidationException() {
+            if (this.failures.isEmpty()) {
+                return null;
+            }
+            try {
+                ValidationException.throwFor(this.schema, this.failures);
+            } catch (ValidationException e) {
+                return e;
+            }
+            return null;
+        }
+
+        /**
+         * Returns the time spent by validating elements in nanoseconds, excluding their parsing and binding.
+         */
+        public long getValidationTime() {
+            return this.validationTime;
+        }
+
+        public Schema getSchema() {
+            return this.schema;
+        }
+
+        void addFailure(ValidationException failure) {
+            this.failures.add(failure);
+            this.violationCount += failure.getViolationCount();
+            onViolation(failure);
+        }
+
+        int getRemainingViolations() {
+            return this.maxViolations > 0 ? this.maxViolations - this.violationCount : -1;
+        }
+
+        boolean isLimitReached() {
+            return this.maxViolations > 0 && this.violationCount >= this.maxViolations;
+        }
+
+        boolean isBindingStopped() {
+            return this.strict && !this.failures.isEmpty();
+        }
+    }
+
+    /**
+     * Positions the parser at the first token of each element.
+     */
+    private static class ElementParser {
+        private final JsonParser parser;
+
+        private final PayloadFormat format;
+
+        private int index = -1;
+
+        private boolean finished;
+
+        ElementParser(JsonParser parser, PayloadFormat format) {
+            this.parser = parser;
+            this.format = format;
+        }
+
+        /**
+         * Moves to the next element.
+         * @return {@code false} when there are no more elements
+         */
+        boolean nextElement() throws IOException {
+            if (this.finished) {
+                return false;
+            }
+            JsonToken token = this.parser.nextToken();
+            if (this.index < 0 && this.format == PayloadFormat.JSON_ARRAY) {
+                if (token != JsonToken.START_ARRAY) {
+                    throw new JsonParseException(this.parser, "Expected a JSON array of batch elements");
+                }
+                token = this.parser.nextToken();
+            }
+            if (token == null || (token == JsonToken.END_ARRAY && this.format == PayloadFormat.JSON_ARRAY)) {
+                this.finished = true;
+                return false;
+            }
+            this.index++;
+            return true;
+        }
+
+        int getIndex() {
+            return this.index;
+        }
+    }
+
+    /**
+     * Validates and binds elements one by one, closing the parser after the last element.
+     */
+    private class ElementIterator implements Iterator<Object> {
+        private final ElementParser elementParser;
+
+        private final ObjectReader elementReader;
+
+        private final BatchValidation validation;
+
+        private Boolean hasNext;
+
+        ElementIterator(ElementParser elementParser, ObjectReader elementReader, BatchValidation validation) {
+            this.elementParser = elementParser;
+            this.elementReader = elementReader;
+            this.validation = validation;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (this.hasNext == null) {
+                try {
+                    this.hasNext = this.elementParser.nextElement();
+                } catch (IOException e) {
+                    throw notReadable(e);
+                }
+                if (!this.hasNext) {
+                    closeQuietly(this.elementParser.parser);
+                    if (this.validation != null) {
+                        this.validation.onComplete();
+                    }
+                }
+            }
+            return this.hasNext;
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            this.hasNext = null;
+            try {
+                JsonNode element = validateElement(this.elementParser, this.validation);
+                return bindElement(this.elementParser.parser, element, this.elementReader);
+            } catch (IOException e) {
+                throw notReadable(e);
+            }
+        }
+
+        private HttpMessageNotReadableException notReadable(IOException e) {
+            String message = e instanceof JsonProcessingException ? ((JsonProcessingException) e).getOriginalMessage() : e.getMessage();
+            return new HttpMessageNotReadableException("JSON parse error: " + message, e);
+        }
+    }
+}
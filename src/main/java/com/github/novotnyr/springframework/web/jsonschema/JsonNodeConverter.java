@@ -0,0 +1,58 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Converts Jackson {@link JsonNode} trees to the <code>org.json</code> representation
+ * that is validated by the Everit JSON Schema.
+ * <p>
+ *     The conversion walks an already parsed tree, therefore the JSON
+ *     text does not need to be tokenized once again. Numbers are converted to the
+ *     same types as produced by the {@link org.json.JSONTokener}, i. e.
+ *     integral numbers to {@link Integer}, {@link Long} or {@link java.math.BigInteger}
+ *     and decimal numbers to {@link Double} or {@link java.math.BigDecimal}.
+ * </p>
+ */
+public class JsonNodeConverter {
+    /**
+     * Converts the JSON node to <code>org.json</code> value
+     * @param node Jackson JSON node
+     * @return {@link JSONObject}, {@link JSONArray}, {@link JSONObject#NULL} or a primitive value
+     */
+    public Object convert(JsonNode node) {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            return JSONObject.NULL;
+        }
+        if (node.isObject()) {
+            JSONObject jsonObject = new JSONObject();
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                jsonObject.put(field.getKey(), convert(field.getValue()));
+            }
+            return jsonObject;
+        }
+        if (node.isArray()) {
+            JSONArray jsonArray = new JSONArray();
+            for (JsonNode element : node) {
+                jsonArray.put(convert(element));
+            }
+            return jsonArray;
+        }
+        if (node.isTextual()) {
+            return node.textValue();
+        }
+        if (node.isBoolean()) {
+            return node.booleanValue();
+        }
+        if (node.isNumber()) {
+            return node.numberValue();
+        }
+        return node.asText();
+    }
+}
@@ -1,15 +1,25 @@
 package com.github.novotnyr.springframework.web.jsonschema;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.novotnyr.springframework.web.jsonschema.annotation.JsonRequestBody;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.everit.json.schema.Schema;
 import org.everit.json.schema.ValidationException;
-import org.everit.json.schema.loader.SchemaLoader;
 import org.json.JSONObject;
 import org.json.JSONTokener;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.core.Conventions;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.io.Resource;
-import org.springframework.util.StreamUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.validation.AbstractBindingResult;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.Errors;
@@ -17,14 +27,34 @@ import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.support.WebDataBinderFactory;
 import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.ModelAndViewContainer;
 import org.springframework.web.servlet.mvc.method.annotation.RequestResponseBodyMethodProcessor;
 
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.ZipException;
 
 /**
  * The argument resolver for @{@link JsonRequestBody}-annotated values.
@@ -35,8 +65,27 @@ import java.nio.charset.StandardCharsets;
  *     either JSON exception is thrown or the corresponding {@link Errors}
  *     are populated.
  * </p>
+ * <p>
+ *     For strict validation, the order can be reversed by {@link JsonRequestBody#validateBeforeBinding()}:
+ *     the request body is validated first and invalid bodies are rejected without being bound.
+ * </p>
+ * <p>
+ *     Batch request bodies, see {@link JsonRequestBody#format()}, are validated element by element
+ *     by the {@link JsonBatchReader}.
+ * </p>
+ * <p>
+ *     Only a {@link JsonRequestBody#sampleRate() fraction} of requests can be validated,
+ *     and request bodies can be validated in the {@link JsonRequestBody#shadow() shadow} mode,
+ *     in the background, without failing the request.
+ * </p>
+ * <p>
+ *     Request bodies compressed by the <code>gzip</code> or <code>deflate</code> content coding
+ *     are decompressed by the {@link RequestBodyDecompressor} while they are being captured.
+ * </p>
  */
-public class JsonRequestBodyArgumentResolver implements HandlerMethodArgumentResolver {
+public class JsonRequestBodyArgumentResolver implements HandlerMethodArgumentResolver, DisposableBean {
+    private static final Log logger = LogFactory.getLog(JsonRequestBodyArgumentResolver.class);
+
     private RequestResponseBodyMethodProcessor requestResponseBodyMethodProcessor;
 
     private ValidationExceptionMediator validationExceptionMediator = new DetailsValidationExceptionMediator();
@@ -46,11 +95,80 @@ public class JsonRequestBodyArgumentResolver implements HandlerMethodArgumentRes
      */
     private JsonSchemaResolver jsonSchemaResolver;
 
+    /**
+     * Compiled schemas, shared among requests
+     */
+    private JsonSchemaCache jsonSchemaCache = new JsonSchemaCache();
+
+    private JsonSchemaLoader jsonSchemaLoader = new JsonSchemaLoader();
+
+    /**
+     * Binds JSON trees to parameter values in the single-parse mode and creates parsers in the streaming mode
+     */
+    private volatile ObjectMapper objectMapper;
+
+    private final JsonNodeConverter jsonNodeConverter = new JsonNodeConverter();
+
+    /**
+     * Buffers capturing request bodies
+     */
+    private RequestBodyBufferPool requestBodyBufferPool = new RequestBodyBufferPool();
+
+    /**
+     * Default maximum request body size in bytes, negative for unlimited size
+     */
+    private long maxBodySize = -1;
+
+    /**
+     * Decompresses request bodies with <code>Content-Encoding</code>, or {@code null} to read them as they are
+     */
+    private RequestBodyDecompressor requestBodyDecompressor = new RequestBodyDecompressor();
+
+    /**
+     * Stop the validation at the first violation, unless overridden by the parameter
+     */
+    private boolean failFast;
+
+    /**
+     * Default maximum number of reported violations, non-positive for unlimited number of violations
+     */
+    private int maxErrors = -1;
+
+    private final StreamingJsonSchemaValidator streamingJsonSchemaValidator = new StreamingJsonSchemaValidator();
+
+    private ParallelJsonSchemaValidator parallelJsonSchemaValidator = new ParallelJsonSchemaValidator();
+
+    private JsonSchemaValidatorEngines jsonSchemaValidatorEngines = new JsonSchemaValidatorEngines();
+
+    /**
+     * Default fraction of validated requests
+     */
+    private double sampleRate = 1;
+
+    /**
+     * Validator of shadow parameters, created on the first shadow validation unless set
+     */
+    private volatile ShadowJsonSchemaValidator shadowJsonSchemaValidator;
+
+    /**
+     * Validator of shadow parameters created by this resolver, which is destroyed along with the resolver
+     */
+    private ShadowJsonSchemaValidator ownedShadowJsonSchemaValidator;
+
+    /**
+     * Validation results of byte-identical request bodies, disabled by default
+     */
+    private ValidationResultCache validationResultCache;
+
+    private JsonSchemaValidationMetrics jsonSchemaValidationMetrics = new NoOpJsonSchemaValidationMetrics();
+
+    private final JsonRequestBodyMetadataCache jsonRequestBodyMetadataCache = new JsonRequestBodyMetadataCache();
+
     /**
      * Empty constructor.
      */
     public JsonRequestBodyArgumentResolver() {
-        // empty constructor
+        this.jsonSchemaCache.addListener(this.jsonSchemaValidatorEngines);
     }
 
     /**
@@ -70,6 +188,7 @@ public class JsonRequestBodyArgumentResolver implements HandlerMethodArgumentRes
                                            JsonSchemaResolver jsonSchemaResolver) {
         this.requestResponseBodyMethodProcessor = requestResponseBodyMethodProcessor;
         this.jsonSchemaResolver = jsonSchemaResolver;
+        this.jsonSchemaCache.addListener(this.jsonSchemaValidatorEngines);
     }
 
     /**
@@ -87,17 +206,103 @@ public class JsonRequestBodyArgumentResolver implements HandlerMethodArgumentRes
 
     @Override
     public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer, NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
-        Object requestBodyAnnotatedReturnValue = readRequestBodyAnnotatedParameter(parameter, mavContainer, webRequest, binderFactory);
+        JsonRequestBodyMetadata metadata = this.jsonRequestBodyMetadataCache.getMetadata(parameter);
+        boolean sampled = metadata.isSampled(this.sampleRate);
+        if (metadata.isBatch()) {
+            return readAndValidateBatch(parameter, metadata, mavContainer, webRequest, sampled);
+        }
+        try (CapturedRequestBody requestBody = captureRequestBody(parameter, metadata, webRequest)) {
+            if (!sampled || metadata.isShadow()) {
+                NativeWebRequest capturedRequestBodyWebRequest = createCapturedRequestBodyWebRequest(webRequest, requestBody);
+                Object requestBodyAnnotatedReturnValue = readRequestBodyAnnotatedParameter(parameter, mavContainer, capturedRequestBodyWebRequest, binderFactory);
+                if (sampled) {
+                    submitShadowValidation(parameter, metadata, webRequest, requestBody);
+                }
+                return requestBodyAnnotatedReturnValue;
+            }
+            if (metadata.isSingleParse()) {
+                BindingResult bindingResult = getBindingResult(parameter, mavContainer, webRequest);
+                return readAndValidateJsonTree(parameter, metadata, webRequest, requestBody, bindingResult, metadata.isStrict());
+            }
+            NativeWebRequest capturedRequestBodyWebRequest = createCapturedRequestBodyWebRequest(webRequest, requestBody);
+            if (metadata.isValidatingBeforeBinding()) {
+                validate(parameter, metadata, webRequest, requestBody, createBindingResult(webRequest), true);
+                return readRequestBodyAnnotatedParameter(parameter, mavContainer, capturedRequestBodyWebRequest, binderFactory);
+            }
+            Object requestBodyAnnotatedReturnValue = readRequestBodyAnnotatedParameter(parameter, mavContainer, capturedRequestBodyWebRequest, binderFactory);
 
+            BindingResult bindingResult = getBindingResult(parameter, mavContainer, webRequest);
+            validate(parameter, metadata, webRequest, requestBody, bindingResult, metadata.isStrict());
+
+            return requestBodyAnnotatedReturnValue;
+        }
+    }
+
+    /**
+     * Reads the request body into pooled buffers, rejecting bodies that exceed the maximum size
+     * before any parsing takes place. Compressed bodies are decompressed while they are being read
+     * and the maximum size applies to the decompressed bytes.
+     * @throws RequestBodyTooLargeException when the body exceeds the maximum size or the maximum compression ratio
+     * @throws UnsupportedContentEncodingException when the body is compressed by an unsupported content coding
+     * @throws HttpMessageNotReadableException when the compressed body is malformed
+     */
+    private CapturedRequestBody captureRequestBody(MethodParameter parameter, JsonRequestBodyMetadata metadata, NativeWebRequest webRequest) throws IOException {
+        HttpServletRequest httpServletRequest = webRequest.getNativeRequest(HttpServletRequest.class);
+        long maxBodySize = metadata.getMaxBodySize(this.maxBodySize);
+        if (isCompressed(httpServletRequest)) {
+            return captureCompressedRequestBody(parameter, httpServletRequest, maxBodySize);
+        }
+        if (maxBodySize >= 0 && httpServletRequest.getContentLength() > maxBodySize) {
+            throw new RequestBodyTooLargeException(maxBodySize);
+        }
+        return captureRequestBody(parameter, httpServletRequest.getInputStream(), maxBodySize);
+    }
+
+    private CapturedRequestBody captureRequestBody(MethodParameter parameter, InputStream inputStream, long maxBodySize) throws IOException {
+        if (!this.jsonSchemaValidationMetrics.isEnabled()) {
+            return CapturedRequestBody.capture(inputStream, maxBodySize, this.requestBodyBufferPool);
+        }
+        long start = System.nanoTime();
+        CapturedRequestBody requestBody = CapturedRequestBody.capture(inputStream, maxBodySize, this.requestBodyBufferPool);
+        this.jsonSchemaValidationMetrics.recordRequestBodyRead(parameter, requestBody.size(), System.nanoTime() - start);
+        return requestBody;
+    }
+
+    private CapturedRequestBody captureCompressedRequestBody(MethodParameter parameter, HttpServletRequest httpServletRequest, long maxBodySize) throws IOException {
+        String contentEncoding = httpServletRequest.getHeader(HttpHeaders.CONTENT_ENCODING);
+        try (InputStream inputStream = this.requestBodyDecompressor.decompress(httpServletRequest.getInputStream(), contentEncoding)) {
+            return captureRequestBody(parameter, inputStream, maxBodySize);
+        } catch (ZipException | EOFException e) {
+            throw new HttpMessageNotReadableException("Malformed " + contentEncoding + " request body: " + e.getMessage(), e);
+        }
+    }
+
+    private boolean isCompressed(HttpServletRequest httpServletRequest) {
+        return this.requestBodyDecompressor != null
+                && this.requestBodyDecompressor.isCompressed(httpServletRequest.getHeader(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    /**
+     * Exposes the captured request body to the delegate argument resolver,
+     * since the original request body has already been consumed.
+     */
+    private NativeWebRequest createCapturedRequestBodyWebRequest(NativeWebRequest webRequest, CapturedRequestBody requestBody) {
+        HttpServletRequest httpServletRequest = webRequest.getNativeRequest(HttpServletRequest.class);
+        HttpServletResponse httpServletResponse = webRequest.getNativeResponse(HttpServletResponse.class);
+        if (isCompressed(httpServletRequest)) {
+            return new ServletWebRequest(new DecompressedRequestBodyHttpServletRequest(httpServletRequest, requestBody), httpServletResponse);
+        }
+        return new ServletWebRequest(new CapturedRequestBodyHttpServletRequest(httpServletRequest, requestBody), httpServletResponse);
+    }
+
+    private BindingResult getBindingResult(MethodParameter parameter, ModelAndViewContainer mavContainer, NativeWebRequest webRequest) {
         String name = Conventions.getVariableNameForParameter(parameter);
         BindingResult bindingResult = (BindingResult) mavContainer.getModel().get(BindingResult.MODEL_KEY_PREFIX + name);
         if (bindingResult == null) {
             bindingResult = createBindingResult(webRequest);
             mavContainer.addAttribute(BindingResult.MODEL_KEY_PREFIX +  name, bindingResult);
         }
-        validate(parameter, webRequest, bindingResult, isThrowingExceptionOnValidationError(parameter));
-
-        return requestBodyAnnotatedReturnValue;
+        return bindingResult;
     }
 
     /**
@@ -118,62 +323,306 @@ public class JsonRequestBodyArgumentResolver implements HandlerMethodArgumentRes
         return new WebRequestBindingResult(webRequest);
     }
 
-    private boolean isThrowingExceptionOnValidationError(MethodParameter parameter) {
-        JsonRequestBody annotation = parameter.getParameterAnnotation(JsonRequestBody.class);
-        return annotation.strict();
-    }
+    /**
+     * Parses the request body into a JSON tree exactly once. The tree
+     * is validated against the JSON schema and then bound to the parameter value.
+     * <p>
+     *     The binding is done directly by the Jackson {@link ObjectMapper}, bypassing
+     *     the {@link HttpMessageConverter}s of the delegate {@link RequestResponseBodyMethodProcessor}.
+     * </p>
+     * @return the resolved argument value
+     * @throws HttpMessageNotReadableException when the body is missing, or cannot be parsed or bound
+     */
+    private Object readAndValidateJsonTree(MethodParameter parameter, JsonRequestBodyMetadata metadata, NativeWebRequest webRequest, CapturedRequestBody requestBody, BindingResult bindingResult, boolean throwExceptionOnSchemaValidationError) throws IOException {
+        ObjectMapper objectMapper = getObjectMapper();
+        JsonNode jsonTree;
+        try {
+            jsonTree = requestBody.isEmpty() ? null : objectMapper.readTree(requestBody.getInputStream());
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e);
+        }
+        if (jsonTree == null || jsonTree.isMissingNode()) {
+            throw new HttpMessageNotReadableException("Required request body is missing: " + parameter.getExecutable().toGenericString());
+        }
 
-    private void validate(MethodParameter parameter, NativeWebRequest webRequest, BindingResult bindingResult, boolean throwExceptionOnSchemaValidationError) throws IOException {
         int beforeSchemaValidationErrorCount = bindingResult.getErrorCount();
-        String requestBodyJson = getJsonPayload(webRequest);
+        Schema schema = getJsonSchema(parameter, webRequest);
+        int maxErrors = metadata.getMaxErrors(this.failFast, this.maxErrors);
+        validateRequestBody(parameter, metadata, schema, requestBody, bindingResult,
+                () -> validateJson(metadata, this.jsonNodeConverter.convert(jsonTree), schema, maxErrors));
+        if (bindingResult.getErrorCount() > beforeSchemaValidationErrorCount && throwExceptionOnSchemaValidationError) {
+            throw new JsonSchemaValidationException(bindingResult);
+        }
 
-        Resource jsonSchemaResource = jsonSchemaResolver.resolveJsonSchemaResource(parameter, webRequest);
-        validateRequestBody(requestBodyJson, jsonSchemaResource, bindingResult);
+        try {
+            JavaType javaType = objectMapper.constructType(parameter.getNestedGenericParameterType());
+            return objectMapper.readerFor(javaType).readValue(jsonTree);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    /**
+     * Validates the batch request body element by element and binds the elements, in a single pass.
+     * Unless sampled, the elements are bound without validation.
+     * <p>
+     *     Stream and iterator parameters are validated and bound on demand, therefore the captured
+     *     request body is released only when the request is completed.
+     * </p>
+     * @return the resolved argument value
+     * @throws HttpMessageNotReadableException when the body is missing, or cannot be parsed or bound
+     * @see JsonBatchReader
+     */
+    private Object readAndValidateBatch(MethodParameter parameter, JsonRequestBodyMetadata metadata, ModelAndViewContainer mavContainer, NativeWebRequest webRequest, boolean sampled) throws IOException {
+        CapturedRequestBody requestBody = captureRequestBody(parameter, metadata, webRequest);
+        boolean lazilyRead = false;
+        try {
+            if (requestBody.isEmpty()) {
+                throw new HttpMessageNotReadableException("Required request body is missing: " + parameter.getExecutable().toGenericString());
+            }
+            JsonBatchReader batchReader = new JsonBatchReader(getObjectMapper(), this.streamingJsonSchemaValidator);
+            JsonBatchReader.BatchValidation validation = null;
+            if (sampled && metadata.isShadow()) {
+                submitShadowValidation(parameter, metadata, webRequest, requestBody);
+            } else if (sampled) {
+                validation = createBatchValidation(parameter, metadata, mavContainer, webRequest, requestBody);
+            }
+
+            if (JsonBatchReader.isLazilyReadable(parameter)) {
+                Object value = batchReader.readLazily(requestBody.getInputStream(), metadata.getFormat(), parameter, validation);
+                webRequest.registerDestructionCallback(getClass().getName() + ".REQUEST_BODY." + parameter.getParameterIndex(),
+                        requestBody::close, RequestAttributes.SCOPE_REQUEST);
+                lazilyRead = true;
+                return value;
+            }
+            return batchReader.read(requestBody.getInputStream(), metadata.getFormat(), parameter, validation);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e);
+        } finally {
+            if (!lazilyRead) {
+                requestBody.close();
+            }
+        }
+    }
+
+    /**
+     * Creates the validation of batch elements, which converts violations to binding errors.
+     * With the {@link ValidationResultCache}, the validation result of a byte-identical batch
+     * is replayed instead, and the elements are bound without validation.
+     * @return the validation, or {@code null} when the validation result was replayed
+     * @throws JsonSchemaValidationException when the replayed result of strict validation is invalid
+     */
+    private JsonBatchReader.BatchValidation createBatchValidation(MethodParameter parameter, JsonRequestBodyMetadata metadata, ModelAndViewContainer mavContainer,
+                                                                  NativeWebRequest webRequest, CapturedRequestBody requestBody) throws IOException {
+        BindingResult bindingResult = getBindingResult(parameter, mavContainer, webRequest);
+        Schema schema = getJsonSchema(parameter, webRequest);
+        ValidationResultCache.Key cacheKey = createValidationResultCacheKey(metadata, schema, requestBody);
+        ValidationResultCache.Result result = getCachedValidationResult(parameter, cacheKey);
+        if (result != null) {
+            if (!result.isValid()) {
+                this.validationExceptionMediator.convert(result.getValidationException(), bindingResult);
+                if (metadata.isStrict()) {
+                    throw new JsonSchemaValidationException(bindingResult);
+                }
+            }
+            return null;
+        }
+        return new RequestBodyBatchValidation(parameter, metadata, schema, metadata.getMaxErrors(this.failFast, this.maxErrors), cacheKey, bindingResult);
+    }
+
+    /**
+     * Submits the request body to the background validation. Since the request must not fail
+     * in the shadow mode, unavailable or invalid schemas are just logged.
+     * @see ShadowJsonSchemaValidator
+     */
+    private void submitShadowValidation(MethodParameter parameter, JsonRequestBodyMetadata metadata, NativeWebRequest webRequest, CapturedRequestBody requestBody) {
+        Schema schema;
+        try {
+            schema = getJsonSchema(parameter, webRequest);
+        } catch (JsonSchemaException e) {
+            logger.warn("Unable to validate request body of " + parameter.getExecutable().toGenericString() + " in the background", e);
+            return;
+        }
+        getShadowJsonSchemaValidator().submit(parameter, schema, requestBody, metadata.getFormat(), this.jsonSchemaValidationMetrics);
+    }
+
+    private void validate(MethodParameter parameter, JsonRequestBodyMetadata metadata, NativeWebRequest webRequest, CapturedRequestBody requestBody, BindingResult bindingResult, boolean throwExceptionOnSchemaValidationError) throws IOException {
+        int beforeSchemaValidationErrorCount = bindingResult.getErrorCount();
+        Schema schema = getJsonSchema(parameter, webRequest);
+        int maxErrors = metadata.getMaxErrors(this.failFast, this.maxErrors);
+        validateRequestBody(parameter, metadata, schema, requestBody, bindingResult, () -> {
+            if (metadata.isStreaming()) {
+                try (JsonParser parser = getObjectMapper().getFactory().createParser(requestBody.getInputStream())) {
+                    validateRequestBodyStream(parser, schema, maxErrors);
+                }
+            } else {
+                Reader requestBodyReader = new InputStreamReader(requestBody.getInputStream(), StandardCharsets.UTF_8);
+                validateJson(metadata, new JSONObject(new JSONTokener(requestBodyReader)), schema, maxErrors);
+            }
+        });
 
         if (bindingResult.getErrorCount() > beforeSchemaValidationErrorCount && throwExceptionOnSchemaValidationError) {
             throw new JsonSchemaValidationException(bindingResult);
         }
     }
 
+    /**
+     * Resolves the JSON schema resource and retrieves the compiled schema,
+     * loading it upon cache miss.
+     */
+    private Schema getJsonSchema(MethodParameter parameter, NativeWebRequest webRequest) throws JsonSchemaException {
+        if (!this.jsonSchemaValidationMetrics.isEnabled()) {
+            Resource jsonSchemaResource = this.jsonSchemaResolver.resolveJsonSchemaResource(parameter, webRequest);
+            return this.jsonSchemaCache.getSchema(jsonSchemaResource, this.jsonSchemaLoader::load);
+        }
+        long start = System.nanoTime();
+        AtomicBoolean loaded = new AtomicBoolean();
+        Resource jsonSchemaResource = this.jsonSchemaResolver.resolveJsonSchemaResource(parameter, webRequest);
+        Schema schema = this.jsonSchemaCache.getSchema(jsonSchemaResource, resource -> {
+            loaded.set(true);
+            return this.jsonSchemaLoader.load(resource);
+        });
+        this.jsonSchemaValidationMetrics.recordSchemaLookup(parameter, System.nanoTime() - start, !loaded.get());
+        return schema;
+    }
+
+    /**
+     * Validates the request body and converts schema violations to binding errors.
+     * With the {@link ValidationResultCache}, the validation result of a byte-identical request body
+     * is replayed instead.
+     * @param validation validation of the request body, throwing {@link ValidationException} upon violations
+     */
+    private void validateRequestBody(MethodParameter parameter, JsonRequestBodyMetadata metadata, Schema schema, CapturedRequestBody requestBody,
+                                     BindingResult bindingResult, RequestBodyValidation validation) throws IOException {
+        ValidationResultCache.Key cacheKey = createValidationResultCacheKey(metadata, schema, requestBody);
+        ValidationResultCache.Result result = getCachedValidationResult(parameter, cacheKey);
+        if (result != null) {
+            if (!result.isValid()) {
+                this.validationExceptionMediator.convert(result.getValidationException(), bindingResult);
+            }
+            return;
+        }
+        long start = this.jsonSchemaValidationMetrics.isEnabled() ? System.nanoTime() : 0;
+        ValidationException validationException = null;
+        try {
+            validation.validate();
+        } catch (ValidationException e) {
+            validationException = e;
+        }
+        recordValidationResult(parameter, cacheKey, System.nanoTime() - start, validationException);
+        if (validationException != null) {
+            this.validationExceptionMediator.convert(validationException, bindingResult);
+        }
+    }
+
+    /**
+     * @return the key of the cached validation result, or {@code null} when the {@link ValidationResultCache} is not used
+     */
+    private ValidationResultCache.Key createValidationResultCacheKey(JsonRequestBodyMetadata metadata, Schema schema, CapturedRequestBody requestBody) throws IOException {
+        if (this.validationResultCache == null) {
+            return null;
+        }
+        return this.validationResultCache.createKey(schema, requestBody, getValidationOptions(metadata));
+    }
+
+    /**
+     * @return the cached validation result, or {@code null} upon cache miss
+     */
+    private ValidationResultCache.Result getCachedValidationResult(MethodParameter parameter, ValidationResultCache.Key cacheKey) {
+        if (cacheKey == null) {
+            return null;
+        }
+        ValidationResultCache.Result result = this.validationResultCache.get(cacheKey);
+        if (this.jsonSchemaValidationMetrics.isEnabled()) {
+            this.jsonSchemaValidationMetrics.recordValidationResultCacheLookup(parameter, result != null);
+        }
+        return result;
+    }
+
+    /**
+     * Records the validation and caches its result.
+     * @param validationTime duration of the validation in nanoseconds
+     * @param validationException the violations, or {@code null} for the valid request body
+     */
+    private void recordValidationResult(MethodParameter parameter, ValidationResultCache.Key cacheKey, long validationTime, ValidationException validationException) {
+        if (this.jsonSchemaValidationMetrics.isEnabled()) {
+            this.jsonSchemaValidationMetrics.recordValidation(parameter, validationTime, validationException);
+        }
+        if (cacheKey != null) {
+            this.validationResultCache.put(cacheKey, validationException);
+        }
+    }
 
+    /**
+     * Returns the options that affect the validation result, distinguishing cached results
+     * of the same request body validated with different options. Besides the maximum number
+     * of violations and the format, the validator selected by the streaming and parallel modes
+     * and by the engine may report different violations.
+     */
+    private List<Object> getValidationOptions(JsonRequestBodyMetadata metadata) {
+        return Arrays.asList(metadata.getMaxErrors(this.failFast, this.maxErrors), metadata.getFormat(),
+                metadata.isStreaming(), metadata.isParallel(), metadata.getEngine());
+    }
 
-    private void validateRequestBody(String json, Resource jsonSchemaResource, BindingResult bindingResult) throws JsonSchemaException {
+    /**
+     * Validates the materialized request body by the parallel validator or by the parameter engine.
+     * The whole request body is validated, and the reported violations are capped afterwards.
+     * @param maxErrors maximum number of violations, non-positive for unlimited number of violations
+     * @see ViolationLimit
+     */
+    private void validateJson(JsonRequestBodyMetadata metadata, Object json, Schema schema, int maxErrors) throws ValidationException {
         try {
-            JSONObject rawSchema = new JSONObject(new JSONTokener(jsonSchemaResource.getInputStream()));
-            JSONObject jsonObject = new JSONObject(new JSONTokener(json));
-
-            SchemaLoader loader = SchemaLoader.builder()
-                    .schemaJson(rawSchema)
-                    .draftV6Support()
-                    .build();
-            Schema schema = loader.load().build();
-            schema.validate(jsonObject);
+            if (metadata.isParallel()) {
+                this.parallelJsonSchemaValidator.validate(schema, json);
+            } else {
+                this.jsonSchemaValidatorEngines.getValidator(metadata.getEngine(), schema).validate(json);
+            }
         } catch (ValidationException e) {
-            this.validationExceptionMediator.convert(e, bindingResult);
-        } catch (IOException e) {
-            throw new UnavailableJsonSchemaException(jsonSchemaResource, e);
+            throw new ViolationLimit(maxErrors).apply(e);
         }
     }
 
     /**
-     * Generates full classpath to the schema path, either using autodetection
-     * or explicit value from annotation.
+     * Validates the request body while it is being parsed, without materializing it.
+     * The validation stops at the maximum number of violations.
+     * @param maxErrors maximum number of violations, non-positive for unlimited number of violations
+     * @throws HttpMessageNotReadableException when the body cannot be parsed
+     * @see StreamingJsonSchemaValidator
      */
-    private String discoverSchemaPath(MethodParameter methodParameter) {
-        JsonRequestBody annotation = methodParameter.getParameterAnnotation(JsonRequestBody.class);
-        String schemaPath = annotation.schemaPath();
-        if (! schemaPath.isEmpty()) {
-            return "/" + schemaPath + ".json";
-        } else {
-            String declaringClassName = methodParameter.getDeclaringClass().getSimpleName().toLowerCase();
-            String methodName = methodParameter.getMethod().getName();
-            return "/" + declaringClassName + "#" + methodName + ".json";
+    private void validateRequestBodyStream(JsonParser parser, Schema schema, int maxErrors) throws ValidationException, IOException {
+        try {
+            this.streamingJsonSchemaValidator.validate(schema, parser, maxErrors);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e);
         }
     }
 
-    private String getJsonPayload(NativeWebRequest webRequest) throws IOException {
-        HttpServletRequest httpServletRequest = webRequest.getNativeRequest(HttpServletRequest.class);
-        return StreamUtils.copyToString(httpServletRequest.getInputStream(), StandardCharsets.UTF_8);
+    /**
+     * Resolves, loads and compiles the JSON schemas for the parameter ahead of the first request,
+     * along with the validators of the parameter {@link JsonRequestBody#engine() engine}.
+     * <p>
+     *     Since there is no current request, all schemas that requests may be validated against,
+     *     such as a schema of each {@link JsonRequestBody#versions() version}, are resolved by
+     *     {@link JsonSchemaResolver#resolveJsonSchemaResources(MethodParameter)}.
+     * </p>
+     * @param parameter the parameter with {@link JsonRequestBody} annotation
+     * @throws UnavailableJsonSchemaException when the schema cannot be read
+     * @throws InvalidJsonSchemaException when the schema cannot be compiled
+     * @throws IllegalStateException when the engine of the parameter is not registered
+     */
+    public void precompileJsonSchema(MethodParameter parameter) throws JsonSchemaException {
+        JsonRequestBodyMetadata metadata = this.jsonRequestBodyMetadataCache.getMetadata(parameter);
+        for (Resource jsonSchemaResource : this.jsonSchemaResolver.resolveJsonSchemaResources(parameter)) {
+            Schema schema = this.jsonSchemaCache.getSchema(jsonSchemaResource, this.jsonSchemaLoader::load);
+            this.jsonSchemaValidatorEngines.getValidator(metadata.getEngine(), schema);
+        }
+    }
+
+    private ObjectMapper getObjectMapper() {
+        if (this.objectMapper == null) {
+            this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        }
+        return this.objectMapper;
     }
 
     /**
@@ -192,6 +641,251 @@ public class JsonRequestBodyArgumentResolver implements HandlerMethodArgumentRes
         this.validationExceptionMediator = validationExceptionMediator;
     }
 
+    /**
+     * Sets the Jackson object mapper that binds request bodies in the single-parse mode
+     * and parses request bodies in the streaming mode.
+     * By default, an object mapper from {@link Jackson2ObjectMapperBuilder} is used.
+     * @see JsonRequestBody#singleParse()
+     */
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Sets the maximum size of request bodies in bytes, unless overridden by {@link JsonRequestBody#maxBodySize()}.
+     * Negative value, which is the default, allows request bodies of any size.
+     */
+    public void setMaxBodySize(long maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    /**
+     * Sets the decompressor of request bodies with the <code>Content-Encoding</code> header, such as
+     * a decompressor with a custom maximum compression ratio. By default, <code>gzip</code> and <code>deflate</code>
+     * bodies are decompressed. The {@code null} value disables decompression, for example, when request bodies
+     * are already decompressed by a servlet filter.
+     */
+    public void setRequestBodyDecompressor(RequestBodyDecompressor requestBodyDecompressor) {
+        this.requestBodyDecompressor = requestBodyDecompressor;
+    }
+
+    /**
+     * Reports only the first schema violation for all parameters.
+     * By default, all violations are reported.
+     * @see JsonRequestBody#failFast()
+     */
+    public void setFailFast(boolean failFast) {
+        this.failFast = failFast;
+    }
+
+    /**
+     * Sets the maximum number of reported schema violations, unless overridden by {@link JsonRequestBody#maxErrors()}.
+     * Non-positive value, which is the default, reports all violations.
+     */
+    public void setMaxErrors(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Sets the pool of buffers that capture request bodies.
+     */
+    public void setRequestBodyBufferPool(RequestBodyBufferPool requestBodyBufferPool) {
+        this.requestBodyBufferPool = requestBodyBufferPool;
+    }
+
+    public void setJsonSchemaLoader(JsonSchemaLoader jsonSchemaLoader) {
+        this.jsonSchemaLoader = jsonSchemaLoader;
+    }
+
+    /**
+     * Sets the validator of parameters with {@link JsonRequestBody#parallel() parallel} validation,
+     * such as a validator with a dedicated fork-join pool. By default, the common fork-join pool is used.
+     */
+    public void setParallelJsonSchemaValidator(ParallelJsonSchemaValidator parallelJsonSchemaValidator) {
+        this.parallelJsonSchemaValidator = parallelJsonSchemaValidator;
+    }
+
+    /**
+     * Sets the registry of validation engines. This allows to register custom engines,
+     * to change the default engine and to share compiled validators with other argument resolvers.
+     */
+    public void setJsonSchemaValidatorEngines(JsonSchemaValidatorEngines jsonSchemaValidatorEngines) {
+        this.jsonSchemaCache.removeListener(this.jsonSchemaValidatorEngines);
+        this.jsonSchemaValidatorEngines = jsonSchemaValidatorEngines;
+        this.jsonSchemaCache.addListener(this.jsonSchemaValidatorEngines);
+    }
+
+    /**
+     * Sets the fraction of validated requests, between <code>0</code> and <code>1</code>,
+     * unless overridden by {@link JsonRequestBody#sampleRate()}. By default, all requests are validated.
+     */
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Sets the validator of parameters with {@link JsonRequestBody#shadow() shadow} validation,
+     * such as a validator with a dedicated executor. By default, request bodies are validated
+     * on a single background thread, which is started on the first shadow validation
+     * and shut down once this resolver is {@link #destroy() destroyed}.
+     */
+    public void setShadowJsonSchemaValidator(ShadowJsonSchemaValidator shadowJsonSchemaValidator) {
+        this.shadowJsonSchemaValidator = shadowJsonSchemaValidator;
+    }
+
+    private ShadowJsonSchemaValidator getShadowJsonSchemaValidator() {
+        ShadowJsonSchemaValidator shadowJsonSchemaValidator = this.shadowJsonSchemaValidator;
+        return shadowJsonSchemaValidator != null ? shadowJsonSchemaValidator : createShadowJsonSchemaValidator();
+    }
+
+    /**
+     * Creates the validator of shadow parameters, which parses request bodies by the object mapper of this resolver.
+     */
+    private synchronized ShadowJsonSchemaValidator createShadowJsonSchemaValidator() {
+        if (this.shadowJsonSchemaValidator == null) {
+            this.ownedShadowJsonSchemaValidator = new ShadowJsonSchemaValidator(getObjectMapper());
+            this.shadowJsonSchemaValidator = this.ownedShadowJsonSchemaValidator;
+        }
+        return this.shadowJsonSchemaValidator;
+    }
+
+    /**
+     * Shuts down the background thread of shadow validation, unless the validator has been set.
+     */
+    @Override
+    public synchronized void destroy() {
+        if (this.ownedShadowJsonSchemaValidator != null) {
+            this.ownedShadowJsonSchemaValidator.destroy();
+        }
+    }
+
+    /**
+     * Sets the cache of validation results, so that byte-identical request bodies,
+     * such as retried requests, are validated only once. By default, no results are cached.
+     * <p>
+     *     The results cache listens to the {@link JsonSchemaCache} of this resolver,
+     *     and drops the results of schemas removed from it.
+     * </p>
+     */
+    public void setValidationResultCache(ValidationResultCache validationResultCache) {
+        if (this.validationResultCache != null) {
+            this.jsonSchemaCache.removeListener(this.validationResultCache);
+        }
+        this.validationResultCache = validationResultCache;
+        if (validationResultCache != null) {
+            this.jsonSchemaCache.addListener(validationResultCache);
+        }
+    }
+
+    /**
+     * Sets the metrics recording the cost of validation.
+     * By default, no metrics are recorded.
+     */
+    public void setJsonSchemaValidationMetrics(JsonSchemaValidationMetrics jsonSchemaValidationMetrics) {
+        this.jsonSchemaValidationMetrics = jsonSchemaValidationMetrics;
+    }
+
+    public JsonSchemaCache getJsonSchemaCache() {
+        return this.jsonSchemaCache;
+    }
+
+    /**
+     * Sets the cache of compiled schemas. This allows to share compiled schemas
+     * among multiple argument resolvers.
+     */
+    public void setJsonSchemaCache(JsonSchemaCache jsonSchemaCache) {
+        this.jsonSchemaCache.removeListener(this.jsonSchemaValidatorEngines);
+        if (this.validationResultCache != null) {
+            this.jsonSchemaCache.removeListener(this.validationResultCache);
+        }
+        this.jsonSchemaCache = jsonSchemaCache;
+        this.jsonSchemaCache.addListener(this.jsonSchemaValidatorEngines);
+        if (this.validationResultCache != null) {
+            this.jsonSchemaCache.addListener(this.validationResultCache);
+        }
+    }
+
+    /**
+     * Discards the compiled schema for the resource. The schema will be
+     * reloaded on the next request that is validated against it.
+     */
+    public void invalidateJsonSchema(Resource jsonSchemaResource) {
+        this.jsonSchemaCache.invalidate(jsonSchemaResource);
+    }
+
+    /**
+     * Discards all compiled schemas.
+     */
+    public void invalidateJsonSchemas() {
+        this.jsonSchemaCache.invalidateAll();
+    }
+
+    /**
+     * Validation of the request body
+     */
+    @FunctionalInterface
+    private interface RequestBodyValidation {
+        void validate() throws ValidationException, IOException;
+    }
+
+    /**
+     * Validation of batch elements, converting violations to binding errors.
+     * <p>
+     *     Batches read at once are validated before the handler is invoked, and the strict
+     *     validation rejects invalid batches once all elements are validated. Stream and iterator
+     *     parameters are validated while consumed by the handler, and the violations are contributed
+     *     to binding errors element by element. In that case, the strict validation fails the consumption
+     *     of the first invalid element by {@link JsonSchemaValidationException}, and only a fully
+     *     consumed batch has its validation result cached.
+     * </p>
+     */
+    private class RequestBodyBatchValidation extends JsonBatchReader.BatchValidation {
+        private final MethodParameter parameter;
+
+        private final boolean strict;
+
+        private final boolean lazilyRead;
+
+        private final ValidationResultCache.Key cacheKey;
+
+        private final BindingResult bindingResult;
+
+        RequestBodyBatchValidation(MethodParameter parameter, JsonRequestBodyMetadata metadata, Schema schema, int maxViolations,
+                                   ValidationResultCache.Key cacheKey, BindingResult bindingResult) {
+            super(schema, maxViolations, metadata.isStrict());
+            this.parameter = parameter;
+            this.strict = metadata.isStrict();
+            this.lazilyRead = JsonBatchReader.isLazilyReadable(parameter);
+            this.cacheKey = cacheKey;
+            this.bindingResult = bindingResult;
+        }
+
+        @Override
+        protected void onViolation(ValidationException failure) {
+            if (!this.lazilyRead) {
+                return;
+            }
+            JsonRequestBodyArgumentResolver.this.validationExceptionMediator.convert(failure, this.bindingResult);
+            if (this.strict) {
+                recordValidationResult(this.parameter, null, getValidationTime(), failure);
+                throw new JsonSchemaValidationException(this.bindingResult);
+            }
+        }
+
+        @Override
+        protected void onComplete() {
+            ValidationException validationException = getValidationException();
+            recordValidationResult(this.parameter, this.cacheKey, getValidationTime(), validationException);
+            if (validationException == null || this.lazilyRead) {
+                return;
+            }
+            JsonRequestBodyArgumentResolver.this.validationExceptionMediator.convert(validationException, this.bindingResult);
+            if (this.strict) {
+                throw new JsonSchemaValidationException(this.bindingResult);
+            }
+        }
+    }
+
     /**
      * Represents an internal binding result mapped
      * over an existing HTTP request with JSON body.
@@ -215,4 +909,129 @@ public class JsonRequestBodyArgumentResolver implements HandlerMethodArgumentRes
             return this.webRequest.getParameter(field);
         }
     }
+
+    /**
+     * Represents an HTTP request whose body has been captured
+     * and can be read once again.
+     */
+    private static class CapturedRequestBodyHttpServletRequest extends HttpServletRequestWrapper {
+
+        protected final CapturedRequestBody requestBody;
+
+        CapturedRequestBodyHttpServletRequest(HttpServletRequest request, CapturedRequestBody requestBody) {
+            super(request);
+            this.requestBody = requestBody;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            InputStream inputStream = this.requestBody.getInputStream();
+            return new ServletInputStream() {
+                private boolean finished;
+
+                @Override
+                public int read() throws IOException {
+                    return markFinished(inputStream.read());
+                }
+
+                @Override
+                public int read(byte[] bytes, int offset, int length) throws IOException {
+                    return markFinished(inputStream.read(bytes, offset, length));
+                }
+
+                private int markFinished(int result) {
+                    if (result == -1) {
+                        this.finished = true;
+                    }
+                    return result;
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return this.finished;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * Notifies the listener immediately, since the whole body has already been captured.
+                 */
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException | RuntimeException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws UnsupportedEncodingException {
+            String characterEncoding = getCharacterEncoding();
+            Charset charset = characterEncoding != null ? Charset.forName(characterEncoding) : StandardCharsets.ISO_8859_1;
+            return new BufferedReader(new InputStreamReader(this.requestBody.getInputStream(), charset));
+        }
+    }
+
+    /**
+     * Represents an HTTP request whose compressed body has been captured decompressed.
+     * The <code>Content-Encoding</code> header is hidden and the <code>Content-Length</code>
+     * header reflects the decompressed size, so that the delegate argument resolver
+     * reads the body as if it was never compressed.
+     */
+    private static class DecompressedRequestBodyHttpServletRequest extends CapturedRequestBodyHttpServletRequest {
+
+        DecompressedRequestBodyHttpServletRequest(HttpServletRequest request, CapturedRequestBody requestBody) {
+            super(request, requestBody);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)) {
+                return null;
+            }
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                return String.valueOf(this.requestBody.size());
+            }
+            return super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)) {
+                return Collections.emptyEnumeration();
+            }
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                return Collections.enumeration(Collections.singletonList(String.valueOf(this.requestBody.size())));
+            }
+            return super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> headerNames = new ArrayList<>();
+            for (String headerName : Collections.list(super.getHeaderNames())) {
+                if (!HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(headerName)) {
+                    headerNames.add(headerName);
+                }
+            }
+            return Collections.enumeration(headerNames);
+        }
+
+        @Override
+        public int getContentLength() {
+            return this.requestBody.size() > Integer.MAX_VALUE ? -1 : (int) this.requestBody.size();
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return this.requestBody.size();
+        }
+    }
 }
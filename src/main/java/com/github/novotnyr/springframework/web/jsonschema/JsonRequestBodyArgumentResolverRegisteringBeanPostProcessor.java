@@ -1,9 +1,22 @@
 package com.github.novotnyr.springframework.web.jsonschema;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 import org.springframework.web.servlet.mvc.method.annotation.RequestResponseBodyMethodProcessor;
 
 import java.util.ArrayList;
@@ -24,13 +37,51 @@ import java.util.List;
  *     are not beans, the proper order of initialization
  *     is supported by using this {@link BeanPostProcessor}.
  * </p>
+ * <p>
+ *     Optionally, JSON schemas of all handler method parameters can be
+ *     precompiled once all singletons are instantiated. Any missing or invalid
+ *     schema will then fail the application context startup instead of
+ *     failing the first request.
+ * </p>
  */
-public class JsonRequestBodyArgumentResolverRegisteringBeanPostProcessor implements BeanPostProcessor {
+public class JsonRequestBodyArgumentResolverRegisteringBeanPostProcessor
+        implements BeanPostProcessor, BeanFactoryAware, SmartInitializingSingleton, DisposableBean {
+
+    private static final Log logger = LogFactory.getLog(JsonRequestBodyArgumentResolverRegisteringBeanPostProcessor.class);
 
     private JsonSchemaResolver jsonSchemaResolver;
 
     private ValidationExceptionMediator validationExceptionMediator;
 
+    private JsonSchemaCache jsonSchemaCache = new JsonSchemaCache();
+
+    private JsonSchemaLoader jsonSchemaLoader = new JsonSchemaLoader();
+
+    private boolean precompileJsonSchemas;
+
+    private long maxBodySize = -1;
+
+    private RequestBodyDecompressor requestBodyDecompressor = new RequestBodyDecompressor();
+
+    private boolean failFast;
+
+    private int maxErrors = -1;
+
+    private ParallelJsonSchemaValidator parallelJsonSchemaValidator = new ParallelJsonSchemaValidator();
+
+    private JsonSchemaValidatorEngines jsonSchemaValidatorEngines = new JsonSchemaValidatorEngines();
+
+    private double sampleRate = 1;
+
+    private ShadowJsonSchemaValidator shadowJsonSchemaValidator;
+
+    private ValidationResultCache validationResultCache;
+
+    private JsonSchemaValidationMetrics jsonSchemaValidationMetrics = new NoOpJsonSchemaValidationMetrics();
+
+    private final List<JsonRequestBodyArgumentResolver> jsonRequestBodyArgumentResolvers = new ArrayList<>();
+
+    private BeanFactory beanFactory;
 
     /**
      * Creates a new post processor with the default {@link ParamNameJsonSchemaResolver}
@@ -68,6 +119,22 @@ public class JsonRequestBodyArgumentResolverRegisteringBeanPostProcessor impleme
                                     (RequestResponseBodyMethodProcessor) argumentResolver,
                                     this.jsonSchemaResolver,
                                     this.validationExceptionMediator);
+                    jsonRequestBodyArgumentResolver.setJsonSchemaCache(this.jsonSchemaCache);
+                    jsonRequestBodyArgumentResolver.setJsonSchemaLoader(this.jsonSchemaLoader);
+                    jsonRequestBodyArgumentResolver.setMaxBodySize(this.maxBodySize);
+                    jsonRequestBodyArgumentResolver.setRequestBodyDecompressor(this.requestBodyDecompressor);
+                    jsonRequestBodyArgumentResolver.setFailFast(this.failFast);
+                    jsonRequestBodyArgumentResolver.setMaxErrors(this.maxErrors);
+                    jsonRequestBodyArgumentResolver.setParallelJsonSchemaValidator(this.parallelJsonSchemaValidator);
+                    jsonRequestBodyArgumentResolver.setJsonSchemaValidatorEngines(this.jsonSchemaValidatorEngines);
+                    jsonRequestBodyArgumentResolver.setSampleRate(this.sampleRate);
+                    if (this.shadowJsonSchemaValidator != null) {
+                        jsonRequestBodyArgumentResolver.setShadowJsonSchemaValidator(this.shadowJsonSchemaValidator);
+                    }
+                    jsonRequestBodyArgumentResolver.setValidationResultCache(this.validationResultCache);
+                    jsonRequestBodyArgumentResolver.setJsonSchemaValidationMetrics(this.jsonSchemaValidationMetrics);
+                    configureObjectMapper(jsonRequestBodyArgumentResolver, handlerAdapter);
+                    this.jsonRequestBodyArgumentResolvers.add(jsonRequestBodyArgumentResolver);
                     extendedArgumentResolverList.add(i + 1, jsonRequestBodyArgumentResolver);
                     break;
                 }
@@ -77,6 +144,204 @@ public class JsonRequestBodyArgumentResolverRegisteringBeanPostProcessor impleme
         return bean;
     }
 
+    /**
+     * Reuses the object mapper of the Jackson message converter, so that request bodies read
+     * by the resolver itself are bound in the same way as by the message converter.
+     */
+    private void configureObjectMapper(JsonRequestBodyArgumentResolver jsonRequestBodyArgumentResolver, RequestMappingHandlerAdapter handlerAdapter) {
+        for (HttpMessageConverter<?> messageConverter : handlerAdapter.getMessageConverters()) {
+            if (messageConverter instanceof MappingJackson2HttpMessageConverter) {
+                jsonRequestBodyArgumentResolver.setObjectMapper(((MappingJackson2HttpMessageConverter) messageConverter).getObjectMapper());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Precompiles JSON schemas of all <code>@JsonRequestBody</code> handler method parameters,
+     * if enabled. When the schemas are interned, the report of interned schemas is logged.
+     * @throws BeanInitializationException when any of the schemas is unavailable or invalid,
+     * or when any parameter selects an unregistered validation engine
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!this.precompileJsonSchemas || !(this.beanFactory instanceof ListableBeanFactory)) {
+            return;
+        }
+        BeanInitializationException precompilationException = null;
+        ListableBeanFactory listableBeanFactory = (ListableBeanFactory) this.beanFactory;
+        for (RequestMappingHandlerMapping handlerMapping : listableBeanFactory.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+            for (HandlerMethod handlerMethod : handlerMapping.getHandlerMethods().values()) {
+                for (MethodParameter parameter : handlerMethod.getMethodParameters()) {
+                    for (JsonRequestBodyArgumentResolver argumentResolver : this.jsonRequestBodyArgumentResolvers) {
+                        if (!argumentResolver.supportsParameter(parameter)) {
+                            continue;
+                        }
+                        try {
+                            argumentResolver.precompileJsonSchema(parameter);
+                        } catch (JsonSchemaException | IllegalStateException e) {
+                            if (precompilationException == null) {
+                                precompilationException = new BeanInitializationException("Unable to precompile JSON schemas", e);
+                            } else {
+                                precompilationException.addSuppressed(e);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        if (precompilationException != null) {
+            throw precompilationException;
+        }
+        JsonSchemaInterner jsonSchemaInterner = this.jsonSchemaLoader.getJsonSchemaInterner();
+        if (jsonSchemaInterner != null && logger.isInfoEnabled()) {
+            logger.info(jsonSchemaInterner.getReport());
+        }
+    }
+
+    /**
+     * Shuts down the background threads of shadow validation of the registered argument resolvers.
+     */
+    @Override
+    public void destroy() {
+        for (JsonRequestBodyArgumentResolver argumentResolver : this.jsonRequestBodyArgumentResolvers) {
+            argumentResolver.destroy();
+        }
+        if (this.shadowJsonSchemaValidator != null) {
+            this.shadowJsonSchemaValidator.destroy();
+        }
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        this.beanFactory = beanFactory;
+    }
+
+    /**
+     * Enables precompilation of all JSON schemas on application context startup.
+     * Disabled by default, when schemas are compiled lazily on the first request.
+     */
+    public void setPrecompileJsonSchemas(boolean precompileJsonSchemas) {
+        this.precompileJsonSchemas = precompileJsonSchemas;
+    }
+
+    /**
+     * Sets the default maximum size of request bodies in bytes. Negative value, which is
+     * the default, allows request bodies of any size.
+     * @see JsonRequestBodyArgumentResolver#setMaxBodySize(long)
+     */
+    public void setMaxBodySize(long maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    /**
+     * Sets the decompressor of compressed request bodies, or {@code null} to disable decompression.
+     * @see JsonRequestBodyArgumentResolver#setRequestBodyDecompressor(RequestBodyDecompressor)
+     */
+    public void setRequestBodyDecompressor(RequestBodyDecompressor requestBodyDecompressor) {
+        this.requestBodyDecompressor = requestBodyDecompressor;
+    }
+
+    /**
+     * Reports only the first schema violation for all parameters.
+     * @see JsonRequestBodyArgumentResolver#setFailFast(boolean)
+     */
+    public void setFailFast(boolean failFast) {
+        this.failFast = failFast;
+    }
+
+    /**
+     * Sets the default maximum number of reported schema violations. Non-positive value,
+     * which is the default, reports all violations.
+     * @see JsonRequestBodyArgumentResolver#setMaxErrors(int)
+     */
+    public void setMaxErrors(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Sets the validator of parameters with parallel validation.
+     * @see JsonRequestBodyArgumentResolver#setParallelJsonSchemaValidator(ParallelJsonSchemaValidator)
+     */
+    public void setParallelJsonSchemaValidator(ParallelJsonSchemaValidator parallelJsonSchemaValidator) {
+        this.parallelJsonSchemaValidator = parallelJsonSchemaValidator;
+    }
+
+    /**
+     * Returns the registry of validation engines shared by all registered argument resolvers.
+     * Custom engines are registered and the default engine is changed in this registry.
+     */
+    public JsonSchemaValidatorEngines getJsonSchemaValidatorEngines() {
+        return this.jsonSchemaValidatorEngines;
+    }
+
+    /**
+     * Sets the registry of validation engines shared by all registered argument resolvers.
+     * @see JsonRequestBodyArgumentResolver#setJsonSchemaValidatorEngines(JsonSchemaValidatorEngines)
+     */
+    public void setJsonSchemaValidatorEngines(JsonSchemaValidatorEngines jsonSchemaValidatorEngines) {
+        this.jsonSchemaValidatorEngines = jsonSchemaValidatorEngines;
+    }
+
+    /**
+     * Sets the default fraction of validated requests. By default, all requests are validated.
+     * @see JsonRequestBodyArgumentResolver#setSampleRate(double)
+     */
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Sets the validator of parameters with shadow validation, which is destroyed along with this post processor.
+     * By default, each argument resolver creates its validator on the first shadow validation.
+     * @see JsonRequestBodyArgumentResolver#setShadowJsonSchemaValidator(ShadowJsonSchemaValidator)
+     */
+    public void setShadowJsonSchemaValidator(ShadowJsonSchemaValidator shadowJsonSchemaValidator) {
+        this.shadowJsonSchemaValidator = shadowJsonSchemaValidator;
+    }
+
+    /**
+     * Sets the cache of validation results of byte-identical request bodies. By default, no results are cached.
+     * @see JsonRequestBodyArgumentResolver#setValidationResultCache(ValidationResultCache)
+     */
+    public void setValidationResultCache(ValidationResultCache validationResultCache) {
+        this.validationResultCache = validationResultCache;
+    }
+
+    /**
+     * Sets the loader of JSON schemas, such as a loader resolving <code>$ref</code>
+     * references from local resources, or a loader interning schemas with identical content.
+     * @see JsonSchemaLoader#setSchemaClient(org.everit.json.schema.loader.SchemaClient)
+     * @see JsonSchemaLoader#setJsonSchemaInterner(JsonSchemaInterner)
+     */
+    public void setJsonSchemaLoader(JsonSchemaLoader jsonSchemaLoader) {
+        this.jsonSchemaLoader = jsonSchemaLoader;
+    }
+
+    /**
+     * Sets the metrics recording the cost of validation. By default, no metrics are recorded.
+     * @see JsonRequestBodyArgumentResolver#setJsonSchemaValidationMetrics(JsonSchemaValidationMetrics)
+     */
+    public void setJsonSchemaValidationMetrics(JsonSchemaValidationMetrics jsonSchemaValidationMetrics) {
+        this.jsonSchemaValidationMetrics = jsonSchemaValidationMetrics;
+    }
+
+    /**
+     * Returns the cache of compiled schemas shared by all registered argument resolvers.
+     */
+    public JsonSchemaCache getJsonSchemaCache() {
+        return this.jsonSchemaCache;
+    }
+
+    /**
+     * Sets the cache of compiled schemas shared by all registered argument resolvers,
+     * such as a cache bounded by the number or weight of schemas.
+     * @see JsonSchemaCache#JsonSchemaCache(int)
+     */
+    public void setJsonSchemaCache(JsonSchemaCache jsonSchemaCache) {
+        this.jsonSchemaCache = jsonSchemaCache;
+    }
+
     /**
      * Do not process beans in any special way before initialization.
      */
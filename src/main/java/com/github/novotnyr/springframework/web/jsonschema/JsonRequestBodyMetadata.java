@@ -0,0 +1,160 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import com.github.novotnyr.springframework.web.jsonschema.annotation.JsonRequestBody;
+import com.github.novotnyr.springframework.web.jsonschema.annotation.PayloadFormat;
+import org.springframework.core.MethodParameter;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Options of a @{@link JsonRequestBody}-annotated handler method parameter.
+ * <p>
+ *     The options are read from the annotation once per parameter,
+ *     see {@link JsonRequestBodyMetadataCache}, so that no annotation lookups
+ *     happen while resolving arguments.
+ * </p>
+ */
+public class JsonRequestBodyMetadata {
+    private final boolean strict;
+
+    private final boolean singleParse;
+
+    private final boolean streaming;
+
+    private final long maxBodySize;
+
+    private final boolean validateBeforeBinding;
+
+    private final boolean failFast;
+
+    private final int maxErrors;
+
+    private final PayloadFormat format;
+
+    private final boolean parallel;
+
+    private final String engine;
+
+    private final double sampleRate;
+
+    private final boolean shadow;
+
+    /**
+     * Reads the options from the {@link JsonRequestBody} annotation of the parameter.
+     */
+    public JsonRequestBodyMetadata(MethodParameter parameter) {
+        JsonRequestBody annotation = parameter.getParameterAnnotation(JsonRequestBody.class);
+        this.strict = annotation.strict();
+        this.singleParse = annotation.singleParse();
+        this.streaming = annotation.streaming();
+        this.maxBodySize = annotation.maxBodySize();
+        this.validateBeforeBinding = annotation.validateBeforeBinding();
+        this.failFast = annotation.failFast();
+        this.maxErrors = annotation.maxErrors();
+        this.format = annotation.format();
+        this.parallel = annotation.parallel();
+        this.engine = annotation.engine();
+        this.sampleRate = annotation.sampleRate();
+        this.shadow = annotation.shadow();
+    }
+
+    /**
+     * @see JsonRequestBody#strict()
+     */
+    public boolean isStrict() {
+        return this.strict;
+    }
+
+    /**
+     * @see JsonRequestBody#singleParse()
+     */
+    public boolean isSingleParse() {
+        return this.singleParse;
+    }
+
+    /**
+     * @see JsonRequestBody#streaming()
+     */
+    public boolean isStreaming() {
+        return this.streaming;
+    }
+
+    /**
+     * Returns the maximum size of the request body in bytes.
+     * @param defaultMaxBodySize maximum size configured in the argument resolver
+     * @see JsonRequestBody#maxBodySize()
+     */
+    public long getMaxBodySize(long defaultMaxBodySize) {
+        return this.maxBodySize >= 0 ? this.maxBodySize : defaultMaxBodySize;
+    }
+
+    /**
+     * Indicates whether the request body is validated before it is bound. Applies
+     * to strict validation only, since lax validation always binds the body.
+     * @see JsonRequestBody#validateBeforeBinding()
+     */
+    public boolean isValidatingBeforeBinding() {
+        return this.strict && this.validateBeforeBinding;
+    }
+
+    /**
+     * Returns the maximum number of reported schema violations, <code>1</code> in the fail-fast mode.
+     * @param defaultFailFast fail-fast mode configured in the argument resolver
+     * @param defaultMaxErrors maximum number of violations configured in the argument resolver
+     * @return the maximum number of violations, non-positive for unlimited number of violations
+     * @see JsonRequestBody#failFast()
+     * @see JsonRequestBody#maxErrors()
+     */
+    public int getMaxErrors(boolean defaultFailFast, int defaultMaxErrors) {
+        if (this.failFast || defaultFailFast) {
+            return 1;
+        }
+        return this.maxErrors > 0 ? this.maxErrors : defaultMaxErrors;
+    }
+
+    /**
+     * @see JsonRequestBody#format()
+     */
+    public PayloadFormat getFormat() {
+        return this.format;
+    }
+
+    /**
+     * Indicates whether the request body is a batch of elements validated one by one.
+     * @see JsonRequestBody#format()
+     */
+    public boolean isBatch() {
+        return this.format != PayloadFormat.DOCUMENT;
+    }
+
+    /**
+     * @see JsonRequestBody#parallel()
+     */
+    public boolean isParallel() {
+        return this.parallel;
+    }
+
+    /**
+     * @see JsonRequestBody#engine()
+     */
+    public String getEngine() {
+        return this.engine;
+    }
+
+    /**
+     * Decides randomly whether the current request is validated, according to the sample rate.
+     * @param defaultSampleRate sample rate configured in the argument resolver
+     * @see JsonRequestBody#sampleRate()
+     */
+    public boolean isSampled(double defaultSampleRate) {
+        double sampleRate = this.sampleRate >= 0 ? this.sampleRate : defaultSampleRate;
+        return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /**
+     * @see JsonRequestBody#shadow()
+     */
+    public boolean isShadow() {
+        return this.shadow;
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import org.springframework.core.MethodParameter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Thread-safe cache of {@link JsonRequestBodyMetadata}, keyed by handler method parameters.
+ * <p>
+ *     Handler method parameters are created once per handler method, therefore
+ *     the metadata are computed on the first request and each subsequent request
+ *     is served by a single map lookup.
+ * </p>
+ */
+public class JsonRequestBodyMetadataCache {
+    private final ConcurrentMap<MethodParameter, JsonRequestBodyMetadata> metadata = new ConcurrentHashMap<>(64);
+
+    /**
+     * Returns the metadata of the parameter, computing them if they are not yet cached.
+     * @param parameter the parameter with {@link com.github.novotnyr.springframework.web.jsonschema.annotation.JsonRequestBody} annotation
+     */
+    public JsonRequestBodyMetadata getMetadata(MethodParameter parameter) {
+        JsonRequestBodyMetadata parameterMetadata = this.metadata.get(parameter);
+        if (parameterMetadata != null) {
+            return parameterMetadata;
+        }
+        return this.metadata.computeIfAbsent(parameter, JsonRequestBodyMetadata::new);
+    }
+}
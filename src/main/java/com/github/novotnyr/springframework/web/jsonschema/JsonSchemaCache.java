@@ -0,0 +1,473 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import org.everit.json.schema.Schema;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Thread-safe cache of compiled JSON schemas.
+ * <p>
+ *     Loading a JSON schema involves reading the {@link Resource},
+ *     tokenizing the JSON and building the Everit {@link Schema} object graph.
+ *     Since a compiled {@link Schema} is immutable, it can be safely
+ *     shared among all requests that are validated against the same
+ *     schema resource.
+ * </p>
+ * <p>
+ *     Schemas are keyed by the {@link Resource} returned from the {@link JsonSchemaResolver}.
+ *     Therefore, the resolver must return resources that properly implement
+ *     {@link Object#equals(Object)} and {@link Object#hashCode()}, such
+ *     as {@link org.springframework.core.io.ClassPathResource}.
+ * </p>
+ * <p>
+ *     By default, the cache is unbounded. When a resolver returns a large number of resources,
+ *     for example, a schema for each tenant, the cache can be bounded by the maximum number of schemas
+ *     and by the maximum total weight of schemas, estimated by the {@link Weigher}.
+ *     Once a bound is exceeded, schemas that have not been used recently are evicted.
+ * </p>
+ * <p>
+ *     {@link Listener}s are notified of cached and removed schemas, which allows to discard
+ *     data derived from the schema, such as validators compiled by {@link JsonSchemaValidatorEngines}.
+ * </p>
+ */
+public class JsonSchemaCache {
+    private final ConcurrentMap<Resource, Entry> schemas = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Resource, LoadingSchema> loadingSchemas = new ConcurrentHashMap<>();
+
+    private final Set<Listener> listeners = new CopyOnWriteArraySet<>();
+
+    private final int maxSize;
+
+    private long maxWeight = -1;
+
+    private Weigher weigher = new ContentLengthWeigher();
+
+    private final Object evictionLock = new Object();
+
+    /**
+     * Cached entries in the order of their loading, guarded by the eviction lock.
+     * Entries that have been invalidated or replaced are discarded lazily.
+     */
+    private final Deque<Entry> evictionQueue = new ArrayDeque<>();
+
+    private final AtomicLong weight = new AtomicLong();
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    private final AtomicLong evictionWeight = new AtomicLong();
+
+    /**
+     * Creates an unbounded cache.
+     */
+    public JsonSchemaCache() {
+        this(-1);
+    }
+
+    /**
+     * Creates a cache bounded by the maximum number of schemas.
+     * @param maxSize maximum number of cached schemas, negative for unbounded cache
+     */
+    public JsonSchemaCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns a compiled schema for the resource, loading it when it is not yet cached.
+     * <p>
+     *     Concurrent requests for the same uncached resource will load the schema
+     *     only once, while other requests wait for the schema. When the loader fails,
+     *     nothing is cached and the exception is propagated to all waiting requests.
+     *     When the resource is invalidated or replaced while the schema is being loaded,
+     *     the loaded schema is returned, but not cached, since it may have been loaded
+     *     from the previous content of the resource.
+     * </p>
+     * @param jsonSchemaResource resource with JSON schema
+     * @param schemaLoader function that loads and compiles the schema from resource
+     * @return compiled schema, never {@code null}
+     */
+    public Schema getSchema(Resource jsonSchemaResource, Function<Resource, Schema> schemaLoader) {
+        Entry entry = this.schemas.get(jsonSchemaResource);
+        if (entry != null) {
+            this.hitCount.incrementAndGet();
+            return access(entry);
+        }
+        LoadingSchema loadingSchema = new LoadingSchema();
+        LoadingSchema currentlyLoadingSchema = this.loadingSchemas.putIfAbsent(jsonSchemaResource, loadingSchema);
+        if (currentlyLoadingSchema != null) {
+            this.hitCount.incrementAndGet();
+            return await(currentlyLoadingSchema);
+        }
+        try {
+            entry = this.schemas.get(jsonSchemaResource);
+            if (entry != null) {
+                this.hitCount.incrementAndGet();
+                loadingSchema.complete(entry.schema);
+                return access(entry);
+            }
+            this.missCount.incrementAndGet();
+            Schema schema = schemaLoader.apply(jsonSchemaResource);
+            put(jsonSchemaResource, schema, loadingSchema);
+            loadingSchema.complete(schema);
+            return schema;
+        } catch (RuntimeException | Error e) {
+            loadingSchema.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.loadingSchemas.remove(jsonSchemaResource, loadingSchema);
+        }
+    }
+
+    /**
+     * Returns the compiled schema, if it is cached, without loading it. This allows callers
+     * to load missing schemas on a thread that may block, such as outside of an event loop.
+     * @param jsonSchemaResource resource with JSON schema
+     * @return compiled schema, or {@code null} if the schema is not cached
+     */
+    public Schema getCachedSchema(Resource jsonSchemaResource) {
+        Entry entry = this.schemas.get(jsonSchemaResource);
+        if (entry == null) {
+            return null;
+        }
+        this.hitCount.incrementAndGet();
+        return access(entry);
+    }
+
+    private Schema access(Entry entry) {
+        if (isBounded() && !entry.referenced) {
+            entry.referenced = true;
+        }
+        return entry.schema;
+    }
+
+    private Schema await(CompletableFuture<Schema> loadingSchema) {
+        try {
+            return loadingSchema.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Caches the loaded schema, unless the resource has been invalidated or replaced in the meantime.
+     */
+    private void put(Resource jsonSchemaResource, Schema schema, LoadingSchema loadingSchema) {
+        Entry entry = createEntry(jsonSchemaResource, schema);
+        notifyCached(entry);
+        Entry cachedEntry = this.schemas.compute(jsonSchemaResource, (key, currentEntry) ->
+                loadingSchema.invalidated || currentEntry != null ? currentEntry : entry);
+        if (cachedEntry != entry) {
+            notifyRemoved(entry);
+            return;
+        }
+        this.weight.addAndGet(entry.weight);
+        evict(entry);
+    }
+
+    private Entry createEntry(Resource jsonSchemaResource, Schema schema) {
+        return new Entry(jsonSchemaResource, schema, isBounded() ? this.weigher.weigh(jsonSchemaResource, schema) : 0);
+    }
+
+    /**
+     * Prevents caching of the schema that is being loaded from the resource.
+     */
+    private void invalidateLoading(Resource jsonSchemaResource) {
+        LoadingSchema loadingSchema = this.loadingSchemas.get(jsonSchemaResource);
+        if (loadingSchema != null) {
+            loadingSchema.invalidated = true;
+        }
+    }
+
+    private boolean isBounded() {
+        return this.maxSize >= 0 || this.maxWeight >= 0;
+    }
+
+    private boolean isExceeded() {
+        return this.maxSize >= 0 && this.schemas.size() > this.maxSize
+                || this.maxWeight >= 0 && this.weight.get() > this.maxWeight;
+    }
+
+    /**
+     * Evicts schemas that have not been used recently until the cache is within its bounds.
+     * The schema that has just been loaded is never evicted, even if it exceeds the maximum weight alone.
+     * <p>
+     *     Schemas are evicted by the CLOCK algorithm: the oldest schema is evicted, unless it has
+     *     been used since it was last considered for eviction, in which case it gets a second chance
+     *     and the next oldest schema is considered. Unlike scanning for the least recently used schema,
+     *     the cost of eviction does not grow with the number of cached schemas.
+     * </p>
+     */
+    private void evict(Entry loadedEntry) {
+        if (!isBounded()) {
+            return;
+        }
+        synchronized (this.evictionLock) {
+            this.evictionQueue.addLast(loadedEntry);
+            int secondChances = this.evictionQueue.size();
+            while (isExceeded()) {
+                Entry candidate = this.evictionQueue.pollFirst();
+                if (candidate == null) {
+                    return;
+                }
+                if (!isCached(candidate)) {
+                    continue;
+                }
+                if (candidate == loadedEntry) {
+                    this.evictionQueue.addLast(candidate);
+                    if (this.evictionQueue.size() == 1) {
+                        return;
+                    }
+                    continue;
+                }
+                if (candidate.referenced && secondChances-- > 0) {
+                    candidate.referenced = false;
+                    this.evictionQueue.addLast(candidate);
+                    continue;
+                }
+                if (this.schemas.remove(candidate.resource, candidate)) {
+                    this.weight.addAndGet(-candidate.weight);
+                    this.evictionCount.incrementAndGet();
+                    this.evictionWeight.addAndGet(candidate.weight);
+                    notifyRemoved(candidate);
+                }
+            }
+            if (this.evictionQueue.size() > 2 * this.schemas.size() + 16) {
+                this.evictionQueue.removeIf(entry -> !isCached(entry));
+            }
+        }
+    }
+
+    private boolean isCached(Entry entry) {
+        return this.schemas.get(entry.resource) == entry;
+    }
+
+    private void notifyCached(Entry entry) {
+        for (Listener listener : this.listeners) {
+            listener.onCached(entry.resource, entry.schema);
+        }
+    }
+
+    private void notifyRemoved(Entry entry) {
+        for (Listener listener : this.listeners) {
+            listener.onRemoved(entry.resource, entry.schema);
+        }
+    }
+
+    /**
+     * Atomically replaces the compiled schema for the resource, if it is cached.
+     * Requests that are being validated keep using the previous schema,
+     * while subsequent requests use the new one.
+     * @param jsonSchemaResource resource with JSON schema
+     * @param schema new compiled schema
+     * @return {@code true} if the schema was replaced, {@code false} if the resource was not cached
+     */
+    public boolean replace(Resource jsonSchemaResource, Schema schema) {
+        invalidateLoading(jsonSchemaResource);
+        Entry entry = createEntry(jsonSchemaResource, schema);
+        notifyCached(entry);
+        Entry previousEntry = this.schemas.replace(jsonSchemaResource, entry);
+        if (previousEntry == null) {
+            notifyRemoved(entry);
+            return false;
+        }
+        this.weight.addAndGet(entry.weight - previousEntry.weight);
+        notifyRemoved(previousEntry);
+        evict(entry);
+        return true;
+    }
+
+    /**
+     * Removes a compiled schema for the resource, forcing a reload on the next request.
+     * A schema that is being loaded from the resource at the same time is not cached.
+     * @param jsonSchemaResource resource with JSON schema
+     */
+    public void invalidate(Resource jsonSchemaResource) {
+        invalidateLoading(jsonSchemaResource);
+        Entry entry = this.schemas.remove(jsonSchemaResource);
+        if (entry != null) {
+            this.weight.addAndGet(-entry.weight);
+            notifyRemoved(entry);
+        }
+    }
+
+    /**
+     * Removes all compiled schemas.
+     */
+    public void invalidateAll() {
+        for (Resource jsonSchemaResource : this.schemas.keySet()) {
+            invalidate(jsonSchemaResource);
+        }
+    }
+
+    /**
+     * Registers the listener and notifies it of all currently cached schemas.
+     * Listeners should be registered before the cache is used by requests.
+     */
+    public void addListener(Listener listener) {
+        if (this.listeners.add(listener)) {
+            for (Entry entry : this.schemas.values()) {
+                listener.onCached(entry.resource, entry.schema);
+            }
+        }
+    }
+
+    public void removeListener(Listener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Returns an unmodifiable view of resources with compiled schemas.
+     */
+    public Set<Resource> getResources() {
+        return Collections.unmodifiableSet(this.schemas.keySet());
+    }
+
+    /**
+     * Returns the number of compiled schemas in the cache.
+     */
+    public int size() {
+        return this.schemas.size();
+    }
+
+    /**
+     * Returns the estimated total weight of compiled schemas in the cache.
+     * The weight is estimated only when the cache is bounded, otherwise it is zero.
+     */
+    public long getWeight() {
+        return this.weight.get();
+    }
+
+    /**
+     * Returns the number of lookups that were served by an already compiled schema.
+     */
+    public long getHitCount() {
+        return this.hitCount.get();
+    }
+
+    /**
+     * Returns the number of lookups that required loading and compiling the schema.
+     */
+    public long getMissCount() {
+        return this.missCount.get();
+    }
+
+    /**
+     * Returns the number of schemas that have been evicted to keep the cache within its bounds.
+     */
+    public long getEvictionCount() {
+        return this.evictionCount.get();
+    }
+
+    /**
+     * Returns the total weight of schemas that have been evicted.
+     */
+    public long getEvictionWeight() {
+        return this.evictionWeight.get();
+    }
+
+    /**
+     * Sets the maximum total weight of cached schemas, as estimated by the {@link Weigher}.
+     * Negative value, which is the default, does not limit the weight.
+     */
+    public void setMaxWeight(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Sets the estimator of schema weights. By default, the weight is the length of the schema resource in bytes.
+     */
+    public void setWeigher(Weigher weigher) {
+        this.weigher = weigher;
+    }
+
+    /**
+     * Estimates the weight of a compiled schema, such as its approximate heap usage.
+     */
+    @FunctionalInterface
+    public interface Weigher {
+        /**
+         * @return non-negative weight of the schema
+         */
+        long weigh(Resource jsonSchemaResource, Schema schema);
+    }
+
+    /**
+     * Listener of schemas that are added to and removed from the cache.
+     * <p>
+     *     A listener is notified of a schema before the schema is cached, therefore any request
+     *     that gets the schema from the cache has been preceded by the notification.
+     *     Each schema that the listener has been notified of is eventually removed,
+     *     either after it is evicted, invalidated or replaced, or right away when it is not cached
+     *     at all, such as a schema loaded during invalidation of its resource.
+     *     Listeners are invoked synchronously and must be fast and thread-safe.
+     * </p>
+     */
+    public interface Listener {
+        void onCached(Resource jsonSchemaResource, Schema schema);
+
+        void onRemoved(Resource jsonSchemaResource, Schema schema);
+    }
+
+    /**
+     * Weighs schemas by the length of the schema resource in bytes, which grows with
+     * the number of compiled schema nodes. Resources with unknown length weigh 1.
+     */
+    private static class ContentLengthWeigher implements Weigher {
+        @Override
+        public long weigh(Resource jsonSchemaResource, Schema schema) {
+            try {
+                return Math.max(1, jsonSchemaResource.contentLength());
+            } catch (IOException e) {
+                return 1;
+            }
+        }
+    }
+
+    private static class Entry {
+        private final Resource resource;
+
+        private final Schema schema;
+
+        private final long weight;
+
+        /**
+         * Whether the schema has been used since it was last considered for eviction
+         */
+        private volatile boolean referenced;
+
+        Entry(Resource resource, Schema schema, long weight) {
+            this.resource = resource;
+            this.schema = schema;
+            this.weight = weight;
+        }
+    }
+
+    private static class LoadingSchema extends CompletableFuture<Schema> {
+        /**
+         * Whether the resource has been invalidated or replaced while the schema was being loaded
+         */
+        private volatile boolean invalidated;
+    }
+}
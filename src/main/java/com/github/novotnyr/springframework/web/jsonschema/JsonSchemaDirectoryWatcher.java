@@ -0,0 +1,239 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.everit.json.schema.Schema;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Watches a directory with JSON schemas and recompiles changed schemas in the background.
+ * <p>
+ *     Only schemas that are already compiled in the {@link JsonSchemaCache} are recompiled,
+ *     other schemas are compiled lazily upon the first request. A recompiled schema
+ *     atomically replaces the previous one in the cache, therefore request threads
+ *     never access the filesystem. When the changed schema cannot be compiled,
+ *     the previous one is kept. Deleted schemas are removed from the cache.
+ * </p>
+ * <p>
+ *     Subdirectories are watched as well. Changes that arrive within a quiet period
+ *     are coalesced, so that a schema saved in multiple writes is compiled only once.
+ * </p>
+ * <p>
+ *     The watcher is started and stopped along with the application context,
+ *     when declared as a bean.
+ * </p>
+ * @see DirectoryJsonSchemaResolver
+ */
+public class JsonSchemaDirectoryWatcher implements SmartLifecycle {
+    private static final Log logger = LogFactory.getLog(JsonSchemaDirectoryWatcher.class);
+
+    private final Path directory;
+
+    private final JsonSchemaCache jsonSchemaCache;
+
+    private JsonSchemaLoader jsonSchemaLoader = new JsonSchemaLoader();
+
+    private long quietPeriod = 100;
+
+    private volatile WatchService watchService;
+
+    private final Map<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a watcher of the directory.
+     * @param directory directory with JSON schema files
+     * @param jsonSchemaCache cache that is shared with the argument resolvers
+     */
+    public JsonSchemaDirectoryWatcher(Path directory, JsonSchemaCache jsonSchemaCache) {
+        this.directory = directory.toAbsolutePath().normalize();
+        this.jsonSchemaCache = jsonSchemaCache;
+    }
+
+    /**
+     * Starts watching the directory in a background daemon thread.
+     * @throws IllegalStateException when the directory cannot be watched
+     */
+    @Override
+    public synchronized void start() {
+        if (isRunning()) {
+            return;
+        }
+        WatchService watchService;
+        try {
+            watchService = this.directory.getFileSystem().newWatchService();
+            registerDirectories(watchService, this.directory);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to watch JSON schema directory " + this.directory, e);
+        }
+        this.watchService = watchService;
+        Thread watcherThread = new Thread(() -> watch(watchService), "json-schema-directory-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        WatchService watchService = this.watchService;
+        if (watchService == null) {
+            return;
+        }
+        this.watchService = null;
+        this.watchedDirectories.clear();
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.warn("Unable to stop watching JSON schema directory " + this.directory, e);
+        }
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.watchService != null;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return true;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void registerDirectories(WatchService watchService, Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths.filter(Files::isDirectory)::iterator) {
+                WatchKey watchKey = path.register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+                this.watchedDirectories.put(watchKey, path);
+            }
+        }
+    }
+
+    private void watch(WatchService watchService) {
+        try {
+            while (true) {
+                WatchKey watchKey = watchService.take();
+                Set<Path> changedPaths = new LinkedHashSet<>();
+                boolean overflow = false;
+                while (watchKey != null) {
+                    overflow |= collectChangedPaths(watchService, watchKey, changedPaths);
+                    watchKey = watchService.poll(this.quietPeriod, TimeUnit.MILLISECONDS);
+                }
+                if (overflow) {
+                    reloadAll();
+                } else {
+                    changedPaths.forEach(this::reload);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // watcher has been stopped
+        }
+    }
+
+    /**
+     * Collects paths changed in the watched directory.
+     * @return {@code true} if some events were lost and all schemas must be reloaded
+     */
+    private boolean collectChangedPaths(WatchService watchService, WatchKey watchKey, Set<Path> changedPaths) {
+        boolean overflow = false;
+        Path watchedDirectory = this.watchedDirectories.get(watchKey);
+        for (WatchEvent<?> event : watchKey.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || watchedDirectory == null) {
+                overflow = true;
+                continue;
+            }
+            Path path = watchedDirectory.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                try {
+                    registerDirectories(watchService, path);
+                } catch (IOException e) {
+                    logger.warn("Unable to watch JSON schema directory " + path, e);
+                }
+            }
+            changedPaths.add(path);
+        }
+        if (!watchKey.reset()) {
+            this.watchedDirectories.remove(watchKey);
+        }
+        return overflow;
+    }
+
+    private void reloadAll() {
+        List<Path> cachedPaths = new ArrayList<>();
+        for (Resource resource : this.jsonSchemaCache.getResources()) {
+            if (resource instanceof FileSystemResource) {
+                Path path = ((FileSystemResource) resource).getFile().toPath();
+                if (path.startsWith(this.directory)) {
+                    cachedPaths.add(path);
+                }
+            }
+        }
+        cachedPaths.forEach(this::reload);
+    }
+
+    /**
+     * Recompiles the schema file, if it is cached.
+     */
+    private void reload(Path path) {
+        Resource resource = new FileSystemResource(path.toFile());
+        if (!this.jsonSchemaCache.getResources().contains(resource)) {
+            return;
+        }
+        if (!Files.exists(path)) {
+            this.jsonSchemaCache.invalidate(resource);
+            logger.info("Removed deleted JSON schema " + path);
+            return;
+        }
+        try {
+            Schema schema = this.jsonSchemaLoader.load(resource);
+            if (this.jsonSchemaCache.replace(resource, schema)) {
+                logger.info("Reloaded JSON schema " + path);
+            }
+        } catch (JsonSchemaException e) {
+            logger.warn("Unable to reload JSON schema " + path + ", keeping the previous version", e);
+        }
+    }
+
+    public void setJsonSchemaLoader(JsonSchemaLoader jsonSchemaLoader) {
+        this.jsonSchemaLoader = jsonSchemaLoader;
+    }
+
+    /**
+     * Sets the time in milliseconds to wait for further changes before recompiling
+     * the changed schemas. Defaults to 100 ms.
+     */
+    public void setQuietPeriod(long quietPeriod) {
+        this.quietPeriod = quietPeriod;
+    }
+}
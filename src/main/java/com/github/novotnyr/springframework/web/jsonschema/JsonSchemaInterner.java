@@ -0,0 +1,516 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import org.everit.json.schema.Schema;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.springframework.core.io.Resource;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Shares compiled JSON schemas among resources with identical content.
+ * <p>
+ *     Endpoints often point to byte-identical or structurally identical schemas
+ *     via different resources, for example, copies of a schema for each version of an API.
+ *     The interner keys compiled schemas by the SHA-256 hash of the canonical form of the schema document,
+ *     in which object keys are sorted and whitespace is insignificant. All resources with the same
+ *     canonical form share a single compiled {@link Schema}, and the compiled validators of
+ *     {@link JsonSchemaValidatorEngines} are shared accordingly. Therefore, the heap usage grows
+ *     with the number of distinct schemas rather than the number of <code>@JsonRequestBody</code> parameters.
+ * </p>
+ * <p>
+ *     Additionally, subschemas that occur multiple times in a document, such as the same
+ *     address schema used for the billing and the shipping address, are moved to
+ *     <code>definitions</code> and replaced by <code>$ref</code> references, so that each one
+ *     is compiled only once. Subschemas are not moved when the document changes the resolution scope
+ *     by a nested <code>id</code>, or when they are a target of a local <code>$ref</code>.
+ *     Validation results and violation messages remain the same.
+ * </p>
+ * <p>
+ *     When a resource is reloaded with a different content, its previous schema is released
+ *     unless it is shared with other resources.
+ * </p>
+ * @see JsonSchemaLoader#setJsonSchemaInterner(JsonSchemaInterner)
+ */
+public class JsonSchemaInterner {
+    private static final String DEFINITION_PREFIX = "interned-";
+
+    private static final Set<String> SCHEMA_KEYWORDS = new HashSet<>(Arrays.asList(
+            "additionalItems", "additionalProperties", "contains", "not", "propertyNames", "if", "then", "else"));
+
+    private static final Set<String> SCHEMA_ARRAY_KEYWORDS = new HashSet<>(Arrays.asList("allOf", "anyOf", "oneOf"));
+
+    private static final Set<String> SCHEMA_MAP_KEYWORDS = new HashSet<>(Arrays.asList(
+            "properties", "patternProperties", "definitions", "dependencies"));
+
+    private final ConcurrentMap<String, InternedSchema> schemas = new ConcurrentHashMap<>();
+
+    private final Map<Resource, InternedSchema> resourceSchemas = new HashMap<>();
+
+    private boolean deduplicateSubschemas = true;
+
+    /**
+     * Returns the compiled schema with the same canonical form as the raw schema,
+     * compiling it only when no such schema has been interned yet.
+     * <p>
+     *     Concurrent requests for the same uncompiled schema compile it only once.
+     *     When the compiler fails, nothing is interned and the exception is propagated.
+     * </p>
+     * @param jsonSchemaResource resource that the raw schema has been read from
+     * @param rawSchema parsed schema document, whose duplicate subschemas are replaced in place
+     * @param schemaCompiler function that compiles the raw schema
+     * @return compiled schema, never {@code null}
+     */
+    public Schema intern(Resource jsonSchemaResource, JSONObject rawSchema, Function<JSONObject, Schema> schemaCompiler) {
+        int nodeCount = countNodes(rawSchema);
+        if (this.deduplicateSubschemas) {
+            deduplicateSubschemas(rawSchema);
+        }
+        String hash = hash(canonicalize(rawSchema));
+        InternedSchema internedSchema = this.schemas.computeIfAbsent(hash,
+                key -> new InternedSchema(key, schemaCompiler.apply(rawSchema), countNodes(rawSchema)));
+        synchronized (this) {
+            InternedSchema currentSchema = this.schemas.putIfAbsent(hash, internedSchema);
+            if (currentSchema != null) {
+                internedSchema = currentSchema;
+            }
+            InternedSchema previousSchema = this.resourceSchemas.put(jsonSchemaResource, internedSchema);
+            if (previousSchema != internedSchema) {
+                internedSchema.resourceNodeCounts.put(jsonSchemaResource, nodeCount);
+                if (previousSchema != null) {
+                    release(previousSchema, jsonSchemaResource);
+                }
+            }
+        }
+        return internedSchema.schema;
+    }
+
+    private void release(InternedSchema internedSchema, Resource jsonSchemaResource) {
+        internedSchema.resourceNodeCounts.remove(jsonSchemaResource);
+        if (internedSchema.resourceNodeCounts.isEmpty()) {
+            this.schemas.remove(internedSchema.hash, internedSchema);
+        }
+    }
+
+    /**
+     * Releases the schema of the resource, unless it is shared with other resources.
+     * @param jsonSchemaResource resource with JSON schema
+     */
+    public synchronized void invalidate(Resource jsonSchemaResource) {
+        InternedSchema internedSchema = this.resourceSchemas.remove(jsonSchemaResource);
+        if (internedSchema != null) {
+            release(internedSchema, jsonSchemaResource);
+        }
+    }
+
+    /**
+     * Releases all schemas.
+     */
+    public synchronized void invalidateAll() {
+        this.resourceSchemas.clear();
+        this.schemas.clear();
+    }
+
+    /**
+     * Returns the report of resources sharing the interned schemas and of the schema nodes saved.
+     */
+    public synchronized Report getReport() {
+        Set<InternedSchema> internedSchemas = Collections.newSetFromMap(new IdentityHashMap<>());
+        internedSchemas.addAll(this.resourceSchemas.values());
+        int schemaNodeCount = 0;
+        int resourceNodeCount = 0;
+        for (InternedSchema internedSchema : internedSchemas) {
+            schemaNodeCount += internedSchema.nodeCount;
+            for (int nodeCount : internedSchema.resourceNodeCounts.values()) {
+                resourceNodeCount += nodeCount;
+            }
+        }
+        return new Report(this.resourceSchemas.size(), internedSchemas.size(), resourceNodeCount, schemaNodeCount);
+    }
+
+    /**
+     * Enables moving subschemas occurring multiple times in a document to <code>definitions</code>.
+     * Enabled by default.
+     */
+    public void setDeduplicateSubschemas(boolean deduplicateSubschemas) {
+        this.deduplicateSubschemas = deduplicateSubschemas;
+    }
+
+    /**
+     * Moves subschemas that occur multiple times in the document to <code>definitions</code>,
+     * and replaces each occurrence by a <code>$ref</code> reference. Larger subschemas are moved first,
+     * and subschemas nested in replaced occurrences are no longer considered.
+     */
+    private void deduplicateSubschemas(JSONObject rawSchema) {
+        List<String> localReferences = new ArrayList<>();
+        if (!collectLocalReferences(rawSchema, true, localReferences)) {
+            return;
+        }
+        Map<String, List<Subschema>> subschemas = new LinkedHashMap<>();
+        collectSubschemas(rawSchema, "#", localReferences, subschemas);
+
+        List<Map.Entry<String, List<Subschema>>> duplicates = new ArrayList<>();
+        for (Map.Entry<String, List<Subschema>> entry : subschemas.entrySet()) {
+            if (entry.getValue().size() > 1) {
+                duplicates.add(entry);
+            }
+        }
+        duplicates.sort(Comparator.comparingInt((Map.Entry<String, List<Subschema>> entry) -> entry.getKey().length()).reversed());
+
+        Set<Object> replacedNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+        JSONObject definitions = null;
+        for (Map.Entry<String, List<Subschema>> duplicate : duplicates) {
+            List<Subschema> occurrences = new ArrayList<>();
+            for (Subschema subschema : duplicate.getValue()) {
+                if (!replacedNodes.contains(subschema.parent) && !replacedNodes.contains(subschema.schema)) {
+                    occurrences.add(subschema);
+                }
+            }
+            if (occurrences.size() < 2) {
+                continue;
+            }
+            if (definitions == null) {
+                definitions = rawSchema.optJSONObject("definitions");
+                if (definitions == null) {
+                    definitions = new JSONObject();
+                    rawSchema.put("definitions", definitions);
+                }
+            }
+            String definitionName = DEFINITION_PREFIX + hash(duplicate.getKey()).substring(0, 16);
+            definitions.put(definitionName, occurrences.get(0).schema);
+            JSONObject reference = new JSONObject().put("$ref", "#/definitions/" + definitionName);
+            for (Subschema occurrence : occurrences) {
+                occurrence.replace(reference);
+                if (occurrence != occurrences.get(0)) {
+                    collectNodes(occurrence.schema, replacedNodes);
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects pointers of local <code>$ref</code> references in the document.
+     * @return {@code false} if a nested schema changes the resolution scope by <code>id</code>
+     */
+    private boolean collectLocalReferences(Object value, boolean root, List<String> localReferences) {
+        if (value instanceof JSONObject) {
+            JSONObject object = (JSONObject) value;
+            if (!root && (object.opt("id") instanceof String || object.opt("$id") instanceof String)) {
+                return false;
+            }
+            Object reference = object.opt("$ref");
+            if (reference instanceof String && ((String) reference).startsWith("#")) {
+                localReferences.add(decodeReference((String) reference));
+            }
+            for (String key : object.keySet()) {
+                if (!collectLocalReferences(object.get(key), false, localReferences)) {
+                    return false;
+                }
+            }
+        } else if (value instanceof JSONArray) {
+            for (Object item : (JSONArray) value) {
+                if (!collectLocalReferences(item, false, localReferences)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private String decodeReference(String reference) {
+        try {
+            return URLDecoder.decode(reference.replace("+", "%2B"), StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return reference;
+        }
+    }
+
+    /**
+     * Collects subschemas of the schema, which are objects in schema positions, by their canonical form.
+     * @return canonical form of the schema
+     */
+    private String collectSubschemas(Object schema, String pointer, List<String> localReferences, Map<String, List<Subschema>> subschemas) {
+        if (!(schema instanceof JSONObject)) {
+            return canonicalize(schema);
+        }
+        JSONObject object = (JSONObject) schema;
+        StringBuilder canonicalForm = new StringBuilder("{");
+        for (String key : new TreeSet<>(object.keySet())) {
+            Object value = object.get(key);
+            String childPointer = pointer + "/" + escapePointer(key);
+            String canonicalValue;
+            if (SCHEMA_KEYWORDS.contains(key) || key.equals("items") && value instanceof JSONObject) {
+                canonicalValue = collectSubschema(object, key, -1, value, childPointer, localReferences, subschemas);
+            } else if ((SCHEMA_ARRAY_KEYWORDS.contains(key) || key.equals("items")) && value instanceof JSONArray) {
+                JSONArray array = (JSONArray) value;
+                StringBuilder canonicalArray = new StringBuilder("[");
+                for (int i = 0; i < array.length(); i++) {
+                    appendSeparator(canonicalArray, '[');
+                    canonicalArray.append(collectSubschema(array, null, i, array.get(i), childPointer + "/" + i, localReferences, subschemas));
+                }
+                canonicalValue = canonicalArray.append(']').toString();
+            } else if (SCHEMA_MAP_KEYWORDS.contains(key) && value instanceof JSONObject) {
+                JSONObject map = (JSONObject) value;
+                StringBuilder canonicalMap = new StringBuilder("{");
+                for (String name : new TreeSet<>(map.keySet())) {
+                    appendSeparator(canonicalMap, '{');
+                    canonicalMap.append(JSONObject.quote(name)).append(':')
+                            .append(collectSubschema(map, name, -1, map.get(name), childPointer + "/" + escapePointer(name), localReferences, subschemas));
+                }
+                canonicalValue = canonicalMap.append('}').toString();
+            } else {
+                canonicalValue = canonicalize(value);
+            }
+            appendSeparator(canonicalForm, '{');
+            canonicalForm.append(JSONObject.quote(key)).append(':').append(canonicalValue);
+        }
+        return canonicalForm.append('}').toString();
+    }
+
+    private String collectSubschema(Object parent, String key, int index, Object schema, String pointer,
+                                    List<String> localReferences, Map<String, List<Subschema>> subschemas) {
+        String canonicalForm = collectSubschemas(schema, pointer, localReferences, subschemas);
+        if (schema instanceof JSONObject && isMovable((JSONObject) schema, pointer, localReferences)) {
+            subschemas.computeIfAbsent(canonicalForm, form -> new ArrayList<>())
+                    .add(new Subschema(parent, key, index, (JSONObject) schema));
+        }
+        return canonicalForm;
+    }
+
+    /**
+     * Subschemas that are already references, are empty, or are a target of a local reference are not moved.
+     */
+    private boolean isMovable(JSONObject schema, String pointer, List<String> localReferences) {
+        if (schema.length() == 0 || schema.has("$ref")) {
+            return false;
+        }
+        for (String localReference : localReferences) {
+            if (localReference.equals(pointer) || localReference.startsWith(pointer + "/")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String escapePointer(String key) {
+        return key.replace("~", "~0").replace("/", "~1");
+    }
+
+    private static void appendSeparator(StringBuilder builder, char start) {
+        if (builder.length() > 1 || builder.charAt(0) != start) {
+            builder.append(',');
+        }
+    }
+
+    private void collectNodes(Object value, Set<Object> nodes) {
+        if (value instanceof JSONObject) {
+            nodes.add(value);
+            JSONObject object = (JSONObject) value;
+            for (String key : object.keySet()) {
+                collectNodes(object.get(key), nodes);
+            }
+        } else if (value instanceof JSONArray) {
+            nodes.add(value);
+            for (Object item : (JSONArray) value) {
+                collectNodes(item, nodes);
+            }
+        }
+    }
+
+    /**
+     * Counts schema nodes of the document, that is, objects in schema positions.
+     */
+    static int countNodes(Object schema) {
+        if (!(schema instanceof JSONObject)) {
+            return 0;
+        }
+        JSONObject object = (JSONObject) schema;
+        int nodeCount = 1;
+        for (String key : object.keySet()) {
+            Object value = object.get(key);
+            if (SCHEMA_KEYWORDS.contains(key) || key.equals("items") && value instanceof JSONObject) {
+                nodeCount += countNodes(value);
+            } else if ((SCHEMA_ARRAY_KEYWORDS.contains(key) || key.equals("items")) && value instanceof JSONArray) {
+                for (Object item : (JSONArray) value) {
+                    nodeCount += countNodes(item);
+                }
+            } else if (SCHEMA_MAP_KEYWORDS.contains(key) && value instanceof JSONObject) {
+                JSONObject map = (JSONObject) value;
+                for (String name : map.keySet()) {
+                    nodeCount += countNodes(map.get(name));
+                }
+            }
+        }
+        return nodeCount;
+    }
+
+    /**
+     * Serializes the value with sorted object keys.
+     */
+    static String canonicalize(Object value) {
+        if (value instanceof JSONObject) {
+            JSONObject object = (JSONObject) value;
+            StringBuilder canonicalForm = new StringBuilder("{");
+            for (String key : new TreeSet<>(object.keySet())) {
+                appendSeparator(canonicalForm, '{');
+                canonicalForm.append(JSONObject.quote(key)).append(':').append(canonicalize(object.get(key)));
+            }
+            return canonicalForm.append('}').toString();
+        }
+        if (value instanceof JSONArray) {
+            StringBuilder canonicalForm = new StringBuilder("[");
+            for (Object item : (JSONArray) value) {
+                appendSeparator(canonicalForm, '[');
+                canonicalForm.append(canonicalize(item));
+            }
+            return canonicalForm.append(']').toString();
+        }
+        if (value instanceof String) {
+            return JSONObject.quote((String) value);
+        }
+        if (value instanceof Number) {
+            return JSONObject.numberToString((Number) value);
+        }
+        return String.valueOf(value);
+    }
+
+    private static String hash(String canonicalForm) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonicalForm.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hash = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hash.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    private static class InternedSchema {
+        private final String hash;
+
+        private final Schema schema;
+
+        private final int nodeCount;
+
+        private final Map<Resource, Integer> resourceNodeCounts = new HashMap<>();
+
+        InternedSchema(String hash, Schema schema, int nodeCount) {
+            this.hash = hash;
+            this.schema = schema;
+            this.nodeCount = nodeCount;
+        }
+    }
+
+    /**
+     * Occurrence of a subschema in an object or in an array.
+     */
+    private static class Subschema {
+        private final Object parent;
+
+        private final String key;
+
+        private final int index;
+
+        private final JSONObject schema;
+
+        Subschema(Object parent, String key, int index, JSONObject schema) {
+            this.parent = parent;
+            this.key = key;
+            this.index = index;
+            this.schema = schema;
+        }
+
+        void replace(JSONObject reference) {
+            if (this.parent instanceof JSONObject) {
+                ((JSONObject) this.parent).put(this.key, reference);
+            } else {
+                ((JSONArray) this.parent).put(this.index, reference);
+            }
+        }
+    }
+
+    /**
+     * Report of resources sharing the interned schemas.
+     */
+    public static class Report {
+        private final int resourceCount;
+
+        private final int schemaCount;
+
+        private final int resourceNodeCount;
+
+        private final int schemaNodeCount;
+
+        Report(int resourceCount, int schemaCount, int resourceNodeCount, int schemaNodeCount) {
+            this.resourceCount = resourceCount;
+            this.schemaCount = schemaCount;
+            this.resourceNodeCount = resourceNodeCount;
+            this.schemaNodeCount = schemaNodeCount;
+        }
+
+        /**
+         * Returns the number of resources with interned schemas.
+         */
+        public int getResourceCount() {
+            return this.resourceCount;
+        }
+
+        /**
+         * Returns the number of distinct compiled schemas shared by the resources.
+         */
+        public int getSchemaCount() {
+            return this.schemaCount;
+        }
+
+        /**
+         * Returns the number of schema nodes that would be compiled without interning,
+         * that is, the total number of subschemas in the documents of all resources.
+         */
+        public int getResourceNodeCount() {
+            return this.resourceNodeCount;
+        }
+
+        /**
+         * Returns the number of schema nodes that have been compiled, after interning
+         * schemas and deduplicating subschemas.
+         */
+        public int getSchemaNodeCount() {
+            return this.schemaNodeCount;
+        }
+
+        /**
+         * Returns the number of schema nodes that have not been compiled thanks to interning.
+         */
+        public int getSavedNodeCount() {
+            return Math.max(0, this.resourceNodeCount - this.schemaNodeCount);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d JSON schema resources share %d compiled schemas with %d of %d schema nodes, saving %d nodes (%.0f %%)",
+                    this.resourceCount, this.schemaCount, this.schemaNodeCount, this.resourceNodeCount, getSavedNodeCount(),
+                    this.resourceNodeCount == 0 ? 0.0 : 100.0 * getSavedNodeCount() / this.resourceNodeCount);
+        }
+    }
+}
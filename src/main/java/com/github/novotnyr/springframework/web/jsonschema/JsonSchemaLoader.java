@@ -0,0 +1,79 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.SchemaException;
+import org.everit.json.schema.loader.SchemaClient;
+import org.everit.json.schema.loader.SchemaLoader;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Loads and compiles JSON schemas from {@link Resource}s into Everit {@link Schema}s.
+ * <p>
+ *     Documents referenced via <code>$ref</code> are loaded by the {@link SchemaClient}.
+ *     By default, the Everit client is used, which fetches remote references over the network.
+ *     To resolve references from local resources, use the {@link ResourceSchemaClient}.
+ * </p>
+ */
+public class JsonSchemaLoader {
+    private SchemaClient schemaClient;
+
+    private JsonSchemaInterner jsonSchemaInterner;
+
+    /**
+     * Loads and compiles the JSON schema from the resource.
+     * @throws UnavailableJsonSchemaException when the resource cannot be read
+     * @throws InvalidJsonSchemaException when the resource does not contain a valid JSON schema
+     */
+    public Schema load(Resource jsonSchemaResource) throws JsonSchemaException {
+        try (InputStream jsonSchemaStream = jsonSchemaResource.getInputStream()) {
+            JSONObject rawSchema = new JSONObject(new JSONTokener(jsonSchemaStream));
+            if (this.jsonSchemaInterner != null) {
+                return this.jsonSchemaInterner.intern(jsonSchemaResource, rawSchema, this::compile);
+            }
+            return compile(rawSchema);
+        } catch (IOException e) {
+            throw new UnavailableJsonSchemaException(jsonSchemaResource, e);
+        } catch (JSONException | SchemaException e) {
+            throw new InvalidJsonSchemaException(jsonSchemaResource, e);
+        }
+    }
+
+    private Schema compile(JSONObject rawSchema) {
+        SchemaLoader.SchemaLoaderBuilder loaderBuilder = SchemaLoader.builder()
+                .schemaJson(rawSchema)
+                .draftV6Support();
+        if (this.schemaClient != null) {
+            loaderBuilder.httpClient(this.schemaClient);
+        }
+        return loaderBuilder.build().load().build();
+    }
+
+    /**
+     * Sets the client that loads documents referenced via <code>$ref</code>.
+     * @see ResourceSchemaClient
+     */
+    public void setSchemaClient(SchemaClient schemaClient) {
+        this.schemaClient = schemaClient;
+    }
+
+    /**
+     * Sets the interner sharing compiled schemas among resources with identical content.
+     * By default, each resource is compiled into its own schema.
+     */
+    public void setJsonSchemaInterner(JsonSchemaInterner jsonSchemaInterner) {
+        this.jsonSchemaInterner = jsonSchemaInterner;
+    }
+
+    /**
+     * Returns the interner sharing compiled schemas, or {@code null} if schemas are not interned.
+     */
+    public JsonSchemaInterner getJsonSchemaInterner() {
+        return this.jsonSchemaInterner;
+    }
+}
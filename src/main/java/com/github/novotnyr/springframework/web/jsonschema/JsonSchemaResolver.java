@@ -4,6 +4,9 @@ import org.springframework.core.MethodParameter;
 import org.springframework.core.io.Resource;
 import org.springframework.web.context.request.NativeWebRequest;
 
+import java.util.Collection;
+import java.util.Collections;
+
 /**
  * Interface to resolve json schemas according to method parameter and webrequest.
  */
@@ -11,7 +14,22 @@ public interface JsonSchemaResolver {
 
     /**
      * Resolves json schemas according to method parameter and webrequest. Must always return a resource, if
-     * it is unavailable you can send a not found Resource
+     * it is unavailable you can send a not found Resource.
+     * <p>
+     *     When schemas are precompiled on application startup, there is no current
+     *     request and the <code>webRequest</code> is {@code null}.
+     * </p>
      */
     Resource resolveJsonSchemaResource(MethodParameter methodParameter, NativeWebRequest webRequest);
+
+    /**
+     * Resolves all json schemas, which requests of the method parameter may be validated against,
+     * such as a schema for each version. Used to precompile schemas on application startup.
+     * <p>
+     *     By default, resolves the single schema resolved without any request.
+     * </p>
+     */
+    default Collection<Resource> resolveJsonSchemaResources(MethodParameter methodParameter) {
+        return Collections.singletonList(resolveJsonSchemaResource(methodParameter, null));
+    }
 }
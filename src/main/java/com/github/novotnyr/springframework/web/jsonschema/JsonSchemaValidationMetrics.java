@@ -0,0 +1,64 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import org.everit.json.schema.ValidationException;
+import org.springframework.core.MethodParameter;
+
+/**
+ * Records the cost of validating request bodies against JSON schemas.
+ * <p>
+ *     All measurements are tagged by the handler method parameter
+ *     annotated by @{@link com.github.novotnyr.springframework.web.jsonschema.annotation.JsonRequestBody}.
+ *     Durations are in nanoseconds.
+ * </p>
+ * <p>
+ *     Argument resolvers do not take any measurement, not even
+ *     read the clock, unless the metrics are {@link #isEnabled() enabled}.
+ * </p>
+ * @see NoOpJsonSchemaValidationMetrics
+ */
+public interface JsonSchemaValidationMetrics {
+    /**
+     * Indicates whether measurements should be taken and recorded.
+     */
+    boolean isEnabled();
+
+    /**
+     * Records reading of the request body.
+     * @param parameter the handler method parameter
+     * @param bodySize size of the request body in bytes
+     * @param readTime time spent reading the request body
+     */
+    void recordRequestBodyRead(MethodParameter parameter, long bodySize, long readTime);
+
+    /**
+     * Records resolving and retrieving the compiled JSON schema.
+     * @param parameter the handler method parameter
+     * @param lookupTime time spent resolving the schema, including loading and compilation upon cache miss
+     * @param cacheHit {@code true} if the compiled schema was already cached
+     */
+    void recordSchemaLookup(MethodParameter parameter, long lookupTime, boolean cacheHit);
+
+    /**
+     * Records validation of the request body against the JSON schema.
+     * @param parameter the handler method parameter
+     * @param validationTime time spent validating the request body
+     * @param validationException violations of the schema, or {@code null} for valid request bodies
+     */
+    void recordValidation(MethodParameter parameter, long validationTime, ValidationException validationException);
+
+    /**
+     * Records a request body that has not been validated in the background,
+     * since the maximum number of pending validations has been reached.
+     * @param parameter the handler method parameter
+     * @see ShadowJsonSchemaValidator
+     */
+    void recordDroppedValidation(MethodParameter parameter);
+
+    /**
+     * Records a lookup of the validation result of a byte-identical request body.
+     * @param parameter the handler method parameter
+     * @param cacheHit {@code true} if the validation result was cached
+     * @see ValidationResultCache
+     */
+    void recordValidationResultCacheLookup(MethodParameter parameter, boolean cacheHit);
+}
@@ -0,0 +1,46 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import com.github.novotnyr.springframework.web.jsonschema.annotation.JsonRequestBody;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.json.JSONObject;
+
+/**
+ * Engine validating parsed request bodies against JSON schemas.
+ * <p>
+ *     The engine compiles the JSON schema loaded by the {@link JsonSchemaLoader} into its own
+ *     validator, once per schema version, and the validator validates each request body.
+ *     Violations are reported as Everit {@link ValidationException}s, which are converted
+ *     to binding errors by the {@link ValidationExceptionMediator}, regardless of the engine.
+ * </p>
+ * <p>
+ *     Engines are registered in the {@link JsonSchemaValidatorEngines} by their names and selected
+ *     either for the whole application, or per parameter by {@link JsonRequestBody#engine()}.
+ * </p>
+ */
+public interface JsonSchemaValidatorEngine {
+    /**
+     * Returns the name of the engine, which selects the engine in {@link JsonRequestBody#engine()}.
+     */
+    String getName();
+
+    /**
+     * Compiles the JSON schema into a validator.
+     * @param schema JSON schema loaded by the {@link JsonSchemaLoader}
+     * @return thread-safe validator, which is reused by all requests validated against the schema
+     */
+    Validator compile(Schema schema);
+
+    /**
+     * Validator of parsed request bodies against a compiled JSON schema.
+     */
+    @FunctionalInterface
+    interface Validator {
+        /**
+         * Validates the parsed JSON document.
+         * @param json parsed JSON document, such as a {@link JSONObject}
+         * @throws ValidationException when the document does not conform to the schema
+         */
+        void validate(Object json) throws ValidationException;
+    }
+}
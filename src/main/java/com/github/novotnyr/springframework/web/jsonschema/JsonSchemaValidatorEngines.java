@@ -0,0 +1,219 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import com.github.novotnyr.springframework.web.jsonschema.annotation.JsonRequestBody;
+import org.everit.json.schema.Schema;
+import org.springframework.core.io.Resource;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Thread-safe registry of {@link JsonSchemaValidatorEngine}s, along with the validators
+ * compiled by the engines for JSON schemas.
+ * <p>
+ *     The Everit and compiled engines are registered by default, and Everit is the default engine.
+ *     Validators are keyed by the engine and by the identity of the {@link Schema} instance:
+ *     they are compiled on the first request validated against the schema and compiled again once
+ *     the JSON schema is reloaded. Parameters validated against the same {@link Schema} instance
+ *     by the same engine share a single validator.
+ * </p>
+ * <p>
+ *     Once the registry is registered as a {@link JsonSchemaCache.Listener}, validators are kept
+ *     as long as their schema is cached, and discarded once the schema is evicted, invalidated
+ *     or replaced. Schemas that are not cached anymore, yet still used by requests that started
+ *     before their removal, are compiled for each such request. Without any cache, validators
+ *     of all schemas are kept.
+ * </p>
+ */
+public class JsonSchemaValidatorEngines implements JsonSchemaCache.Listener {
+    private final Map<String, JsonSchemaValidatorEngine> engines = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<SchemaKey, CompiledSchema> schemas = new ConcurrentHashMap<>(64);
+
+    /**
+     * Whether the registry listens to a {@link JsonSchemaCache}, which determines the lifetime of validators
+     */
+    private volatile boolean listening;
+
+    private volatile JsonSchemaValidatorEngine defaultEngine;
+
+    /**
+     * Creates a registry with the Everit and compiled engines, with Everit as the default engine.
+     */
+    public JsonSchemaValidatorEngines() {
+        register(new CompiledJsonSchemaValidatorEngine());
+        setDefaultEngine(new EveritJsonSchemaValidatorEngine());
+    }
+
+    /**
+     * Registers the engine by its name, replacing any engine of the same name.
+     */
+    public void register(JsonSchemaValidatorEngine engine) {
+        this.engines.put(engine.getName(), engine);
+    }
+
+    /**
+     * Registers the engine and uses it for parameters, which do not select
+     * any engine by {@link JsonRequestBody#engine()}.
+     */
+    public void setDefaultEngine(JsonSchemaValidatorEngine engine) {
+        register(engine);
+        this.defaultEngine = engine;
+    }
+
+    public JsonSchemaValidatorEngine getDefaultEngine() {
+        return this.defaultEngine;
+    }
+
+    /**
+     * Returns the engine registered under the name.
+     * @param name name of the engine, or an empty string for the default engine
+     * @throws IllegalStateException when no such engine is registered
+     */
+    public JsonSchemaValidatorEngine getEngine(String name) {
+        if (name.isEmpty()) {
+            return this.defaultEngine;
+        }
+        JsonSchemaValidatorEngine engine = this.engines.get(name);
+        if (engine == null) {
+            throw new IllegalStateException("No JSON schema validator engine named '" + name + "' is registered. "
+                    + "Registered engines: " + this.engines.keySet());
+        }
+        return engine;
+    }
+
+    /**
+     * Returns all registered engines.
+     */
+    public Collection<JsonSchemaValidatorEngine> getEngines() {
+        return Collections.unmodifiableCollection(this.engines.values());
+    }
+
+    /**
+     * Returns the validator of the schema, compiling it when the schema
+     * has not been compiled by the engine yet.
+     * <p>
+     *     Concurrent requests of the same schema compile the validator only once,
+     *     while other requests wait for the validator. The validator is compiled outside
+     *     of any lock of the registry, so that compiling one schema does not block
+     *     requests that are validated against other schemas.
+     * </p>
+     * <p>
+     *     Once the registry listens to a {@link JsonSchemaCache}, only validators of cached schemas
+     *     are kept. A schema that has not been obtained from the cache, or has already been removed
+     *     from it, is compiled on <em>every</em> call. This is meant for the few requests that
+     *     race with an eviction or a reload; schemas loaded elsewhere should be validated by
+     *     a registry that is not registered as a listener.
+     * </p>
+     * @param engineName name of the engine, or an empty string for the default engine
+     * @param schema JSON schema of the parameter
+     * @throws IllegalStateException when no such engine is registered
+     */
+    public JsonSchemaValidatorEngine.Validator getValidator(String engineName, Schema schema) {
+        JsonSchemaValidatorEngine engine = getEngine(engineName);
+        SchemaKey key = new SchemaKey(schema);
+        CompiledSchema compiledSchema = this.schemas.get(key);
+        if (compiledSchema == null) {
+            if (this.listening) {
+                // the schema is not cached, such as a schema used by a request during its eviction:
+                // nothing would discard its validators, so the validator is compiled for this call only
+                return engine.compile(schema);
+            }
+            compiledSchema = this.schemas.computeIfAbsent(key, currentKey -> new CompiledSchema());
+        }
+        return compiledSchema.getValidator(engine, schema);
+    }
+
+    /**
+     * Keeps the validators of the schema until the schema is removed from the cache.
+     */
+    @Override
+    public void onCached(Resource jsonSchemaResource, Schema schema) {
+        this.listening = true;
+        this.schemas.compute(new SchemaKey(schema), (key, compiledSchema) -> {
+            CompiledSchema cachedSchema = compiledSchema != null ? compiledSchema : new CompiledSchema();
+            cachedSchema.referenceCount++;
+            return cachedSchema;
+        });
+    }
+
+    /**
+     * Discards the validators of the schema, unless the schema is still cached
+     * for another resource, such as a schema shared by the {@link JsonSchemaInterner}.
+     */
+    @Override
+    public void onRemoved(Resource jsonSchemaResource, Schema schema) {
+        this.schemas.computeIfPresent(new SchemaKey(schema), (key, compiledSchema) ->
+                --compiledSchema.referenceCount > 0 ? compiledSchema : null);
+    }
+
+    /**
+     * Validators of a schema compiled by each engine
+     */
+    private static class CompiledSchema {
+        private final ConcurrentMap<JsonSchemaValidatorEngine, CompletableFuture<JsonSchemaValidatorEngine.Validator>> validators
+                = new ConcurrentHashMap<>(4);
+
+        /**
+         * Number of cache entries with the schema, guarded by the map of compiled schemas
+         */
+        private int referenceCount;
+
+        JsonSchemaValidatorEngine.Validator getValidator(JsonSchemaValidatorEngine engine, Schema schema) {
+            CompletableFuture<JsonSchemaValidatorEngine.Validator> validator = this.validators.get(engine);
+            if (validator == null) {
+                CompletableFuture<JsonSchemaValidatorEngine.Validator> compilingValidator = new CompletableFuture<>();
+                validator = this.validators.putIfAbsent(engine, compilingValidator);
+                if (validator == null) {
+                    try {
+                        JsonSchemaValidatorEngine.Validator compiledValidator = engine.compile(schema);
+                        compilingValidator.complete(compiledValidator);
+                        return compiledValidator;
+                    } catch (RuntimeException | Error e) {
+                        this.validators.remove(engine, compilingValidator);
+                        compilingValidator.completeExceptionally(e);
+                        throw e;
+                    }
+                }
+            }
+            try {
+                return validator.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Identity of a schema. Schemas are compared by identity, since structurally equal schemas
+     * loaded from different resources should not keep each other's validators.
+     */
+    private static class SchemaKey {
+        private final Schema schema;
+
+        SchemaKey(Schema schema) {
+            this.schema = schema;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SchemaKey && ((SchemaKey) o).schema == this.schema;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this.schema);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import org.everit.json.schema.ValidationException;
+import org.springframework.core.MethodParameter;
+
+/**
+ * Disabled metrics that do not record anything. This is the default.
+ */
+public class NoOpJsonSchemaValidationMetrics implements JsonSchemaValidationMetrics {
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public void recordRequestBodyRead(MethodParameter parameter, long bodySize, long readTime) {
+        // no-op
+    }
+
+    @Override
+    public void recordSchemaLookup(MethodParameter parameter, long lookupTime, boolean cacheHit) {
+        // no-op
+    }
+
+    @Override
+    public void recordValidation(MethodParameter parameter, long validationTime, ValidationException validationException) {
+        // no-op
+    }
+
+    @Override
+    public void recordDroppedValidation(MethodParameter parameter) {
+        // no-op
+    }
+
+    @Override
+    public void recordValidationResultCacheLookup(MethodParameter parameter, boolean cacheHit) {
+        // no-op
+    }
+}
@@ -0,0 +1,316 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import org.everit.json.schema.ArraySchema;
+import org.everit.json.schema.EmptySchema;
+import org.everit.json.schema.ObjectSchema;
+import org.everit.json.schema.ReferenceSchema;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Validates a parsed JSON document against the compiled Everit {@link Schema},
+ * spreading the validation of large arrays and objects across the threads of a {@link ForkJoinPool}.
+ * <p>
+ *     Objects described by plain object schemas are decomposed into their properties.
+ *     Arrays described by a single item schema, which have at least the threshold
+ *     number of items, are split into ranges of items validated in parallel. Likewise,
+ *     properties of objects with at least the threshold number of properties are
+ *     validated in parallel. Any other value is validated by Everit as a whole.
+ * </p>
+ * <p>
+ *     Violations are merged in the order of array items and schema properties,
+ *     regardless of the order in which the parallel tasks finish, so the reported
+ *     violations are the same as of the sequential Everit validation.
+ * </p>
+ */
+public class ParallelJsonSchemaValidator {
+    /**
+     * Default minimum number of array items or object properties validated in parallel
+     */
+    public static final int DEFAULT_THRESHOLD = 1024;
+
+    private final ForkJoinPool forkJoinPool;
+
+    private final int threshold;
+
+    /**
+     * Creates a validator running on the common fork-join pool with the default threshold.
+     */
+    public ParallelJsonSchemaValidator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Creates a validator running on the fork-join pool.
+     * @param forkJoinPool pool validating large arrays and objects, sized to the number of cores to be used
+     * @param threshold minimum number of array items or object properties validated in parallel
+     */
+    public ParallelJsonSchemaValidator(ForkJoinPool forkJoinPool, int threshold) {
+        this.forkJoinPool = forkJoinPool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Validates the parsed JSON document.
+     * @param schema compiled JSON schema
+     * @param json parsed JSON document, such as a {@link JSONObject}
+     * @throws ValidationException when the document does not conform to the schema
+     */
+    public void validate(Schema schema, Object json) throws ValidationException {
+        List<ValidationException> failures = new ArrayList<>();
+        validateValue(schema, json, failures);
+        if (!failures.isEmpty()) {
+            ValidationException.throwFor(schema, failures);
+        }
+    }
+
+    private void validateValue(Schema schema, Object value, List<ValidationException> failures) {
+        while (schema instanceof ReferenceSchema) {
+            schema = ((ReferenceSchema) schema).getReferredSchema();
+        }
+        if (schema instanceof EmptySchema) {
+            return;
+        }
+        if (value instanceof JSONObject && schema instanceof ObjectSchema && StreamingJsonSchemaValidator.isStreamable(schema)) {
+            validateObject((ObjectSchema) schema, (JSONObject) value, failures);
+        } else if (value instanceof JSONArray && isParallelizable(schema, (JSONArray) value)) {
+            validateArray((ArraySchema) schema, (JSONArray) value, failures);
+        } else {
+            try {
+                schema.validate(value);
+            } catch (ValidationException e) {
+                failures.add(e);
+            }
+        }
+    }
+
+    /**
+     * Validates the object in the same order as Everit: properties, required properties,
+     * additional properties and size.
+     */
+    private void validateObject(ObjectSchema schema, JSONObject object, List<ValidationException> failures) {
+        List<String> propertyNames = new ArrayList<>();
+        List<Schema> propertySchemas = new ArrayList<>();
+        for (Map.Entry<String, Schema> propertySchema : schema.getPropertySchemas().entrySet()) {
+            if (object.has(propertySchema.getKey())) {
+                propertyNames.add(propertySchema.getKey());
+                propertySchemas.add(propertySchema.getValue());
+            }
+        }
+        List<ValidationException> additionalPropertyFailures = new ArrayList<>();
+        for (String propertyName : object.keySet()) {
+            if (schema.getPropertySchemas().containsKey(propertyName)) {
+                continue;
+            }
+            if (!schema.permitsAdditionalProperties()) {
+                additionalPropertyFailures.add(new ValidationException(schema,
+                        String.format("extraneous key [%s] is not permitted", propertyName), "additionalProperties"));
+            } else if (schema.getSchemaOfAdditionalProperties() != null) {
+                propertyNames.add(propertyName);
+                propertySchemas.add(schema.getSchemaOfAdditionalProperties());
+            }
+        }
+
+        ValidationException[] propertyFailures = new ValidationException[propertyNames.size()];
+        if (propertyNames.size() >= this.threshold) {
+            run(new PropertiesTask(object, propertyNames, propertySchemas, propertyFailures, 0, propertyNames.size()));
+        } else {
+            validateProperties(object, propertyNames, propertySchemas, propertyFailures, 0, propertyNames.size());
+        }
+        for (int i = 0; i < propertyFailures.length; i++) {
+            if (propertyFailures[i] != null && !schema.getPropertySchemas().containsKey(propertyNames.get(i))) {
+                additionalPropertyFailures.add(propertyFailures[i]);
+            } else if (propertyFailures[i] != null) {
+                failures.add(propertyFailures[i]);
+            }
+        }
+        for (String requiredProperty : schema.getRequiredProperties()) {
+            if (!object.has(requiredProperty)) {
+                failures.add(new ValidationException(schema,
+                        String.format("required key [%s] not found", requiredProperty), "required"));
+            }
+        }
+        failures.addAll(additionalPropertyFailures);
+        int propertyCount = object.length();
+        Integer minProperties = schema.getMinProperties();
+        if (minProperties != null && propertyCount < minProperties) {
+            failures.add(new ValidationException(schema,
+                    String.format("minimum size: [%d], found: [%d]", minProperties, propertyCount), "minProperties"));
+        }
+        Integer maxProperties = schema.getMaxProperties();
+        if (maxProperties != null && propertyCount > maxProperties) {
+            failures.add(new ValidationException(schema,
+                    String.format("maximum size: [%d], found: [%d]", maxProperties, propertyCount), "maxProperties"));
+        }
+    }
+
+    private void validateProperties(JSONObject object, List<String> propertyNames, List<Schema> propertySchemas,
+                                    ValidationException[] propertyFailures, int from, int to) {
+        for (int i = from; i < to; i++) {
+            String propertyName = propertyNames.get(i);
+            propertyFailures[i] = validateNestedValue(propertySchemas.get(i), object.get(propertyName), propertyName);
+        }
+    }
+
+    /**
+     * Validates the array in the same order as Everit: item count and items.
+     */
+    private void validateArray(ArraySchema schema, JSONArray array, List<ValidationException> failures) {
+        int itemCount = array.length();
+        Integer minItems = schema.getMinItems();
+        if (minItems != null && itemCount < minItems) {
+            failures.add(new ValidationException(schema,
+                    String.format("expected minimum item count: %d, found: %d", minItems, itemCount), "minItems"));
+        }
+        Integer maxItems = schema.getMaxItems();
+        if (maxItems != null && itemCount > maxItems) {
+            failures.add(new ValidationException(schema,
+                    String.format("expected maximum item count: %d, found: %d", maxItems, itemCount), "maxItems"));
+        }
+        ValidationException[] itemFailures = new ValidationException[itemCount];
+        run(new ItemsTask(schema.getAllItemSchema(), array, itemFailures, 0, itemCount));
+        for (ValidationException itemFailure : itemFailures) {
+            if (itemFailure != null) {
+                failures.add(itemFailure);
+            }
+        }
+    }
+
+    private void validateItems(Schema itemSchema, JSONArray array, ValidationException[] itemFailures, int from, int to) {
+        for (int i = from; i < to; i++) {
+            itemFailures[i] = validateNestedValue(itemSchema, array.get(i), String.valueOf(i));
+        }
+    }
+
+    /**
+     * Validates the nested value.
+     * @return the violation of the nested value prepended by the property name or item index, or {@code null}
+     */
+    private ValidationException validateNestedValue(Schema schema, Object value, String pointerSegment) {
+        List<ValidationException> failures = new ArrayList<>();
+        validateValue(schema, value, failures);
+        if (failures.isEmpty()) {
+            return null;
+        }
+        return merge(schema, failures).prepend(pointerSegment);
+    }
+
+    /**
+     * Merges multiple violations into a single one, as done by Everit.
+     */
+    private ValidationException merge(Schema schema, List<ValidationException> failures) {
+        if (failures.size() == 1) {
+            return failures.get(0);
+        }
+        try {
+            ValidationException.throwFor(schema, failures);
+            throw new IllegalStateException("Violations must be thrown");
+        } catch (ValidationException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Indicates whether the items of the array can be validated in parallel, that is, whether
+     * the array is described by an array schema with a single item schema.
+     */
+    private boolean isParallelizable(Schema schema, JSONArray array) {
+        return array.length() >= this.threshold
+                && schema instanceof ArraySchema
+                && StreamingJsonSchemaValidator.isStreamable(schema)
+                && ((ArraySchema) schema).getAllItemSchema() != null;
+    }
+
+    /**
+     * Runs the task in the fork-join pool, or directly when already running in the pool.
+     */
+    private void run(ForkJoinTask<?> task) {
+        if (ForkJoinTask.getPool() == this.forkJoinPool) {
+            task.invoke();
+        } else {
+            this.forkJoinPool.invoke(task);
+        }
+    }
+
+    /**
+     * Number of items or properties validated sequentially by a single task
+     */
+    private int getBatchSize(int totalSize) {
+        return Math.max(64, totalSize / (this.forkJoinPool.getParallelism() * 4));
+    }
+
+    private class ItemsTask extends RecursiveAction {
+        private final Schema itemSchema;
+
+        private final JSONArray array;
+
+        private final ValidationException[] itemFailures;
+
+        private final int from;
+
+        private final int to;
+
+        ItemsTask(Schema itemSchema, JSONArray array, ValidationException[] itemFailures, int from, int to) {
+            this.itemSchema = itemSchema;
+            this.array = array;
+            this.itemFailures = itemFailures;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= getBatchSize(this.itemFailures.length)) {
+                validateItems(this.itemSchema, this.array, this.itemFailures, this.from, this.to);
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new ItemsTask(this.itemSchema, this.array, this.itemFailures, this.from, middle),
+                    new ItemsTask(this.itemSchema, this.array, this.itemFailures, middle, this.to));
+        }
+    }
+
+    private class PropertiesTask extends RecursiveAction {
+        private final JSONObject object;
+
+        private final List<String> propertyNames;
+
+        private final List<Schema> propertySchemas;
+
+        private final ValidationException[] propertyFailures;
+
+        private final int from;
+
+        private final int to;
+
+        PropertiesTask(JSONObject object, List<String> propertyNames, List<Schema> propertySchemas,
+                       ValidationException[] propertyFailures, int from, int to) {
+            this.object = object;
+            this.propertyNames = propertyNames;
+            this.propertySchemas = propertySchemas;
+            this.propertyFailures = propertyFailures;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= getBatchSize(this.propertyFailures.length)) {
+                validateProperties(this.object, this.propertyNames, this.propertySchemas, this.propertyFailures, this.from, this.to);
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new PropertiesTask(this.object, this.propertyNames, this.propertySchemas, this.propertyFailures, this.from, middle),
+                    new PropertiesTask(this.object, this.propertyNames, this.propertySchemas, this.propertyFailures, middle, this.to));
+        }
+    }
+}
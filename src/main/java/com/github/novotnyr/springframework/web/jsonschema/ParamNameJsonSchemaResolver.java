@@ -6,20 +6,53 @@ import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.web.context.request.NativeWebRequest;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 /**
  * JSON schema resolver that resolves schema {@link Resource} by evaluating controller method name
+ * <p>
+ *     The resource depends on the method parameter only, therefore it is resolved
+ *     once per parameter and then served from a concurrent map.
+ * </p>
  */
 public class ParamNameJsonSchemaResolver implements JsonSchemaResolver {
+    private final ConcurrentMap<MethodParameter, Resource> jsonSchemaResources = new ConcurrentHashMap<>(64);
+
     public Resource resolveJsonSchemaResource(MethodParameter methodParameter, NativeWebRequest webRequest) {
+        Resource jsonSchemaResource = this.jsonSchemaResources.get(methodParameter);
+        if (jsonSchemaResource != null) {
+            return jsonSchemaResource;
+        }
+        return this.jsonSchemaResources.computeIfAbsent(methodParameter, this::discoverJsonSchemaResource);
+    }
+
+    private Resource discoverJsonSchemaResource(MethodParameter methodParameter) {
+        return createJsonSchemaResource(getSchemaFileName(methodParameter));
+    }
+
+    /**
+     * Returns the relative path to the schema file of the parameter, either the explicit
+     * schema path from the annotation, or the conventional <code>class#method.json</code>.
+     */
+    protected String getSchemaFileName(MethodParameter methodParameter) {
         JsonRequestBody annotation = methodParameter.getParameterAnnotation(JsonRequestBody.class);
         String schemaPath = annotation.schemaPath();
         if (! schemaPath.isEmpty()) {
-            return new ClassPathResource("/" + schemaPath + ".json");
+            return schemaPath + ".json";
         } else {
             String declaringClassName = methodParameter.getDeclaringClass().getSimpleName().toLowerCase();
             String methodName = methodParameter.getMethod().getName();
-            return new ClassPathResource("/" + declaringClassName + "#" + methodName + ".json");
+            return declaringClassName + "#" + methodName + ".json";
         }
     }
-}
 
+    /**
+     * Creates the resource with JSON schema.
+     * @param schemaFileName relative path to the schema file, such as <code>boxcontroller#register.json</code>
+     * @return the classpath resource, by default
+     */
+    protected Resource createJsonSchemaResource(String schemaFileName) {
+        return new ClassPathResource("/" + schemaFileName);
+    }
+}
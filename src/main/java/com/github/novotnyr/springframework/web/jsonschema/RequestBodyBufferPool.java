@@ -0,0 +1,81 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Pool of reusable fixed-size byte buffers that capture request bodies.
+ * <p>
+ *     Request bodies are captured into a sequence of buffers borrowed
+ *     from this pool. Once the request body is no longer needed, the buffers
+ *     are returned to the pool and reused by subsequent requests.
+ * </p>
+ * <p>
+ *     The number of pooled buffers is bounded. When the pool is empty, a new buffer
+ *     is allocated, and when the pool is full, the returned buffer is left to the
+ *     garbage collector.
+ * </p>
+ */
+public class RequestBodyBufferPool {
+    public static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+    public static final int DEFAULT_MAX_POOLED_BUFFERS = 256;
+
+    private final int bufferSize;
+
+    private final BlockingQueue<byte[]> buffers;
+
+    /**
+     * Creates a pool of 8 KiB buffers retaining at most 256 buffers.
+     */
+    public RequestBodyBufferPool() {
+        this(DEFAULT_BUFFER_SIZE, DEFAULT_MAX_POOLED_BUFFERS);
+    }
+
+    /**
+     * Creates a pool of buffers
+     * @param bufferSize size of a single buffer in bytes
+     * @param maxPooledBuffers maximum number of buffers retained in the pool
+     */
+    public RequestBodyBufferPool(int bufferSize, int maxPooledBuffers) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        if (maxPooledBuffers <= 0) {
+            throw new IllegalArgumentException("Maximum number of pooled buffers must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.buffers = new ArrayBlockingQueue<>(maxPooledBuffers);
+    }
+
+    /**
+     * Borrows a buffer from the pool, allocating a new one when the pool is empty.
+     */
+    public byte[] acquire() {
+        byte[] buffer = this.buffers.poll();
+        if (buffer == null) {
+            buffer = new byte[this.bufferSize];
+        }
+        return buffer;
+    }
+
+    /**
+     * Returns the buffer to the pool.
+     */
+    public void release(byte[] buffer) {
+        if (buffer.length == this.bufferSize) {
+            this.buffers.offer(buffer);
+        }
+    }
+
+    public int getBufferSize() {
+        return this.bufferSize;
+    }
+
+    /**
+     * Returns the number of buffers that are currently available in the pool.
+     */
+    public int getPooledBufferCount() {
+        return this.buffers.size();
+    }
+}
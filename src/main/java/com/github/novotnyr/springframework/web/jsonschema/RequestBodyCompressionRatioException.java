@@ -0,0 +1,25 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+/**
+ * Indicates a compressed request body that inflates beyond the maximum compression ratio,
+ * such as a decompression bomb. Decompression is stopped as soon as the ratio is exceeded.
+ */
+public class RequestBodyCompressionRatioException extends RequestBodyTooLargeException {
+    private final double maxCompressionRatio;
+
+    /**
+     * @param maxCompressionRatio maximum ratio of decompressed and compressed size
+     * @param maxSize maximum decompressed size allowed by the ratio for the compressed bytes read so far
+     */
+    public RequestBodyCompressionRatioException(double maxCompressionRatio, long maxSize) {
+        super("Request body exceeds the maximum compression ratio of " + maxCompressionRatio, maxSize);
+        this.maxCompressionRatio = maxCompressionRatio;
+    }
+
+    /**
+     * Returns the maximum allowed ratio of decompressed and compressed size of the request body.
+     */
+    public double getMaxCompressionRatio() {
+        return this.maxCompressionRatio;
+    }
+}
@@ -0,0 +1,248 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Decompresses request bodies encoded by the <code>gzip</code> or <code>deflate</code> content coding,
+ * as declared by the <code>Content-Encoding</code> request header.
+ * <p>
+ *     The request body is inflated while it is being read, so that the decompressed bytes are
+ *     captured directly into pooled buffers, without materializing the compressed body.
+ *     The maximum size of the request body applies to the decompressed bytes.
+ * </p>
+ * <p>
+ *     To guard against decompression bombs, the decompression is stopped as soon as the ratio of decompressed
+ *     and compressed bytes exceeds the {@link #setMaxCompressionRatio(double) maximum compression ratio}.
+ *     The ratio is checked only after the first 64 KiB of decompressed bytes, since small, highly repetitive
+ *     documents may be legitimately compressed beyond the ratio.
+ * </p>
+ */
+public class RequestBodyDecompressor {
+    public static final double DEFAULT_MAX_COMPRESSION_RATIO = 100;
+
+    /**
+     * Number of decompressed bytes that are never rejected by the compression ratio
+     */
+    private static final long COMPRESSION_RATIO_THRESHOLD = 64 * 1024;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final String IDENTITY = "identity";
+
+    private double maxCompressionRatio = DEFAULT_MAX_COMPRESSION_RATIO;
+
+    /**
+     * Indicates whether the body of request with the content encoding needs to be decompressed.
+     * @param contentEncoding value of the <code>Content-Encoding</code> header, or {@code null}
+     * @return {@code true} if the content encoding declares any coding other than <code>identity</code>
+     */
+    public boolean isCompressed(String contentEncoding) {
+        return !parseContentCodings(contentEncoding).isEmpty();
+    }
+
+    /**
+     * Wraps the request body stream into a stream of decompressed bytes. Multiple codings are
+     * decompressed in the reverse order of application.
+     * <p>
+     *     Closing the returned stream releases the inflaters, but does not close the request body stream.
+     * </p>
+     * @param inputStream stream with compressed request body
+     * @param contentEncoding value of the <code>Content-Encoding</code> header, or {@code null}
+     * @return stream with decompressed request body, or the same stream, if the body is not compressed
+     * @throws UnsupportedContentEncodingException when a coding is neither <code>gzip</code> nor <code>deflate</code>
+     * @throws IOException when the compressed stream cannot be read, such as when the <code>gzip</code> header is malformed
+     */
+    public InputStream decompress(InputStream inputStream, String contentEncoding) throws IOException {
+        List<String> contentCodings = parseContentCodings(contentEncoding);
+        for (String contentCoding : contentCodings) {
+            if (!isSupported(contentCoding)) {
+                throw new UnsupportedContentEncodingException(contentCoding);
+            }
+        }
+        if (contentCodings.isEmpty()) {
+            return inputStream;
+        }
+        CompressedInputStream compressedInputStream = new CompressedInputStream(inputStream);
+        InputStream decompressedInputStream = compressedInputStream;
+        try {
+            for (int i = contentCodings.size() - 1; i >= 0; i--) {
+                decompressedInputStream = inflate(decompressedInputStream, contentCodings.get(i));
+            }
+        } catch (IOException e) {
+            decompressedInputStream.close();
+            throw e;
+        }
+        if (this.maxCompressionRatio < 0) {
+            return decompressedInputStream;
+        }
+        return new CompressionRatioLimitingInputStream(decompressedInputStream, compressedInputStream, this.maxCompressionRatio);
+    }
+
+    private List<String> parseContentCodings(String contentEncoding) {
+        if (contentEncoding == null) {
+            return Collections.emptyList();
+        }
+        List<String> contentCodings = new ArrayList<>(1);
+        for (String contentCoding : contentEncoding.split(",")) {
+            contentCoding = contentCoding.trim().toLowerCase(Locale.ROOT);
+            if (!contentCoding.isEmpty() && !IDENTITY.equals(contentCoding)) {
+                contentCodings.add(contentCoding);
+            }
+        }
+        return contentCodings;
+    }
+
+    private boolean isSupported(String contentCoding) {
+        return "gzip".equals(contentCoding) || "x-gzip".equals(contentCoding) || "deflate".equals(contentCoding);
+    }
+
+    /**
+     * Inflates the <code>gzip</code> or <code>deflate</code> coding. The <code>deflate</code> coding
+     * is the <code>zlib</code> format, as specified by RFC 7230.
+     */
+    private InputStream inflate(InputStream inputStream, String contentCoding) throws IOException {
+        if ("deflate".equals(contentCoding)) {
+            return new InflaterInputStream(inputStream, new Inflater(), BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    super.close();
+                    this.inf.end();
+                }
+            };
+        }
+        return new GZIPInputStream(inputStream, BUFFER_SIZE);
+    }
+
+    /**
+     * Sets the maximum ratio of decompressed and compressed size of request bodies.
+     * Negative value disables the check. By default, the ratio is {@value #DEFAULT_MAX_COMPRESSION_RATIO}.
+     * <p>
+     *     Typical JSON documents compress by a ratio of 5 to 20, while decompression bombs
+     *     reach ratios of 1000 and more.
+     * </p>
+     */
+    public void setMaxCompressionRatio(double maxCompressionRatio) {
+        this.maxCompressionRatio = maxCompressionRatio;
+    }
+
+    public double getMaxCompressionRatio() {
+        return this.maxCompressionRatio;
+    }
+
+    /**
+     * Counts compressed bytes of the request body. The request body stream is not closed.
+     */
+    private static class CompressedInputStream extends FilterInputStream {
+        private long count;
+
+        CompressedInputStream(InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int result = super.read();
+            if (result != -1) {
+                this.count++;
+            }
+            return result;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int count = super.read(bytes, offset, length);
+            if (count > 0) {
+                this.count += count;
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long count = super.skip(n);
+            this.count += count;
+            return count;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+            // the request body stream is closed by the servlet container
+        }
+    }
+
+    /**
+     * Stops the decompression once the decompressed bytes exceed the maximum compression ratio.
+     * The compressed bytes include bytes read ahead by the inflater, therefore the ratio is never overestimated.
+     */
+    private static class CompressionRatioLimitingInputStream extends FilterInputStream {
+        private final CompressedInputStream compressedInputStream;
+
+        private final double maxCompressionRatio;
+
+        private long count;
+
+        CompressionRatioLimitingInputStream(InputStream inputStream, CompressedInputStream compressedInputStream, double maxCompressionRatio) {
+            super(inputStream);
+            this.compressedInputStream = compressedInputStream;
+            this.maxCompressionRatio = maxCompressionRatio;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int result = super.read();
+            if (result != -1) {
+                checkCompressionRatio(1);
+            }
+            return result;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int count = super.read(bytes, offset, length);
+            if (count > 0) {
+                checkCompressionRatio(count);
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long count = super.skip(n);
+            checkCompressionRatio(count);
+            return count;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        /**
+         * @throws RequestBodyCompressionRatioException when the ratio is exceeded
+         */
+        private void checkCompressionRatio(long count) {
+            this.count += count;
+            if (this.count <= COMPRESSION_RATIO_THRESHOLD) {
+                return;
+            }
+            long maxSize = (long) (this.maxCompressionRatio * this.compressedInputStream.count);
+            if (this.count > maxSize) {
+                throw new RequestBodyCompressionRatioException(this.maxCompressionRatio, maxSize);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Indicates a request body that exceeds the maximum allowed size.
+ * Such body is rejected before it is parsed or validated.
+ * <p>
+ *     Unlike {@link JsonSchemaException}s, this exception does not indicate a problem of the schema
+ *     or of the document. Unless handled otherwise, it is mapped to the <code>413 Payload Too Large</code> status.
+ * </p>
+ */
+@ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+public class RequestBodyTooLargeException extends RuntimeException {
+    private final long maxSize;
+
+    public RequestBodyTooLargeException(long maxSize) {
+        this("Request body exceeds the maximum size of " + maxSize + " bytes", maxSize);
+    }
+
+    protected RequestBodyTooLargeException(String message, long maxSize) {
+        super(message);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the maximum allowed size of the request body in bytes.
+     */
+    public long getMaxSize() {
+        return this.maxSize;
+    }
+}
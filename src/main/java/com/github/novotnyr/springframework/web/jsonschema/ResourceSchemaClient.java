@@ -0,0 +1,127 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import org.everit.json.schema.SchemaException;
+import org.everit.json.schema.loader.SchemaClient;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.AbstractMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Resolves JSON schema documents referenced via <code>$ref</code> from local
+ * {@link Resource}s, without accessing the network.
+ * <p>
+ *     Reference URIs are resolved as follows:
+ * </p>
+ * <ul>
+ *     <li>URIs starting with a mapped prefix are resolved to the mapped location,
+ *     such as <code>https://schemas.example.com/</code> to <code>classpath:/schemas/</code>.</li>
+ *     <li>Relative URIs, such as <code>definitions.json</code>, are resolved against the base location,
+ *     which is the classpath root by default.</li>
+ *     <li><code>classpath:</code>, <code>file:</code> and <code>jar:</code> URIs are loaded by the {@link ResourceLoader}.</li>
+ *     <li>Any other URI, such as an unmapped <code>http:</code> URI, is rejected.</li>
+ * </ul>
+ * <p>
+ *     Each referenced document is read only once and then served from memory
+ *     for all schemas that reference it.
+ * </p>
+ * @see JsonSchemaLoader#setSchemaClient(SchemaClient)
+ */
+public class ResourceSchemaClient implements SchemaClient {
+    private final ResourceLoader resourceLoader;
+
+    private final String baseLocation;
+
+    private final List<Map.Entry<String, String>> uriMappings = new CopyOnWriteArrayList<>();
+
+    private final ConcurrentMap<String, byte[]> documents = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a client resolving relative references against the classpath root.
+     */
+    public ResourceSchemaClient() {
+        this(new DefaultResourceLoader(), "classpath:/");
+    }
+
+    /**
+     * Creates a client loading referenced documents by the resource loader.
+     * @param resourceLoader loader of the referenced documents
+     * @param baseLocation location that relative references are resolved against, such as <code>file:/etc/schemas/</code>
+     */
+    public ResourceSchemaClient(ResourceLoader resourceLoader, String baseLocation) {
+        this.resourceLoader = resourceLoader;
+        this.baseLocation = baseLocation.endsWith("/") ? baseLocation : baseLocation + "/";
+    }
+
+    /**
+     * Maps the URI prefix to a local location prefix.
+     * @param uriPrefix prefix of reference URIs, such as <code>https://schemas.example.com/</code>
+     * @param locationPrefix prefix of resource locations, such as <code>classpath:/schemas/</code>
+     */
+    public void addUriMapping(String uriPrefix, String locationPrefix) {
+        this.uriMappings.add(new AbstractMap.SimpleImmutableEntry<>(uriPrefix, locationPrefix));
+    }
+
+    /**
+     * Returns the referenced document.
+     * @throws SchemaException when the URI cannot be mapped to a local resource
+     * @throws UnavailableJsonSchemaException when the local resource cannot be read
+     */
+    @Override
+    public InputStream get(String url) {
+        String location = getLocation(url);
+        byte[] document = this.documents.get(location);
+        if (document == null) {
+            document = this.documents.computeIfAbsent(location, this::read);
+        }
+        return new ByteArrayInputStream(document);
+    }
+
+    private String getLocation(String url) {
+        for (Map.Entry<String, String> uriMapping : this.uriMappings) {
+            if (url.startsWith(uriMapping.getKey())) {
+                return uriMapping.getValue() + url.substring(uriMapping.getKey().length());
+            }
+        }
+        if (url.startsWith(ResourceLoader.CLASSPATH_URL_PREFIX) || url.startsWith("file:") || url.startsWith("jar:")) {
+            return url;
+        }
+        if (url.indexOf(':') < 0) {
+            return this.baseLocation + (url.startsWith("/") ? url.substring(1) : url);
+        }
+        throw new SchemaException("Referenced JSON schema " + url + " is not mapped to a local location");
+    }
+
+    private byte[] read(String location) {
+        Resource resource = this.resourceLoader.getResource(location);
+        try (InputStream inputStream = resource.getInputStream()) {
+            return StreamUtils.copyToByteArray(inputStream);
+        } catch (IOException e) {
+            throw new UnavailableJsonSchemaException(resource, e);
+        }
+    }
+
+    /**
+     * Discards all documents read so far, forcing them to be read again.
+     */
+    public void invalidateAll() {
+        this.documents.clear();
+    }
+
+    /**
+     * Returns the number of documents read so far.
+     */
+    public int size() {
+        return this.documents.size();
+    }
+}
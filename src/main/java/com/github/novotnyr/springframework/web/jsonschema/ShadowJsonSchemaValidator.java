@@ -0,0 +1,216 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.novotnyr.springframework.web.jsonschema.annotation.JsonRequestBody;
+import com.github.novotnyr.springframework.web.jsonschema.annotation.PayloadFormat;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.MethodParameter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Validates request bodies against JSON schemas in the background, off the request thread.
+ * <p>
+ *     Violations never fail the request. Instead, they are logged and recorded
+ *     by the {@link JsonSchemaValidationMetrics}, so that the conformance of clients
+ *     to a new schema can be monitored before the schema is enforced.
+ * </p>
+ * <p>
+ *     The number of pending validations is bounded. When the executor cannot keep up
+ *     with incoming requests, further request bodies are dropped without validation
+ *     instead of being queued, and are counted as dropped.
+ * </p>
+ * <p>
+ *     A validator created with its own background thread shuts the thread down once
+ *     it is {@link #destroy() destroyed}, such as on the application context close.
+ *     An executor passed to the validator is owned and shut down by the caller.
+ * </p>
+ * @see JsonRequestBody#shadow()
+ */
+public class ShadowJsonSchemaValidator implements DisposableBean {
+    /**
+     * Default maximum number of request bodies waiting for validation or being validated
+     */
+    public static final int DEFAULT_MAX_PENDING_VALIDATIONS = 64;
+
+    /**
+     * Default maximum number of logged violations of a single request body
+     */
+    public static final int DEFAULT_MAX_VIOLATIONS = 100;
+
+    private static final Log logger = LogFactory.getLog(ShadowJsonSchemaValidator.class);
+
+    private final Executor executor;
+
+    /**
+     * Executor created by this validator, or {@code null} if the executor is owned by the caller
+     */
+    private final ExecutorService ownedExecutor;
+
+    private final Semaphore pendingValidations;
+
+    private final AtomicLong droppedValidationCount = new AtomicLong();
+
+    private final StreamingJsonSchemaValidator streamingJsonSchemaValidator = new StreamingJsonSchemaValidator();
+
+    private ObjectMapper objectMapper;
+
+    private int maxViolations = DEFAULT_MAX_VIOLATIONS;
+
+    /**
+     * Creates a validator running on a single background daemon thread,
+     * with the default maximum number of pending validations and a default object mapper.
+     */
+    public ShadowJsonSchemaValidator() {
+        this(new ObjectMapper());
+    }
+
+    /**
+     * Creates a validator running on a single background daemon thread,
+     * with the default maximum number of pending validations.
+     * @param objectMapper object mapper parsing request bodies, such as the object mapper of the application
+     */
+    public ShadowJsonSchemaValidator(ObjectMapper objectMapper) {
+        this(createExecutor(), DEFAULT_MAX_PENDING_VALIDATIONS, objectMapper, true);
+    }
+
+    /**
+     * Creates a validator running on the executor, with a default object mapper.
+     * @param executor executor of validations, which is not shut down by this validator
+     * @param maxPendingValidations maximum number of request bodies waiting for validation or being validated.
+     *                              Further request bodies are dropped.
+     */
+    public ShadowJsonSchemaValidator(Executor executor, int maxPendingValidations) {
+        this(executor, maxPendingValidations, new ObjectMapper(), false);
+    }
+
+    private ShadowJsonSchemaValidator(Executor executor, int maxPendingValidations, ObjectMapper objectMapper, boolean ownedExecutor) {
+        this.executor = executor;
+        this.ownedExecutor = ownedExecutor ? (ExecutorService) executor : null;
+        this.pendingValidations = new Semaphore(maxPendingValidations);
+        this.objectMapper = objectMapper;
+    }
+
+    private static ExecutorService createExecutor() {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "json-schema-shadow-validator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Submits the request body for validation in the background. The body is copied,
+     * therefore the captured request body can be closed once this method returns.
+     * @param format format of the request body
+     * @param metrics metrics recording the validation and dropped request bodies
+     * @return {@code true} if the body has been submitted, {@code false} if it has been
+     * dropped, since the maximum number of pending validations has been reached
+     */
+    public boolean submit(MethodParameter parameter, Schema schema, CapturedRequestBody requestBody, PayloadFormat format,
+                          JsonSchemaValidationMetrics metrics) {
+        if (!this.pendingValidations.tryAcquire()) {
+            drop(parameter, metrics);
+            return false;
+        }
+        try {
+            byte[] body = requestBody.toByteArray();
+            this.executor.execute(() -> {
+                try {
+                    validate(parameter, schema, body, format, metrics);
+                } finally {
+                    this.pendingValidations.release();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            this.pendingValidations.release();
+            drop(parameter, metrics);
+            return false;
+        }
+    }
+
+    private void drop(MethodParameter parameter, JsonSchemaValidationMetrics metrics) {
+        this.droppedValidationCount.incrementAndGet();
+        if (metrics.isEnabled()) {
+            metrics.recordDroppedValidation(parameter);
+        }
+    }
+
+    private void validate(MethodParameter parameter, Schema schema, byte[] body, PayloadFormat format, JsonSchemaValidationMetrics metrics) {
+        long start = metrics.isEnabled() ? System.nanoTime() : 0;
+        ValidationException validationException = null;
+        try {
+            if (format == PayloadFormat.DOCUMENT) {
+                try (JsonParser parser = this.objectMapper.getFactory().createParser(body)) {
+                    this.streamingJsonSchemaValidator.validate(schema, parser, this.maxViolations);
+                }
+            } else {
+                new JsonBatchReader(this.objectMapper, this.streamingJsonSchemaValidator)
+                        .validate(schema, new ByteArrayInputStream(body), format, this.maxViolations);
+            }
+        } catch (ValidationException e) {
+            validationException = e;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Unable to validate request body of " + getHandlerName(parameter) + " in the background", e);
+            return;
+        }
+        if (metrics.isEnabled()) {
+            metrics.recordValidation(parameter, System.nanoTime() - start, validationException);
+        }
+        if (validationException != null && logger.isWarnEnabled()) {
+            logger.warn("Request body of " + getHandlerName(parameter) + " does not conform to JSON schema: "
+                    + String.join("; ", validationException.getAllMessages()));
+        }
+    }
+
+    private String getHandlerName(MethodParameter parameter) {
+        return parameter.getDeclaringClass().getSimpleName() + "#" + parameter.getExecutable().getName();
+    }
+
+    /**
+     * Shuts down the background thread created by this validator. Pending validations are completed,
+     * while request bodies submitted afterwards are dropped.
+     */
+    @Override
+    public void destroy() {
+        if (this.ownedExecutor != null) {
+            this.ownedExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Returns the number of request bodies dropped without validation.
+     */
+    public long getDroppedValidationCount() {
+        return this.droppedValidationCount.get();
+    }
+
+    /**
+     * Sets the Jackson object mapper that parses request bodies.
+     */
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Sets the maximum number of logged and recorded violations of a single request body.
+     * The validation stops once the maximum is reached. Non-positive value reports all violations.
+     * Defaults to {@value #DEFAULT_MAX_VIOLATIONS}.
+     */
+    public void setMaxViolations(int maxViolations) {
+        this.maxViolations = maxViolations;
+    }
+}
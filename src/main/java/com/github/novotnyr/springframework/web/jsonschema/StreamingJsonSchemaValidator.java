@@ -0,0 +1,335 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.everit.json.schema.ArraySchema;
+import org.everit.json.schema.EmptySchema;
+import org.everit.json.schema.ObjectSchema;
+import org.everit.json.schema.ReferenceSchema;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.json.JSONObject;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Validates a JSON document against the compiled Everit {@link Schema}
+ * while reading the Jackson {@link JsonParser} token stream.
+ * <p>
+ *     Objects and arrays that are described by plain object schemas
+ *     ({@code properties}, {@code required}, {@code additionalProperties},
+ *     {@code minProperties}, {@code maxProperties}) or plain array schemas
+ *     ({@code items}, {@code additionalItems}, {@code minItems}, {@code maxItems})
+ *     are validated token by token, without materializing them. The memory
+ *     is therefore proportional to the nesting depth rather than
+ *     to the document size.
+ * </p>
+ * <p>
+ *     Scalar values are validated directly by the corresponding Everit schema.
+ *     Any other value, such as an object with pattern properties or an array
+ *     described by a combined schema, is read into a tree and validated by Everit
+ *     as a whole.
+ * </p>
+ * <p>
+ *     Violations are reported in the same way as by the Everit validator: a single
+ *     violation is thrown as is, multiple violations are wrapped into a {@link ValidationException}
+ *     with causing exceptions.
+ * </p>
+ * <p>
+ *     The number of reported violations can be limited. Once the limit is reached,
+ *     the validation stops without reading the rest of the document, which bounds
+ *     the validation cost of large invalid documents.
+ * </p>
+ */
+public class StreamingJsonSchemaValidator {
+    /**
+     * Draft 6 {@code propertyNames} keyword, unavailable in older Everit versions
+     */
+    private static final Method PROPERTY_NAME_SCHEMA_GETTER = ReflectionUtils.findMethod(ObjectSchema.class, "getPropertyNameSchema");
+
+    /**
+     * Draft 6 {@code contains} keyword, unavailable in older Everit versions
+     */
+    private static final Method CONTAINED_ITEM_SCHEMA_GETTER = ReflectionUtils.findMethod(ArraySchema.class, "getContainedItemSchema");
+
+    private final JsonNodeConverter jsonNodeConverter = new JsonNodeConverter();
+
+    /**
+     * Validates the JSON document read from the parser.
+     * <p>
+     *     The parser must be created by a factory with an object codec,
+     *     since values that cannot be streamed are read into a tree.
+     * </p>
+     * @param schema compiled JSON schema
+     * @param parser parser positioned before the first token of the document
+     * @throws ValidationException when the document does not conform to the schema
+     * @throws IOException when the document cannot be read or parsed
+     */
+    public void validate(Schema schema, JsonParser parser) throws ValidationException, IOException {
+        validate(schema, parser, -1);
+    }
+
+    /**
+     * Validates the JSON document read from the parser, stopping at the maximum number of violations.
+     * @param schema compiled JSON schema
+     * @param parser parser positioned before the first token of the document
+     * @param maxViolations maximum number of reported violations, <code>1</code> to stop
+     *                      at the first violation, non-positive for unlimited number of violations
+     * @throws ValidationException when the document does not conform to the schema
+     * @throws IOException when the document cannot be read or parsed
+     */
+    public void validate(Schema schema, JsonParser parser, int maxViolations) throws ValidationException, IOException {
+        if (parser.nextToken() == null) {
+            throw new ValidationException(schema, "no JSON document found", "type");
+        }
+        validateCurrentValue(schema, parser, maxViolations);
+    }
+
+    /**
+     * Validates the JSON value starting at the current token of the parser, such as
+     * an element of a JSON array. Once validated, the parser is positioned at the last token
+     * of the value, unless the validation stopped at the maximum number of violations.
+     * @param schema compiled JSON schema
+     * @param parser parser positioned at the first token of the value
+     * @param maxViolations maximum number of reported violations, non-positive for unlimited number of violations
+     * @throws ValidationException when the value does not conform to the schema
+     * @throws IOException when the value cannot be read or parsed
+     */
+    public void validateCurrentValue(Schema schema, JsonParser parser, int maxViolations) throws ValidationException, IOException {
+        Failures failures = new Failures(maxViolations);
+        validateValue(schema, parser, new ArrayDeque<>(), failures);
+        if (!failures.isEmpty()) {
+            ValidationException.throwFor(schema, failures);
+        }
+    }
+
+    private void validateValue(Schema schema, JsonParser parser, Deque<String> path, Failures failures) throws IOException {
+        while (schema instanceof ReferenceSchema) {
+            schema = ((ReferenceSchema) schema).getReferredSchema();
+        }
+        JsonToken token = parser.currentToken();
+        if (schema instanceof EmptySchema) {
+            parser.skipChildren();
+        } else if (token == JsonToken.START_OBJECT && schema instanceof ObjectSchema && isStreamable(schema)) {
+            validateObject((ObjectSchema) schema, parser, path, failures);
+        } else if (token == JsonToken.START_ARRAY && schema instanceof ArraySchema && isStreamable(schema)) {
+            validateArray((ArraySchema) schema, parser, path, failures);
+        } else {
+            validateMaterializedValue(schema, readValue(parser), path, failures);
+        }
+    }
+
+    private void validateObject(ObjectSchema schema, JsonParser parser, Deque<String> path, Failures failures) throws IOException {
+        List<String> requiredProperties = schema.getRequiredProperties();
+        Set<String> presentRequiredProperties = requiredProperties.isEmpty() ? null : new HashSet<>();
+        Map<String, Schema> propertySchemas = schema.getPropertySchemas();
+        int propertyCount = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            if (failures.isLimitReached()) {
+                return;
+            }
+            String propertyName = parser.getCurrentName();
+            parser.nextToken();
+            propertyCount++;
+            if (presentRequiredProperties != null && requiredProperties.contains(propertyName)) {
+                presentRequiredProperties.add(propertyName);
+            }
+            path.addLast(propertyName);
+            Schema propertySchema = propertySchemas.get(propertyName);
+            if (propertySchema != null) {
+                validateValue(propertySchema, parser, path, failures);
+            } else if (!schema.permitsAdditionalProperties()) {
+                parser.skipChildren();
+                path.removeLast();
+                failures.add(failure(schema, String.format("extraneous key [%s] is not permitted", propertyName),
+                        "additionalProperties", path));
+                continue;
+            } else if (schema.getSchemaOfAdditionalProperties() != null) {
+                validateValue(schema.getSchemaOfAdditionalProperties(), parser, path, failures);
+            } else {
+                parser.skipChildren();
+            }
+            path.removeLast();
+        }
+        if (presentRequiredProperties != null && presentRequiredProperties.size() < requiredProperties.size()) {
+            for (String requiredProperty : requiredProperties) {
+                if (!presentRequiredProperties.contains(requiredProperty) && !failures.isLimitReached()) {
+                    failures.add(failure(schema, String.format("required key [%s] not found", requiredProperty),
+                            "required", path));
+                }
+            }
+        }
+        Integer minProperties = schema.getMinProperties();
+        if (minProperties != null && propertyCount < minProperties) {
+            failures.add(failure(schema, String.format("minimum size: [%d], found: [%d]", minProperties, propertyCount),
+                    "minProperties", path));
+        }
+        Integer maxProperties = schema.getMaxProperties();
+        if (maxProperties != null && propertyCount > maxProperties) {
+            failures.add(failure(schema, String.format("maximum size: [%d], found: [%d]", maxProperties, propertyCount),
+                    "maxProperties", path));
+        }
+    }
+
+    private void validateArray(ArraySchema schema, JsonParser parser, Deque<String> path, Failures failures) throws IOException {
+        Schema allItemSchema = schema.getAllItemSchema();
+        List<Schema> itemSchemas = schema.getItemSchemas();
+        int itemCount = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (failures.isLimitReached()) {
+                return;
+            }
+            int index = itemCount++;
+            path.addLast(String.valueOf(index));
+            Schema itemSchema;
+            if (allItemSchema != null) {
+                itemSchema = allItemSchema;
+            } else if (itemSchemas != null && index < itemSchemas.size()) {
+                itemSchema = itemSchemas.get(index);
+            } else if (itemSchemas != null && !schema.permitsAdditionalItems()) {
+                parser.skipChildren();
+                path.removeLast();
+                failures.add(failure(schema, String.format("extraneous item at index [%d] is not permitted", index),
+                        "additionalItems", path));
+                continue;
+            } else {
+                itemSchema = schema.getSchemaOfAdditionalItems();
+            }
+            if (itemSchema != null) {
+                validateValue(itemSchema, parser, path, failures);
+            } else {
+                parser.skipChildren();
+            }
+            path.removeLast();
+        }
+        Integer minItems = schema.getMinItems();
+        if (minItems != null && itemCount < minItems) {
+            failures.add(failure(schema, String.format("expected minimum item count: %d, found: %d", minItems, itemCount),
+                    "minItems", path));
+        }
+        Integer maxItems = schema.getMaxItems();
+        if (maxItems != null && itemCount > maxItems) {
+            failures.add(failure(schema, String.format("expected maximum item count: %d, found: %d", maxItems, itemCount),
+                    "maxItems", path));
+        }
+    }
+
+    private void validateMaterializedValue(Schema schema, Object value, Deque<String> path, Failures failures) {
+        try {
+            schema.validate(value);
+        } catch (ValidationException e) {
+            failures.add(prepend(e, path));
+        }
+    }
+
+    /**
+     * Reads the current value, such as a scalar, a value of a schema that cannot be streamed,
+     * or an object or array that does not match the type of its schema. Scalars are converted
+     * directly, while objects and arrays are read into a tree.
+     */
+    private Object readValue(JsonParser parser) throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+                return parser.getNumberValue();
+            case VALUE_NUMBER_FLOAT:
+                return parser.getDoubleValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return JSONObject.NULL;
+            default:
+                JsonNode tree = parser.readValueAsTree();
+                return this.jsonNodeConverter.convert(tree);
+        }
+    }
+
+    /**
+     * Indicates whether the values of the schema can be validated token by token,
+     * that is, whether the schema is a plain object schema or a plain array schema.
+     */
+    static boolean isStreamable(Schema schema) {
+        if (schema instanceof ObjectSchema) {
+            ObjectSchema objectSchema = (ObjectSchema) schema;
+            return objectSchema.getPatternProperties().isEmpty()
+                    && objectSchema.getPropertyDependencies().isEmpty()
+                    && objectSchema.getSchemaDependencies().isEmpty()
+                    && !isDefined(PROPERTY_NAME_SCHEMA_GETTER, objectSchema);
+        }
+        if (schema instanceof ArraySchema) {
+            ArraySchema arraySchema = (ArraySchema) schema;
+            return !arraySchema.needsUniqueItems()
+                    && !isDefined(CONTAINED_ITEM_SCHEMA_GETTER, arraySchema);
+        }
+        return false;
+    }
+
+    private static boolean isDefined(Method keywordGetter, Schema schema) {
+        return keywordGetter != null && ReflectionUtils.invokeMethod(keywordGetter, schema) != null;
+    }
+
+    private ValidationException failure(Schema schema, String message, String keyword, Deque<String> path) {
+        return prepend(new ValidationException(schema, message, keyword), path);
+    }
+
+    private ValidationException prepend(ValidationException exception, Deque<String> path) {
+        Iterator<String> segments = path.descendingIterator();
+        while (segments.hasNext()) {
+            exception = exception.prepend(segments.next());
+        }
+        return exception;
+    }
+
+    /**
+     * Violations found so far, up to the maximum number of violations.
+     * <p>
+     *     A failure of a materialized value that exceeds the remaining number of violations
+     *     is replaced by its first violations.
+     * </p>
+     */
+    private static class Failures extends ArrayList<ValidationException> {
+        private final int maxViolations;
+
+        private int violationCount;
+
+        Failures(int maxViolations) {
+            this.maxViolations = maxViolations;
+        }
+
+        @Override
+        public boolean add(ValidationException failure) {
+            if (this.maxViolations <= 0) {
+                return super.add(failure);
+            }
+            int remainingViolations = this.maxViolations - this.violationCount;
+            if (remainingViolations <= 0) {
+                return false;
+            }
+            if (failure.getViolationCount() <= remainingViolations) {
+                this.violationCount += failure.getViolationCount();
+                return super.add(failure);
+            }
+            List<ValidationException> violations = ViolationLimit.getViolations(failure, remainingViolations);
+            this.violationCount += violations.size();
+            return super.addAll(violations);
+        }
+
+        boolean isLimitReached() {
+            return this.maxViolations > 0 && this.violationCount >= this.maxViolations;
+        }
+    }
+}
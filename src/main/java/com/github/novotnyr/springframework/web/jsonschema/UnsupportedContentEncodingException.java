@@ -0,0 +1,29 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Indicates a request body compressed by a content coding, which cannot be decompressed.
+ * Such body is rejected before it is read.
+ * <p>
+ *     Unlike {@link JsonSchemaException}s, this exception does not indicate a problem of the schema
+ *     or of the document. Unless handled otherwise, it is mapped to the <code>415 Unsupported Media Type</code> status.
+ * </p>
+ */
+@ResponseStatus(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+public class UnsupportedContentEncodingException extends RuntimeException {
+    private final String contentEncoding;
+
+    public UnsupportedContentEncodingException(String contentEncoding) {
+        super("Unsupported request body content encoding '" + contentEncoding + "'");
+        this.contentEncoding = contentEncoding;
+    }
+
+    /**
+     * Returns the unsupported content coding, such as <code>br</code>.
+     */
+    public String getContentEncoding() {
+        return this.contentEncoding;
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Indicates that the request asks for a JSON schema version, which is not declared
+ * by the handler method parameter, and no fallback version is configured.
+ * <p>
+ *     The version is chosen by the client, so unless handled otherwise, this exception
+ *     is mapped to the <code>400 Bad Request</code> status.
+ * </p>
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnsupportedJsonSchemaVersionException extends JsonSchemaException {
+    private final String version;
+
+    public UnsupportedJsonSchemaVersionException(MethodParameter methodParameter, String version) {
+        super("Unsupported JSON schema version '" + version + "' of " + methodParameter.getMethod());
+        this.version = version;
+    }
+
+    /**
+     * Returns the requested version, or {@code null} if the request does not specify any version.
+     */
+    public String getVersion() {
+        return this.version;
+    }
+}
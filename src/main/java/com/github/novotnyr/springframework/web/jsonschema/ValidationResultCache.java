@@ -0,0 +1,317 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe, bounded cache of validation results, keyed by request body contents.
+ * <p>
+ *     Clients retrying idempotent requests, polling or pushing unchanged configuration
+ *     send byte-identical request bodies. Their validation outcome, including the schema violations,
+ *     is cached and replayed, therefore such request bodies are validated only once.
+ * </p>
+ * <p>
+ *     Results are keyed by the identity of the compiled {@link Schema}, validation options,
+ *     body length and a 128-bit hash of the body bytes. Bodies are not compared byte by byte,
+ *     so two distinct bodies of the same length and hash would share a result. The hash is
+ *     seeded randomly for each cache, which makes such collisions improbable and hard to craft
+ *     without knowing the seed, yet the hash is not cryptographic. Recompiled schemas are distinct
+ *     instances, therefore results of previous schema versions are never used.
+ * </p>
+ * <p>
+ *     Once registered as a {@link JsonSchemaCache.Listener}, the cache drops the results of schemas
+ *     that are evicted, invalidated or replaced, so that the results do not keep the removed schemas
+ *     in memory. Otherwise, results of removed schemas are kept until they are evicted themselves.
+ * </p>
+ * <p>
+ *     The least recently used results are evicted once the maximum number of results is reached.
+ *     Results older than the time-to-live are evicted upon lookup.
+ * </p>
+ */
+public class ValidationResultCache implements JsonSchemaCache.Listener {
+    /**
+     * Default maximum number of cached results
+     */
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    /**
+     * Default maximum size of cached request bodies in bytes
+     */
+    public static final long DEFAULT_MAX_BODY_SIZE = 64 * 1024;
+
+    private static final long FIRST_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private static final long SECOND_MULTIPLIER = 0xC2B2AE3D27D4EB4FL;
+
+    private final Map<Key, Entry> entries;
+
+    private final long timeToLive;
+
+    private final long firstSeed;
+
+    private final long secondSeed;
+
+    private long maxBodySize = DEFAULT_MAX_BODY_SIZE;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Creates a cache with the default maximum size, whose results never expire.
+     */
+    public ValidationResultCache() {
+        this(DEFAULT_MAX_SIZE, -1, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a cache.
+     * @param maxSize maximum number of cached results
+     * @param timeToLive time after which the results expire, negative for results that never expire
+     * @param timeUnit unit of the time-to-live
+     */
+    public ValidationResultCache(int maxSize, long timeToLive, TimeUnit timeUnit) {
+        this.entries = new LinkedHashMap<Key, Entry>(Math.min(maxSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.timeToLive = timeToLive >= 0 ? timeUnit.toNanos(timeToLive) : -1;
+        Random random = new SecureRandom();
+        this.firstSeed = random.nextLong();
+        this.secondSeed = random.nextLong();
+    }
+
+    /**
+     * Creates the key of the request body validation result.
+     * @param schema compiled JSON schema
+     * @param requestBody captured request body
+     * @param options validation options that affect the result, such as the maximum number of violations,
+     *                which are compared by {@link Object#equals(Object)}
+     * @return the key, or {@code null} if the request body is too large to be cached
+     */
+    public Key createKey(Schema schema, CapturedRequestBody requestBody, Object options) throws IOException {
+        if (this.maxBodySize >= 0 && requestBody.size() > this.maxBodySize) {
+            return null;
+        }
+        long firstHash = this.firstSeed;
+        long secondHash = this.secondSeed;
+        long word = 0;
+        int wordLength = 0;
+        byte[] chunk = new byte[(int) Math.min(8192, Math.max(8, requestBody.size()))];
+        try (InputStream inputStream = requestBody.getInputStream()) {
+            int count;
+            while ((count = inputStream.read(chunk)) != -1) {
+                for (int i = 0; i < count; i++) {
+                    word = (word << 8) | (chunk[i] & 0xFF);
+                    if (++wordLength == 8) {
+                        firstHash = mix(firstHash, word, FIRST_MULTIPLIER);
+                        secondHash = mix(secondHash, word, SECOND_MULTIPLIER);
+                        word = 0;
+                        wordLength = 0;
+                    }
+                }
+            }
+        }
+        firstHash = finish(mix(firstHash, word, FIRST_MULTIPLIER) ^ requestBody.size());
+        secondHash = finish(mix(secondHash, word, SECOND_MULTIPLIER) ^ requestBody.size());
+        return new Key(schema, options, requestBody.size(), firstHash, secondHash);
+    }
+
+    private static long mix(long hash, long word, long multiplier) {
+        return Long.rotateLeft((hash ^ word) * multiplier, 31) * multiplier;
+    }
+
+    /**
+     * Finalizes the hash so that each bit of the input affects each bit of the output.
+     */
+    private static long finish(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Returns the cached validation result.
+     * @return the result, or {@code null} if the result is not cached or has expired
+     */
+    public Result get(Key key) {
+        Entry entry;
+        synchronized (this.entries) {
+            entry = this.entries.get(key);
+            if (entry != null && isExpired(entry)) {
+                this.entries.remove(key);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            this.missCount.incrementAndGet();
+            return null;
+        }
+        this.hitCount.incrementAndGet();
+        return entry.result;
+    }
+
+    private boolean isExpired(Entry entry) {
+        return this.timeToLive >= 0 && System.nanoTime() - entry.created > this.timeToLive;
+    }
+
+    /**
+     * Caches the validation result.
+     * @param validationException violations of the schema, or {@code null} for valid request bodies
+     */
+    public void put(Key key, ValidationException validationException) {
+        Entry entry = new Entry(new Result(validationException), System.nanoTime());
+        synchronized (this.entries) {
+            this.entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Removes all cached results.
+     */
+    public void invalidateAll() {
+        synchronized (this.entries) {
+            this.entries.clear();
+        }
+    }
+
+    @Override
+    public void onCached(Resource jsonSchemaResource, Schema schema) {
+        // results are cached upon validation
+    }
+
+    /**
+     * Removes all results of the schema.
+     */
+    @Override
+    public void onRemoved(Resource jsonSchemaResource, Schema schema) {
+        synchronized (this.entries) {
+            this.entries.keySet().removeIf(key -> key.schema == schema);
+        }
+    }
+
+    /**
+     * Returns the number of cached results, including expired results that have not been evicted yet.
+     */
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    /**
+     * Returns the number of lookups that were served by a cached result.
+     */
+    public long getHitCount() {
+        return this.hitCount.get();
+    }
+
+    /**
+     * Returns the number of lookups that required validation.
+     */
+    public long getMissCount() {
+        return this.missCount.get();
+    }
+
+    /**
+     * Sets the maximum size of cached request bodies in bytes. Larger request bodies are rarely
+     * sent repeatedly, and would be hashed for nothing. Negative value caches request bodies of any size.
+     * Defaults to 64 KiB.
+     */
+    public void setMaxBodySize(long maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    /**
+     * Outcome of a request body validation.
+     */
+    public static class Result {
+        private final ValidationException validationException;
+
+        Result(ValidationException validationException) {
+            this.validationException = validationException;
+        }
+
+        public boolean isValid() {
+            return this.validationException == null;
+        }
+
+        /**
+         * Returns the violations of the schema, or {@code null} for valid request bodies.
+         */
+        public ValidationException getValidationException() {
+            return this.validationException;
+        }
+    }
+
+    /**
+     * Key of a validation result.
+     */
+    public static final class Key {
+        private final Schema schema;
+
+        private final Object options;
+
+        private final long length;
+
+        private final long firstHash;
+
+        private final long secondHash;
+
+        Key(Schema schema, Object options, long length, long firstHash, long secondHash) {
+            this.schema = schema;
+            this.options = options;
+            this.length = length;
+            this.firstHash = firstHash;
+            this.secondHash = secondHash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return this.schema == key.schema
+                    && Objects.equals(this.options, key.options)
+                    && this.length == key.length
+                    && this.firstHash == key.firstHash
+                    && this.secondHash == key.secondHash;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(this.schema) + (int) (this.firstHash ^ (this.firstHash >>> 32));
+        }
+    }
+
+    private static class Entry {
+        private final Result result;
+
+        private final long created;
+
+        Entry(Result result, long created) {
+            this.result = result;
+            this.created = created;
+        }
+    }
+}
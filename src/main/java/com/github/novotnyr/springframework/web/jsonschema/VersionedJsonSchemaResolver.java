@@ -0,0 +1,205 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import com.github.novotnyr.springframework.web.jsonschema.annotation.JsonRequestBody;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * JSON schema resolver that resolves the schema of the version requested by the client.
+ * <p>
+ *     Versions of a parameter are declared by {@link JsonRequestBody#versions()}. The schema file of each
+ *     version is resolved by the naming convention of the {@link ParamNameJsonSchemaResolver},
+ *     in a directory named by the version, such as <code>v2/boxcontroller#register.json</code>.
+ *     The requested version is extracted from the request by the {@link VersionStrategy},
+ *     such as from a request header, from a media type parameter or from a path variable.
+ *     Parameters without declared versions are always validated against the unversioned schema.
+ * </p>
+ * <p>
+ *     Requests without a version, or with a version that is not declared by the parameter, are
+ *     validated against the fallback version, if configured. Otherwise, they are rejected with
+ *     {@link UnsupportedJsonSchemaVersionException}. When the schemas are precompiled,
+ *     all declared versions are compiled, and any missing version fails the application context startup.
+ * </p>
+ * <p>
+ *     The resources of all versions of a parameter are resolved once and then served from a concurrent map,
+ *     so that each request resolves its schema by two hash lookups. The compiled schema of each version
+ *     is then cached by the {@link JsonSchemaCache}.
+ * </p>
+ */
+public class VersionedJsonSchemaResolver extends ParamNameJsonSchemaResolver {
+    private final VersionStrategy versionStrategy;
+
+    private final ConcurrentMap<MethodParameter, Map<String, Resource>> versionedResources = new ConcurrentHashMap<>(64);
+
+    private String fallbackVersion;
+
+    /**
+     * Creates a resolver of versioned schemas.
+     * @param versionStrategy strategy that extracts the requested version from the request
+     * @see #fromHeader(String)
+     * @see #fromMediaTypeParameter(String)
+     * @see #fromPathVariable(String)
+     */
+    public VersionedJsonSchemaResolver(VersionStrategy versionStrategy) {
+        this.versionStrategy = versionStrategy;
+    }
+
+    @Override
+    public Resource resolveJsonSchemaResource(MethodParameter methodParameter, NativeWebRequest webRequest) {
+        if (!isVersioned(methodParameter)) {
+            return super.resolveJsonSchemaResource(methodParameter, webRequest);
+        }
+        return resolveVersionedJsonSchemaResource(methodParameter, webRequest != null ? this.versionStrategy.getVersion(webRequest) : null);
+    }
+
+    /**
+     * Resolves the schema of the version, which has been extracted from the request by the caller,
+     * such as from a reactive request by the
+     * {@link com.github.novotnyr.springframework.web.jsonschema.reactive.ReactiveVersionStrategy}.
+     * @param version requested version, or {@code null} if the request does not specify any version
+     * @throws UnsupportedJsonSchemaVersionException when the version is not declared and there is no fallback version
+     */
+    public Resource resolveVersionedJsonSchemaResource(MethodParameter methodParameter, String version) {
+        Map<String, Resource> resources = getVersionedResources(methodParameter);
+        if (resources.isEmpty()) {
+            return super.resolveJsonSchemaResource(methodParameter, null);
+        }
+        Resource jsonSchemaResource = version != null ? resources.get(version) : null;
+        if (jsonSchemaResource == null && this.fallbackVersion != null) {
+            jsonSchemaResource = resources.get(this.fallbackVersion);
+        }
+        if (jsonSchemaResource == null) {
+            throw new UnsupportedJsonSchemaVersionException(methodParameter, version);
+        }
+        return jsonSchemaResource;
+    }
+
+    /**
+     * Resolves the schemas of all declared versions, or the unversioned schema,
+     * if the parameter does not declare any version.
+     */
+    @Override
+    public Collection<Resource> resolveJsonSchemaResources(MethodParameter methodParameter) {
+        Map<String, Resource> resources = getVersionedResources(methodParameter);
+        if (resources.isEmpty()) {
+            return super.resolveJsonSchemaResources(methodParameter);
+        }
+        return Collections.unmodifiableCollection(resources.values());
+    }
+
+    /**
+     * Returns whether the parameter declares any versions by {@link JsonRequestBody#versions()}.
+     */
+    public boolean isVersioned(MethodParameter methodParameter) {
+        return !getVersionedResources(methodParameter).isEmpty();
+    }
+
+    private Map<String, Resource> getVersionedResources(MethodParameter methodParameter) {
+        Map<String, Resource> resources = this.versionedResources.get(methodParameter);
+        if (resources != null) {
+            return resources;
+        }
+        return this.versionedResources.computeIfAbsent(methodParameter, this::discoverVersionedResources);
+    }
+
+    /**
+     * @throws IllegalStateException when the parameter declares versions, but not the fallback version
+     */
+    private Map<String, Resource> discoverVersionedResources(MethodParameter methodParameter) {
+        JsonRequestBody annotation = methodParameter.getParameterAnnotation(JsonRequestBody.class);
+        if (annotation.versions().length == 0) {
+            return Collections.emptyMap();
+        }
+        String schemaFileName = getSchemaFileName(methodParameter);
+        Map<String, Resource> resources = new HashMap<>();
+        for (String version : annotation.versions()) {
+            resources.put(version, createJsonSchemaResource(getVersionedSchemaFileName(schemaFileName, version)));
+        }
+        if (this.fallbackVersion != null && !resources.containsKey(this.fallbackVersion)) {
+            throw new IllegalStateException("Fallback JSON schema version '" + this.fallbackVersion + "' is not declared by "
+                    + methodParameter.getMethod() + ". Declared versions: " + resources.keySet());
+        }
+        return resources;
+    }
+
+    /**
+     * Returns the relative path to the schema file of the version.
+     * @param schemaFileName relative path to the unversioned schema file, such as <code>boxcontroller#register.json</code>
+     * @param version declared version, such as <code>v2</code>
+     * @return the path in the directory named by the version, such as <code>v2/boxcontroller#register.json</code>, by default
+     */
+    protected String getVersionedSchemaFileName(String schemaFileName, String version) {
+        return version + "/" + schemaFileName;
+    }
+
+    /**
+     * Sets the version of requests, which do not specify any version or specify an undeclared version.
+     * Each parameter with declared versions must declare the fallback version.
+     * By default, such requests are rejected.
+     */
+    public void setFallbackVersion(String fallbackVersion) {
+        this.fallbackVersion = fallbackVersion;
+    }
+
+    /**
+     * Extracts the version from the request header, such as <code>Api-Version: v2</code>.
+     */
+    public static VersionStrategy fromHeader(String headerName) {
+        return webRequest -> webRequest.getHeader(headerName);
+    }
+
+    /**
+     * Extracts the version from the parameter of the request content type,
+     * such as <code>Content-Type: application/json;version=v2</code>.
+     */
+    public static VersionStrategy fromMediaTypeParameter(String parameterName) {
+        return webRequest -> {
+            String contentType = webRequest.getHeader(HttpHeaders.CONTENT_TYPE);
+            if (contentType == null) {
+                return null;
+            }
+            try {
+                return MediaType.parseMediaType(contentType).getParameter(parameterName);
+            } catch (InvalidMediaTypeException e) {
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Extracts the version from the URI template variable of the handler method mapping,
+     * such as <code>/{version}/boxes</code>.
+     */
+    public static VersionStrategy fromPathVariable(String variableName) {
+        return webRequest -> {
+            @SuppressWarnings("unchecked")
+            Map<String, String> uriTemplateVariables = (Map<String, String>) webRequest.getAttribute(
+                    HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            return uriTemplateVariables != null ? uriTemplateVariables.get(variableName) : null;
+        };
+    }
+
+    /**
+     * Strategy extracting the requested schema version from the request.
+     */
+    @FunctionalInterface
+    public interface VersionStrategy {
+        /**
+         * @return the requested version, or {@code null} if the request does not specify any version
+         */
+        String getVersion(NativeWebRequest webRequest);
+    }
+}
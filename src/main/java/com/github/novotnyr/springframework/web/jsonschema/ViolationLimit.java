@@ -0,0 +1,85 @@
+package com.github.novotnyr.springframework.web.jsonschema;
+
+import org.everit.json.schema.ValidationException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Caps the number of schema violations reported by a {@link ValidationException}.
+ * <p>
+ *     Violations are counted in the same way as they are converted to binding errors by the
+ *     {@link DetailsValidationExceptionMediator}: each violation without causes is a single violation,
+ *     and so is a violation of <code>anyOf</code>, <code>oneOf</code> and <code>not</code>, regardless
+ *     of its failed alternatives. The first violations are kept in the document order.
+ * </p>
+ * <p>
+ *     The cap applies to violations reported by any {@link JsonSchemaValidatorEngine} or by
+ *     the {@link ParallelJsonSchemaValidator}, which validate the whole document first.
+ *     The {@link StreamingJsonSchemaValidator} stops at the maximum number of violations instead.
+ * </p>
+ */
+public class ViolationLimit {
+    private final int maxViolations;
+
+    /**
+     * @param maxViolations maximum number of reported violations, non-positive for unlimited number of violations
+     */
+    public ViolationLimit(int maxViolations) {
+        this.maxViolations = maxViolations;
+    }
+
+    /**
+     * Returns the exception with at most the maximum number of violations.
+     * @return the same exception when it is within the limit, the first violation when the limit is 1,
+     * or a new exception of the violated schema caused by the first violations
+     */
+    public ValidationException apply(ValidationException exception) {
+        if (this.maxViolations <= 0 || exception.getViolationCount() <= this.maxViolations) {
+            return exception;
+        }
+        List<ValidationException> violations = getViolations(exception, this.maxViolations + 1);
+        if (violations.size() <= this.maxViolations) {
+            return exception;
+        }
+        violations = violations.subList(0, this.maxViolations);
+        if (violations.size() == 1) {
+            return violations.get(0);
+        }
+        try {
+            ValidationException.throwFor(exception.getViolatedSchema(), new ArrayList<>(violations));
+        } catch (ValidationException e) {
+            return e;
+        }
+        return exception;
+    }
+
+    /**
+     * Collects the first violations of the exception.
+     * @param maxViolations maximum number of collected violations
+     */
+    static List<ValidationException> getViolations(ValidationException exception, int maxViolations) {
+        List<ValidationException> violations = new ArrayList<>(Math.min(maxViolations, 16));
+        Deque<ValidationException> exceptions = new ArrayDeque<>();
+        exceptions.push(exception);
+        while (!exceptions.isEmpty() && violations.size() < maxViolations) {
+            ValidationException currentException = exceptions.pop();
+            List<ValidationException> causingExceptions = currentException.getCausingExceptions();
+            if (causingExceptions.isEmpty() || isAlternative(currentException)) {
+                violations.add(currentException);
+                continue;
+            }
+            for (int i = causingExceptions.size() - 1; i >= 0; i--) {
+                exceptions.push(causingExceptions.get(i));
+            }
+        }
+        return violations;
+    }
+
+    private static boolean isAlternative(ValidationException exception) {
+        String keyword = exception.getKeyword();
+        return "anyOf".equals(keyword) || "oneOf".equals(keyword) || "not".equals(keyword);
+    }
+}
@@ -30,4 +30,133 @@ public @interface JsonRequestBody {
      * for validation instead of the conventional one.
      */
     String schemaPath() default "";
+
+    /**
+     * Parse the request body only once. The parsed JSON tree is validated
+     * against JSON schema and then bound to the parameter value by the Jackson
+     * <code>ObjectMapper</code>, instead of parsing the body
+     * by the <code>@RequestBody</code> message converters and then once again
+     * for validation.
+     * <p>
+     *     Since the message converters are bypassed, request body advices
+     *     are not applied to the parameter.
+     * </p>
+     */
+    boolean singleParse() default false;
+
+    /**
+     * Validate the request body while it is being parsed, instead of
+     * materializing the whole JSON document before validation.
+     * The memory needed for validation is then proportional to the nesting
+     * depth of the document rather than to its size.
+     * <p>
+     *     Has no effect in the {@link #singleParse() single-parse} mode,
+     *     which needs the whole JSON tree for data binding.
+     * </p>
+     */
+    boolean streaming() default false;
+
+    /**
+     * Maximum size of the request body in bytes. Larger bodies are rejected
+     * before they are parsed. Negative value, which is the default, uses the maximum size
+     * configured in the argument resolver.
+     */
+    long maxBodySize() default -1;
+
+    /**
+     * Validate the request body against JSON schema before it is bound
+     * to the parameter value. Invalid bodies are rejected immediately,
+     * without spending any effort on data binding.
+     * <p>
+     *     Applies to {@link #strict() strict} validation only. Lax validation
+     *     always binds the request body to provide the parameter value.
+     * </p>
+     */
+    boolean validateBeforeBinding() default false;
+
+    /**
+     * Report only the first schema violation. In the {@link #streaming() streaming} mode and
+     * for batch {@link #format() formats}, the validation stops at the first violation,
+     * and the rest of the request body is not validated.
+     * <p>
+     *     Useful for strict endpoints, which reject invalid request bodies anyway,
+     *     since the cost of validating large invalid bodies in the streaming mode is bounded.
+     * </p>
+     */
+    boolean failFast() default false;
+
+    /**
+     * Maximum number of reported schema violations. Non-positive value, which is the default,
+     * uses the maximum configured in the argument resolver.
+     * <p>
+     *     In the {@link #streaming() streaming} mode and for batch {@link #format() formats},
+     *     the validation stops once the maximum is reached. Otherwise, the whole request body
+     *     is validated by the {@link #engine() engine} or in {@link #parallel() parallel},
+     *     and only the first violations are reported.
+     * </p>
+     */
+    int maxErrors() default -1;
+
+    /**
+     * Format of the request body. Batch formats, that is, top-level JSON arrays
+     * and newline-delimited JSON, are validated element by element against the JSON schema,
+     * which describes a single element.
+     * <p>
+     *     Batch request bodies are bound to a <code>List</code>, a <code>Collection</code>,
+     *     a <code>Stream</code> or an <code>Iterator</code> of elements, bypassing
+     *     the <code>@RequestBody</code> message converters. Violations are reported for
+     *     fields prefixed by the element index, such as <code>[2].count</code>.
+     * </p>
+     */
+    PayloadFormat format() default PayloadFormat.DOCUMENT;
+
+    /**
+     * Validate large arrays and objects of the parsed request body in parallel,
+     * on the fork-join pool of the <code>ParallelJsonSchemaValidator</code> configured
+     * in the argument resolver.
+     * <p>
+     *     Has no effect in the {@link #streaming() streaming} mode and for batch {@link #format() formats},
+     *     which are validated token by token.
+     * </p>
+     */
+    boolean parallel() default false;
+
+    /**
+     * Name of the <code>JsonSchemaValidatorEngine</code> validating the parsed request body,
+     * such as <code>everit</code> or <code>compiled</code>. Empty name, which is the default,
+     * uses the default engine configured in the argument resolver.
+     * <p>
+     *     Has no effect in the {@link #streaming() streaming} and {@link #parallel() parallel} modes,
+     *     and for batch {@link #format() formats}.
+     * </p>
+     */
+    String engine() default "";
+
+    /**
+     * Fraction of requests validated against JSON schema, between <code>0</code> and <code>1</code>.
+     * Request bodies of other requests are bound to the parameter value without any validation.
+     * Negative value, which is the default, uses the sample rate configured in the argument resolver.
+     */
+    double sampleRate() default -1;
+
+    /**
+     * Validate the request body in the background, off the request thread, by the
+     * <code>ShadowJsonSchemaValidator</code> configured in the argument resolver.
+     * The request body is bound to the parameter value immediately, and schema violations
+     * never fail the request. Instead, they are logged and recorded by validation metrics.
+     * <p>
+     *     When the background validation cannot keep up with incoming requests,
+     *     request bodies are dropped without validation. Combined with the {@link #sampleRate()},
+     *     only a fraction of request bodies is validated in the background.
+     * </p>
+     */
+    boolean shadow() default false;
+
+    /**
+     * Versions of the JSON schema, such as <code>{"v1", "v2"}</code>. Each request body is validated
+     * against the schema of the version requested by the client, as resolved by
+     * the <code>VersionedJsonSchemaResolver</code>. Empty array, which is the default,
+     * validates all request bodies against the single, unversioned schema.
+     */
+    String[] versions() default {};
 }
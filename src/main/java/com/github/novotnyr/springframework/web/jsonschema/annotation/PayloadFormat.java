@@ -0,0 +1,21 @@
+package com.github.novotnyr.springframework.web.jsonschema.annotation;
+
+/**
+ * Format of the request body of a @{@link JsonRequestBody}-annotated parameter.
+ */
+public enum PayloadFormat {
+    /**
+     * Single JSON document validated against the JSON schema as a whole.
+     */
+    DOCUMENT,
+
+    /**
+     * Top-level JSON array, whose elements are validated against the JSON schema one by one.
+     */
+    JSON_ARRAY,
+
+    /**
+     * Newline-delimited JSON values, each validated against the JSON schema.
+     */
+    NDJSON
+}
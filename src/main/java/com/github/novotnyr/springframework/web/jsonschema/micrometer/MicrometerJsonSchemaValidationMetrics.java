@@ -0,0 +1,148 @@
+package com.github.novotnyr.springframework.web.jsonschema.micrometer;
+
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaValidationMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.everit.json.schema.ValidationException;
+import org.springframework.core.MethodParameter;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records JSON schema validation metrics into the Micrometer {@link MeterRegistry}.
+ * <p>
+ *     The following meters are tagged by the <code>handler</code> tag in the
+ *     <code>ControllerName#methodName</code> format:
+ * </p>
+ * <ul>
+ *     <li><code>jsonschema.request.body.size</code>: summary of request body sizes in bytes</li>
+ *     <li><code>jsonschema.request.body.read</code>: timer of reading request bodies</li>
+ *     <li><code>jsonschema.schema.lookup</code>: timer of schema lookups, tagged by <code>cache</code>
+ *     with <code>hit</code> or <code>miss</code> values. Cache hit ratio is the ratio of their counts.</li>
+ *     <li><code>jsonschema.validation</code>: timer of validations, tagged by <code>outcome</code>
+ *     with <code>valid</code> or <code>invalid</code> values</li>
+ *     <li><code>jsonschema.validation.errors</code>: counter of schema violations, tagged by JSON schema <code>keyword</code></li>
+ *     <li><code>jsonschema.validation.dropped</code>: counter of request bodies dropped without background validation</li>
+ *     <li><code>jsonschema.validation.cache</code>: counter of validation result cache lookups, tagged by <code>cache</code>
+ *     with <code>hit</code> or <code>miss</code> values</li>
+ * </ul>
+ */
+public class MicrometerJsonSchemaValidationMetrics implements JsonSchemaValidationMetrics {
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Meters of handler methods, avoiding meter lookups on each request
+     */
+    private final ConcurrentMap<Method, HandlerMeters> handlerMeters = new ConcurrentHashMap<>();
+
+    public MicrometerJsonSchemaValidationMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void recordRequestBodyRead(MethodParameter parameter, long bodySize, long readTime) {
+        HandlerMeters meters = getHandlerMeters(parameter);
+        meters.requestBodySize.record(bodySize);
+        meters.requestBodyRead.record(readTime, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordSchemaLookup(MethodParameter parameter, long lookupTime, boolean cacheHit) {
+        HandlerMeters meters = getHandlerMeters(parameter);
+        Timer timer = cacheHit ? meters.schemaLookupHit : meters.schemaLookupMiss;
+        timer.record(lookupTime, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordValidation(MethodParameter parameter, long validationTime, ValidationException validationException) {
+        HandlerMeters meters = getHandlerMeters(parameter);
+        if (validationException == null) {
+            meters.validationValid.record(validationTime, TimeUnit.NANOSECONDS);
+            return;
+        }
+        meters.validationInvalid.record(validationTime, TimeUnit.NANOSECONDS);
+        Deque<ValidationException> exceptions = new ArrayDeque<>();
+        exceptions.push(validationException);
+        while (!exceptions.isEmpty()) {
+            ValidationException exception = exceptions.pop();
+            if (exception.getCausingExceptions().isEmpty()) {
+                String keyword = exception.getKeyword() != null ? exception.getKeyword() : "unknown";
+                this.meterRegistry.counter("jsonschema.validation.errors", meters.tags.and("keyword", keyword)).increment();
+            } else {
+                exception.getCausingExceptions().forEach(exceptions::push);
+            }
+        }
+    }
+
+    @Override
+    public void recordDroppedValidation(MethodParameter parameter) {
+        getHandlerMeters(parameter).validationDropped.increment();
+    }
+
+    @Override
+    public void recordValidationResultCacheLookup(MethodParameter parameter, boolean cacheHit) {
+        HandlerMeters meters = getHandlerMeters(parameter);
+        Counter counter = cacheHit ? meters.validationCacheHit : meters.validationCacheMiss;
+        counter.increment();
+    }
+
+    private HandlerMeters getHandlerMeters(MethodParameter parameter) {
+        return this.handlerMeters.computeIfAbsent(parameter.getMethod(), this::createHandlerMeters);
+    }
+
+    private HandlerMeters createHandlerMeters(Method method) {
+        Tags tags = Tags.of("handler", method.getDeclaringClass().getSimpleName() + "#" + method.getName());
+        return new HandlerMeters(this.meterRegistry, tags);
+    }
+
+    private static class HandlerMeters {
+        private final Tags tags;
+
+        private final DistributionSummary requestBodySize;
+
+        private final Timer requestBodyRead;
+
+        private final Timer schemaLookupHit;
+
+        private final Timer schemaLookupMiss;
+
+        private final Timer validationValid;
+
+        private final Timer validationInvalid;
+
+        private final Counter validationDropped;
+
+        private final Counter validationCacheHit;
+
+        private final Counter validationCacheMiss;
+
+        HandlerMeters(MeterRegistry meterRegistry, Tags tags) {
+            this.tags = tags;
+            this.requestBodySize = DistributionSummary.builder("jsonschema.request.body.size")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(meterRegistry);
+            this.requestBodyRead = meterRegistry.timer("jsonschema.request.body.read", tags);
+            this.schemaLookupHit = meterRegistry.timer("jsonschema.schema.lookup", tags.and("cache", "hit"));
+            this.schemaLookupMiss = meterRegistry.timer("jsonschema.schema.lookup", tags.and("cache", "miss"));
+            this.validationValid = meterRegistry.timer("jsonschema.validation", tags.and("outcome", "valid"));
+            this.validationInvalid = meterRegistry.timer("jsonschema.validation", tags.and("outcome", "invalid"));
+            this.validationDropped = meterRegistry.counter("jsonschema.validation.dropped", tags);
+            this.validationCacheHit = meterRegistry.counter("jsonschema.validation.cache", tags.and("cache", "hit"));
+            this.validationCacheMiss = meterRegistry.counter("jsonschema.validation.cache", tags.and("cache", "miss"));
+        }
+    }
+}
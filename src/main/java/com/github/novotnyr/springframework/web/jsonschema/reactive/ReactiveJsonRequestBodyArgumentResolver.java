@@ -0,0 +1,614 @@
+package com.github.novotnyr.springframework.web.jsonschema.reactive;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.novotnyr.springframework.web.jsonschema.CapturedRequestBody;
+import com.github.novotnyr.springframework.web.jsonschema.DetailsValidationExceptionMediator;
+import com.github.novotnyr.springframework.web.jsonschema.JsonBatchReader;
+import com.github.novotnyr.springframework.web.jsonschema.JsonNodeConverter;
+import com.github.novotnyr.springframework.web.jsonschema.JsonRequestBodyMetadata;
+import com.github.novotnyr.springframework.web.jsonschema.JsonRequestBodyMetadataCache;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaCache;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaException;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaLoader;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaResolver;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaValidationException;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaValidationMetrics;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaValidatorEngines;
+import com.github.novotnyr.springframework.web.jsonschema.NoOpJsonSchemaValidationMetrics;
+import com.github.novotnyr.springframework.web.jsonschema.ParallelJsonSchemaValidator;
+import com.github.novotnyr.springframework.web.jsonschema.ParamNameJsonSchemaResolver;
+import com.github.novotnyr.springframework.web.jsonschema.RequestBodyBufferPool;
+import com.github.novotnyr.springframework.web.jsonschema.RequestBodyTooLargeException;
+import com.github.novotnyr.springframework.web.jsonschema.ShadowJsonSchemaValidator;
+import com.github.novotnyr.springframework.web.jsonschema.StreamingJsonSchemaValidator;
+import com.github.novotnyr.springframework.web.jsonschema.ValidationExceptionMediator;
+import com.github.novotnyr.springframework.web.jsonschema.VersionedJsonSchemaResolver;
+import com.github.novotnyr.springframework.web.jsonschema.ViolationLimit;
+import com.github.novotnyr.springframework.web.jsonschema.annotation.JsonRequestBody;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.Conventions;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.MapBindingResult;
+import org.springframework.web.reactive.BindingContext;
+import org.springframework.web.reactive.result.method.HandlerMethodArgumentResolver;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.core.publisher.SynchronousSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The Spring WebFlux argument resolver for @{@link JsonRequestBody}-annotated values.
+ * <p>
+ *     The request body is collected from the {@link DataBuffer} stream without blocking
+ *     into pooled buffers. Then, the body is validated against JSON schema and bound
+ *     to the parameter value by the Jackson {@link ObjectMapper}.
+ *     Either JSON exception is signalled or the corresponding {@link Errors}
+ *     are populated.
+ * </p>
+ * <p>
+ *     Validation of request bodies larger than the offload threshold is executed
+ *     on a separate, bounded {@link Scheduler}, therefore CPU-heavy validation of large
+ *     documents does not occupy event loop threads. Schemas that are not cached yet are read
+ *     and compiled on the schema loading scheduler, regardless of the request body size.
+ * </p>
+ * <p>
+ *     To enable this resolver, register it as a custom argument resolver
+ *     in the <code>WebFluxConfigurer#configureArgumentResolvers</code>.
+ * </p>
+ */
+public class ReactiveJsonRequestBodyArgumentResolver implements HandlerMethodArgumentResolver, DisposableBean {
+    private static final Log logger = LogFactory.getLog(ReactiveJsonRequestBodyArgumentResolver.class);
+
+    /**
+     * Default size of request bodies in bytes that are validated on the validation scheduler
+     */
+    public static final int DEFAULT_OFFLOAD_THRESHOLD = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+
+    private final JsonSchemaResolver jsonSchemaResolver;
+
+    private final ValidationExceptionMediator validationExceptionMediator;
+
+    /**
+     * Compiled schemas, shared among requests
+     */
+    private JsonSchemaCache jsonSchemaCache = new JsonSchemaCache();
+
+    private JsonSchemaLoader jsonSchemaLoader = new JsonSchemaLoader();
+
+    private final JsonNodeConverter jsonNodeConverter = new JsonNodeConverter();
+
+    private final StreamingJsonSchemaValidator streamingJsonSchemaValidator = new StreamingJsonSchemaValidator();
+
+    private ParallelJsonSchemaValidator parallelJsonSchemaValidator = new ParallelJsonSchemaValidator();
+
+    private JsonSchemaValidatorEngines jsonSchemaValidatorEngines = new JsonSchemaValidatorEngines();
+
+    /**
+     * Default fraction of validated requests
+     */
+    private double sampleRate = 1;
+
+    /**
+     * Validator of shadow parameters, created on the first shadow validation unless set
+     */
+    private volatile ShadowJsonSchemaValidator shadowJsonSchemaValidator;
+
+    /**
+     * Validator of shadow parameters created by this resolver, which is destroyed along with the resolver
+     */
+    private ShadowJsonSchemaValidator ownedShadowJsonSchemaValidator;
+
+    /**
+     * Buffers capturing request bodies
+     */
+    private RequestBodyBufferPool requestBodyBufferPool = new RequestBodyBufferPool();
+
+    /**
+     * Default maximum request body size in bytes, negative for unlimited size
+     */
+    private long maxBodySize = -1;
+
+    /**
+     * Stop the validation at the first violation, unless overridden by the parameter
+     */
+    private boolean failFast;
+
+    /**
+     * Default maximum number of reported violations, non-positive for unlimited number of violations
+     */
+    private int maxErrors = -1;
+
+    /**
+     * Scheduler that validates large request bodies
+     */
+    private Scheduler validationScheduler = Schedulers.parallel();
+
+    private int offloadThreshold = DEFAULT_OFFLOAD_THRESHOLD;
+
+    /**
+     * Scheduler that reads and compiles schemas, which are not cached yet
+     */
+    private Scheduler schemaLoadingScheduler = Schedulers.elastic();
+
+    private JsonSchemaValidationMetrics jsonSchemaValidationMetrics = new NoOpJsonSchemaValidationMetrics();
+
+    private final JsonRequestBodyMetadataCache jsonRequestBodyMetadataCache = new JsonRequestBodyMetadataCache();
+
+    private ReactiveVersionStrategy versionStrategy;
+
+    /**
+     * Construct this argument resolver with the object mapper binding request bodies
+     * to parameter values. Uses the default JSON schema resolver and mediator.
+     */
+    public ReactiveJsonRequestBodyArgumentResolver(ObjectMapper objectMapper) {
+        this(objectMapper, new ParamNameJsonSchemaResolver(), new DetailsValidationExceptionMediator());
+    }
+
+    /**
+     * Construct this argument resolver with the object mapper binding request bodies
+     * to parameter values, passing the json schema resolver and mediator as arguments.
+     */
+    public ReactiveJsonRequestBodyArgumentResolver(ObjectMapper objectMapper,
+                                                   JsonSchemaResolver jsonSchemaResolver,
+                                                   ValidationExceptionMediator validationExceptionMediator) {
+        this.objectMapper = objectMapper;
+        this.jsonSchemaResolver = jsonSchemaResolver;
+        this.validationExceptionMediator = validationExceptionMediator;
+        this.jsonSchemaCache.addListener(this.jsonSchemaValidatorEngines);
+    }
+
+    /**
+     * Supports the @{@link JsonRequestBody}-annotated method parameters.
+     */
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(JsonRequestBody.class);
+    }
+
+    @Override
+    public Mono<Object> resolveArgument(MethodParameter parameter, BindingContext bindingContext, ServerWebExchange exchange) {
+        JsonRequestBodyMetadata metadata = this.jsonRequestBodyMetadataCache.getMetadata(parameter);
+        long maxBodySize = metadata.getMaxBodySize(this.maxBodySize);
+        if (maxBodySize >= 0 && exchange.getRequest().getHeaders().getContentLength() > maxBodySize) {
+            return Mono.error(new RequestBodyTooLargeException(maxBodySize));
+        }
+        MonoProcessor<BindingResult> bindingResultProcessor = exposeBindingResult(parameter, bindingContext);
+        long[] readStart = new long[1];
+        return Mono.using(() -> {
+                    if (this.jsonSchemaValidationMetrics.isEnabled()) {
+                        readStart[0] = System.nanoTime();
+                    }
+                    return new CapturedRequestBody(this.requestBodyBufferPool, maxBodySize);
+                },
+                requestBody -> exchange.getRequest().getBody()
+                        .handle((DataBuffer dataBuffer, SynchronousSink<Object> sink) -> {
+                            try {
+                                requestBody.append(dataBuffer.asInputStream());
+                            } catch (IOException | RuntimeException e) {
+                                sink.error(e);
+                            } finally {
+                                DataBufferUtils.release(dataBuffer);
+                            }
+                        })
+                        .then(Mono.defer(() -> {
+                            if (this.jsonSchemaValidationMetrics.isEnabled()) {
+                                this.jsonSchemaValidationMetrics.recordRequestBodyRead(parameter, requestBody.size(), System.nanoTime() - readStart[0]);
+                            }
+                            return validateAndBind(parameter, metadata, requestBody, exchange, bindingResultProcessor);
+                        })),
+                CapturedRequestBody::close);
+    }
+
+    /**
+     * Validates the captured body and binds it to the parameter value, on the validation scheduler
+     * when the body is larger than the offload threshold. The schema is looked up beforehand,
+     * so that a schema which is not cached is loaded on the schema loading scheduler.
+     */
+    private Mono<Object> validateAndBind(MethodParameter parameter, JsonRequestBodyMetadata metadata, CapturedRequestBody requestBody,
+                                         ServerWebExchange exchange, MonoProcessor<BindingResult> bindingResultProcessor) {
+        if (requestBody.isEmpty()) {
+            return Mono.error(new ServerWebInputException("Request body is missing: " + parameter.getExecutable().toGenericString(), parameter));
+        }
+        boolean sampled = metadata.isSampled(this.sampleRate);
+        if (!sampled || metadata.isShadow()) {
+            Mono<Object> value = offload(requestBody, Mono.fromCallable(() -> bind(parameter, metadata, requestBody)));
+            if (sampled) {
+                value = value.flatMap(argument -> submitShadowValidation(parameter, metadata, requestBody, exchange).thenReturn(argument));
+            }
+            return value.doOnNext(argument -> bindingResultProcessor.onNext(createBindingResult(parameter)));
+        }
+        return getJsonSchema(parameter, exchange).flatMap(schema -> offload(requestBody, Mono.fromCallable(() -> {
+            BindingResult bindingResult = createBindingResult(parameter);
+            int maxErrors = metadata.getMaxErrors(this.failFast, this.maxErrors);
+            Object argument;
+            if (metadata.isBatch()) {
+                argument = validateBatchAndBind(parameter, metadata, schema, requestBody, bindingResult, maxErrors);
+            } else if (metadata.isStreaming()) {
+                argument = validateStreamAndBind(parameter, schema, requestBody, bindingResult, maxErrors);
+            } else {
+                argument = validateTreeAndBind(parameter, metadata, schema, requestBody, bindingResult, maxErrors);
+            }
+            if (bindingResult.hasErrors() && metadata.isStrict()) {
+                throw new JsonSchemaValidationException(bindingResult);
+            }
+            bindingResultProcessor.onNext(bindingResult);
+            return argument;
+        })));
+    }
+
+    /**
+     * Subscribes to the validation on the validation scheduler when the body is larger than the offload threshold.
+     */
+    private <T> Mono<T> offload(CapturedRequestBody requestBody, Mono<T> validation) {
+        if (requestBody.size() >= this.offloadThreshold) {
+            return validation.subscribeOn(this.validationScheduler);
+        }
+        return validation;
+    }
+
+    private BindingResult createBindingResult(MethodParameter parameter) {
+        return new MapBindingResult(new HashMap<>(), Conventions.getVariableNameForParameter(parameter));
+    }
+
+    /**
+     * Binds the request body to the parameter value without validation.
+     */
+    private Object bind(MethodParameter parameter, JsonRequestBodyMetadata metadata, CapturedRequestBody requestBody) {
+        try {
+            if (metadata.isBatch()) {
+                return new JsonBatchReader(this.objectMapper, this.streamingJsonSchemaValidator)
+                        .read(requestBody.getInputStream(), metadata.getFormat(), parameter);
+            }
+            return this.objectMapper.readerFor(getJavaType(parameter)).readValue(requestBody.getInputStream());
+        } catch (IOException e) {
+            throw new ServerWebInputException("Failed to read HTTP message", parameter, e);
+        }
+    }
+
+    /**
+     * Submits the request body to the background validation. Since the request must not fail
+     * in the shadow mode, unavailable or invalid schemas are just logged.
+     * @see ShadowJsonSchemaValidator
+     */
+    private Mono<Void> submitShadowValidation(MethodParameter parameter, JsonRequestBodyMetadata metadata, CapturedRequestBody requestBody,
+                                              ServerWebExchange exchange) {
+        return getJsonSchema(parameter, exchange)
+                .doOnNext(schema -> getShadowJsonSchemaValidator().submit(parameter, schema, requestBody, metadata.getFormat(), this.jsonSchemaValidationMetrics))
+                .onErrorResume(JsonSchemaException.class, e -> {
+                    logger.warn("Unable to validate request body of " + parameter.getExecutable().toGenericString() + " in the background", e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * Validates and binds the JSON tree. The whole tree is validated by the parallel validator
+     * or by the parameter engine, and the reported violations are capped afterwards.
+     * @see ViolationLimit
+     */
+    private Object validateTreeAndBind(MethodParameter parameter, JsonRequestBodyMetadata metadata, Schema schema, CapturedRequestBody requestBody,
+                                       BindingResult bindingResult, int maxErrors) {
+        try {
+            JsonNode jsonTree = this.objectMapper.readTree(requestBody.getInputStream());
+            long start = this.jsonSchemaValidationMetrics.isEnabled() ? System.nanoTime() : 0;
+            ValidationException validationException = null;
+            try {
+                if (metadata.isParallel()) {
+                    this.parallelJsonSchemaValidator.validate(schema, this.jsonNodeConverter.convert(jsonTree));
+                } else {
+                    this.jsonSchemaValidatorEngines.getValidator(metadata.getEngine(), schema)
+                            .validate(this.jsonNodeConverter.convert(jsonTree));
+                }
+            } catch (ValidationException e) {
+                validationException = new ViolationLimit(maxErrors).apply(e);
+            }
+            handleValidationResult(parameter, System.nanoTime() - start, validationException, bindingResult);
+            return this.objectMapper.readerFor(getJavaType(parameter)).readValue(jsonTree);
+        } catch (IOException e) {
+            throw new ServerWebInputException("Failed to read HTTP message", parameter, e);
+        }
+    }
+
+    private Object validateStreamAndBind(MethodParameter parameter, Schema schema, CapturedRequestBody requestBody, BindingResult bindingResult, int maxErrors) {
+        try {
+            long start = this.jsonSchemaValidationMetrics.isEnabled() ? System.nanoTime() : 0;
+            ValidationException validationException = null;
+            try (JsonParser parser = this.objectMapper.getFactory().createParser(requestBody.getInputStream())) {
+                this.streamingJsonSchemaValidator.validate(schema, parser, maxErrors);
+            } catch (ValidationException e) {
+                validationException = e;
+            }
+            handleValidationResult(parameter, System.nanoTime() - start, validationException, bindingResult);
+            return this.objectMapper.readerFor(getJavaType(parameter)).readValue(requestBody.getInputStream());
+        } catch (IOException e) {
+            throw new ServerWebInputException("Failed to read HTTP message", parameter, e);
+        }
+    }
+
+    /**
+     * Validates the batch request body element by element and binds all elements in a single pass,
+     * since the captured request body is released once the argument is resolved.
+     * Strict validation stops binding at the first invalid element.
+     * @see JsonBatchReader
+     */
+    private Object validateBatchAndBind(MethodParameter parameter, JsonRequestBodyMetadata metadata, Schema schema, CapturedRequestBody requestBody,
+                                        BindingResult bindingResult, int maxErrors) {
+        try {
+            JsonBatchReader batchReader = new JsonBatchReader(this.objectMapper, this.streamingJsonSchemaValidator);
+            JsonBatchReader.BatchValidation validation = new JsonBatchReader.BatchValidation(schema, maxErrors, metadata.isStrict());
+            Object argument = batchReader.read(requestBody.getInputStream(), metadata.getFormat(), parameter, validation);
+            handleValidationResult(parameter, validation.getValidationTime(), validation.getValidationException(), bindingResult);
+            return argument;
+        } catch (IOException e) {
+            throw new ServerWebInputException("Failed to read HTTP message", parameter, e);
+        }
+    }
+
+    /**
+     * Records the validation and converts schema violations to binding errors.
+     * @param validationTime duration of the validation in nanoseconds
+     */
+    private void handleValidationResult(MethodParameter parameter, long validationTime, ValidationException validationException, BindingResult bindingResult) {
+        if (this.jsonSchemaValidationMetrics.isEnabled()) {
+            this.jsonSchemaValidationMetrics.recordValidation(parameter, validationTime, validationException);
+        }
+        if (validationException != null) {
+            this.validationExceptionMediator.convert(validationException, bindingResult);
+        }
+    }
+
+    /**
+     * Resolves the JSON schema resource and retrieves the compiled schema. A cached schema is
+     * returned on the calling thread, while a schema that is not cached is loaded and compiled
+     * on the schema loading scheduler, since reading the resource may block.
+     * <p>
+     *     The resource is resolved on the calling thread, as the resolvers of this library
+     *     only compute the resource location.
+     * </p>
+     */
+    private Mono<Schema> getJsonSchema(MethodParameter parameter, ServerWebExchange exchange) {
+        return Mono.defer(() -> {
+            long start = this.jsonSchemaValidationMetrics.isEnabled() ? System.nanoTime() : 0;
+            Resource jsonSchemaResource = resolveJsonSchemaResource(parameter, exchange);
+            Schema schema = this.jsonSchemaCache.getCachedSchema(jsonSchemaResource);
+            if (schema != null) {
+                if (this.jsonSchemaValidationMetrics.isEnabled()) {
+                    this.jsonSchemaValidationMetrics.recordSchemaLookup(parameter, System.nanoTime() - start, true);
+                }
+                return Mono.just(schema);
+            }
+            return Mono.fromCallable(() -> loadJsonSchema(parameter, jsonSchemaResource, start))
+                    .subscribeOn(this.schemaLoadingScheduler);
+        });
+    }
+
+    /**
+     * Retrieves the compiled schema, loading it upon cache miss.
+     * @param start start of the schema lookup in nanoseconds, when metrics are enabled
+     */
+    private Schema loadJsonSchema(MethodParameter parameter, Resource jsonSchemaResource, long start) {
+        if (!this.jsonSchemaValidationMetrics.isEnabled()) {
+            return this.jsonSchemaCache.getSchema(jsonSchemaResource, this.jsonSchemaLoader::load);
+        }
+        AtomicBoolean loaded = new AtomicBoolean();
+        Schema schema = this.jsonSchemaCache.getSchema(jsonSchemaResource, resource -> {
+            loaded.set(true);
+            return this.jsonSchemaLoader.load(resource);
+        });
+        this.jsonSchemaValidationMetrics.recordSchemaLookup(parameter, System.nanoTime() - start, !loaded.get());
+        return schema;
+    }
+
+    /**
+     * Resolves the JSON schema resource. The {@link JsonSchemaResolver} receives no request in WebFlux,
+     * therefore the version of parameters with declared versions is extracted from the exchange
+     * by the version strategy and resolved by the {@link VersionedJsonSchemaResolver}.
+     * @throws IllegalStateException when the parameter declares versions, but no version strategy is set
+     */
+    private Resource resolveJsonSchemaResource(MethodParameter parameter, ServerWebExchange exchange) {
+        if (this.jsonSchemaResolver instanceof VersionedJsonSchemaResolver) {
+            VersionedJsonSchemaResolver versionedJsonSchemaResolver = (VersionedJsonSchemaResolver) this.jsonSchemaResolver;
+            if (versionedJsonSchemaResolver.isVersioned(parameter)) {
+                if (this.versionStrategy == null) {
+                    throw new IllegalStateException("JSON schema versions of " + parameter.getMethod()
+                            + " require a version strategy of the reactive argument resolver");
+                }
+                return versionedJsonSchemaResolver.resolveVersionedJsonSchemaResource(parameter, this.versionStrategy.getVersion(exchange));
+            }
+        }
+        return this.jsonSchemaResolver.resolveJsonSchemaResource(parameter, null);
+    }
+
+    private JavaType getJavaType(MethodParameter parameter) {
+        return this.objectMapper.constructType(parameter.getNestedGenericParameterType());
+    }
+
+    /**
+     * Exposes the binding result to the subsequent {@link Errors} handler method parameter.
+     * <p>
+     *     Handler method arguments are resolved before the request body is read,
+     *     therefore a binding result publisher is exposed in the model, as
+     *     done by the <code>@ModelAttribute</code> argument resolver.
+     * </p>
+     */
+    private MonoProcessor<BindingResult> exposeBindingResult(MethodParameter parameter, BindingContext bindingContext) {
+        MonoProcessor<BindingResult> bindingResultProcessor = MonoProcessor.create();
+        String name = Conventions.getVariableNameForParameter(parameter);
+        bindingContext.getModel().addAttribute(BindingResult.MODEL_KEY_PREFIX + name, bindingResultProcessor);
+        return bindingResultProcessor;
+    }
+
+    public JsonSchemaCache getJsonSchemaCache() {
+        return this.jsonSchemaCache;
+    }
+
+    /**
+     * Sets the cache of compiled schemas. This allows to share compiled schemas
+     * with other argument resolvers.
+     */
+    public void setJsonSchemaCache(JsonSchemaCache jsonSchemaCache) {
+        this.jsonSchemaCache.removeListener(this.jsonSchemaValidatorEngines);
+        this.jsonSchemaCache = jsonSchemaCache;
+        this.jsonSchemaCache.addListener(this.jsonSchemaValidatorEngines);
+    }
+
+    /**
+     * Sets the strategy extracting the requested schema version from the exchange, which is required
+     * by parameters with declared {@link JsonRequestBody#versions() versions}, resolved
+     * by the {@link VersionedJsonSchemaResolver}.
+     */
+    public void setVersionStrategy(ReactiveVersionStrategy versionStrategy) {
+        this.versionStrategy = versionStrategy;
+    }
+
+    public void setJsonSchemaLoader(JsonSchemaLoader jsonSchemaLoader) {
+        this.jsonSchemaLoader = jsonSchemaLoader;
+    }
+
+    /**
+     * Sets the validator of parameters with {@link JsonRequestBody#parallel() parallel} validation,
+     * such as a validator with a dedicated fork-join pool. By default, the common fork-join pool is used.
+     */
+    public void setParallelJsonSchemaValidator(ParallelJsonSchemaValidator parallelJsonSchemaValidator) {
+        this.parallelJsonSchemaValidator = parallelJsonSchemaValidator;
+    }
+
+    /**
+     * Sets the registry of validation engines. This allows to register custom engines,
+     * to change the default engine and to share compiled validators with other argument resolvers.
+     */
+    public void setJsonSchemaValidatorEngines(JsonSchemaValidatorEngines jsonSchemaValidatorEngines) {
+        this.jsonSchemaCache.removeListener(this.jsonSchemaValidatorEngines);
+        this.jsonSchemaValidatorEngines = jsonSchemaValidatorEngines;
+        this.jsonSchemaCache.addListener(this.jsonSchemaValidatorEngines);
+    }
+
+    /**
+     * Sets the fraction of validated requests, between <code>0</code> and <code>1</code>,
+     * unless overridden by {@link JsonRequestBody#sampleRate()}. By default, all requests are validated.
+     */
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Sets the validator of parameters with {@link JsonRequestBody#shadow() shadow} validation,
+     * such as a validator with a dedicated executor. By default, request bodies are validated
+     * on a single background thread, which is started on the first shadow validation
+     * and shut down once this resolver is {@link #destroy() destroyed}.
+     */
+    public void setShadowJsonSchemaValidator(ShadowJsonSchemaValidator shadowJsonSchemaValidator) {
+        this.shadowJsonSchemaValidator = shadowJsonSchemaValidator;
+    }
+
+    private ShadowJsonSchemaValidator getShadowJsonSchemaValidator() {
+        ShadowJsonSchemaValidator shadowJsonSchemaValidator = this.shadowJsonSchemaValidator;
+        return shadowJsonSchemaValidator != null ? shadowJsonSchemaValidator : createShadowJsonSchemaValidator();
+    }
+
+    /**
+     * Creates the validator of shadow parameters, which parses request bodies by the object mapper of this resolver.
+     */
+    private synchronized ShadowJsonSchemaValidator createShadowJsonSchemaValidator() {
+        if (this.shadowJsonSchemaValidator == null) {
+            this.ownedShadowJsonSchemaValidator = new ShadowJsonSchemaValidator(this.objectMapper);
+            this.shadowJsonSchemaValidator = this.ownedShadowJsonSchemaValidator;
+        }
+        return this.shadowJsonSchemaValidator;
+    }
+
+    /**
+     * Shuts down the background thread of shadow validation, unless the validator has been set.
+     */
+    @Override
+    public synchronized void destroy() {
+        if (this.ownedShadowJsonSchemaValidator != null) {
+            this.ownedShadowJsonSchemaValidator.destroy();
+        }
+    }
+
+    /**
+     * Sets the pool of buffers that capture request bodies.
+     */
+    public void setRequestBodyBufferPool(RequestBodyBufferPool requestBodyBufferPool) {
+        this.requestBodyBufferPool = requestBodyBufferPool;
+    }
+
+    /**
+     * Sets the maximum size of request bodies in bytes, unless overridden by {@link JsonRequestBody#maxBodySize()}.
+     * Negative value, which is the default, allows request bodies of any size.
+     */
+    public void setMaxBodySize(long maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    /**
+     * Reports only the first schema violation for all parameters.
+     * By default, all violations are reported.
+     * @see JsonRequestBody#failFast()
+     */
+    public void setFailFast(boolean failFast) {
+        this.failFast = failFast;
+    }
+
+    /**
+     * Sets the maximum number of reported schema violations, unless overridden by {@link JsonRequestBody#maxErrors()}.
+     * Non-positive value, which is the default, reports all violations.
+     */
+    public void setMaxErrors(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Sets the bounded scheduler that validates large request bodies.
+     * By default, the {@link Schedulers#parallel() parallel} scheduler is used.
+     */
+    public void setValidationScheduler(Scheduler validationScheduler) {
+        this.validationScheduler = validationScheduler;
+    }
+
+    /**
+     * Sets the scheduler that reads and compiles schemas, which are not cached yet.
+     * The scheduler must allow blocking. By default, the {@link Schedulers#elastic() elastic} scheduler is used.
+     */
+    public void setSchemaLoadingScheduler(Scheduler schemaLoadingScheduler) {
+        this.schemaLoadingScheduler = schemaLoadingScheduler;
+    }
+
+    /**
+     * Sets the metrics recording the cost of validation.
+     * By default, no metrics are recorded.
+     */
+    public void setJsonSchemaValidationMetrics(JsonSchemaValidationMetrics jsonSchemaValidationMetrics) {
+        this.jsonSchemaValidationMetrics = jsonSchemaValidationMetrics;
+    }
+
+    /**
+     * Sets the size of request bodies in bytes from which the validation
+     * is executed on the validation scheduler instead of the calling thread.
+     */
+    public void setOffloadThreshold(int offloadThreshold) {
+        this.offloadThreshold = offloadThreshold;
+    }
+}
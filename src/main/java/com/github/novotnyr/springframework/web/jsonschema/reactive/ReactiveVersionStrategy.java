@@ -0,0 +1,55 @@
+package com.github.novotnyr.springframework.web.jsonschema.reactive;
+
+import com.github.novotnyr.springframework.web.jsonschema.VersionedJsonSchemaResolver;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.Map;
+
+/**
+ * Strategy extracting the requested schema version from the reactive request,
+ * the WebFlux counterpart of {@link VersionedJsonSchemaResolver.VersionStrategy}.
+ * @see ReactiveJsonRequestBodyArgumentResolver#setVersionStrategy(ReactiveVersionStrategy)
+ */
+@FunctionalInterface
+public interface ReactiveVersionStrategy {
+    /**
+     * @return the requested version, or {@code null} if the request does not specify any version
+     */
+    String getVersion(ServerWebExchange exchange);
+
+    /**
+     * Extracts the version from the request header, such as <code>Api-Version: v2</code>.
+     */
+    static ReactiveVersionStrategy fromHeader(String headerName) {
+        return exchange -> exchange.getRequest().getHeaders().getFirst(headerName);
+    }
+
+    /**
+     * Extracts the version from the parameter of the request content type,
+     * such as <code>Content-Type: application/json;version=v2</code>.
+     */
+    static ReactiveVersionStrategy fromMediaTypeParameter(String parameterName) {
+        return exchange -> {
+            try {
+                MediaType contentType = exchange.getRequest().getHeaders().getContentType();
+                return contentType != null ? contentType.getParameter(parameterName) : null;
+            } catch (InvalidMediaTypeException e) {
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Extracts the version from the URI template variable of the handler method mapping,
+     * such as <code>/{version}/boxes</code>.
+     */
+    static ReactiveVersionStrategy fromPathVariable(String variableName) {
+        return exchange -> {
+            Map<String, String> uriTemplateVariables = exchange.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+            return uriTemplateVariables != null ? uriTemplateVariables.get(variableName) : null;
+        };
+    }
+}
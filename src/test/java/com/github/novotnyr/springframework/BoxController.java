@@ -1,12 +1,16 @@
 package com.github.novotnyr.springframework;
 
 import com.github.novotnyr.springframework.web.jsonschema.annotation.JsonRequestBody;
+import com.github.novotnyr.springframework.web.jsonschema.annotation.PayloadFormat;
 import org.springframework.validation.Errors;
 import org.springframework.validation.Validator;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 @RestController
 public class BoxController {
     @RequestMapping(method = RequestMethod.POST, value = "/boxes")
@@ -19,6 +23,81 @@ public class BoxController {
 
     }
 
+    @RequestMapping(method = RequestMethod.POST, value = "/boxes", params = "singleParse")
+    public BoxRequest registerInSingleParse(@JsonRequestBody(schemaPath = "boxcontroller#register", singleParse = true) BoxRequest request) {
+        return request;
+    }
+
+    @RequestMapping(method = RequestMethod.POST, value = "/boxes", params = "streaming")
+    public void registerInStreaming(@JsonRequestBody(schemaPath = "boxcontroller#register", streaming = true) BoxRequest request) {
+
+    }
+
+    @RequestMapping(method = RequestMethod.POST, value = "/boxes/all", params = "streaming")
+    public int registerAllInStreaming(@JsonRequestBody(schemaPath = "boxcontroller#registerAll", streaming = true, validateBeforeBinding = true) List<BoxRequest> requests) {
+        return requests.size();
+    }
+
+    @RequestMapping(method = RequestMethod.POST, value = "/boxes", params = "compiled")
+    public void registerCompiled(@JsonRequestBody(schemaPath = "boxcontroller#register", engine = "compiled") BoxRequest request) {
+
+    }
+
+    @RequestMapping(method = RequestMethod.POST, value = "/boxes", params = "limited")
+    public void registerLimited(@JsonRequestBody(schemaPath = "boxcontroller#register", maxBodySize = 64) BoxRequest request) {
+
+    }
+
+    @RequestMapping(method = RequestMethod.POST, value = "/boxes", params = "echo")
+    public BoxRequest registerAndEcho(@JsonRequestBody(schemaPath = "boxcontroller#register") BoxRequest request) {
+        return request;
+    }
+
+    @RequestMapping(method = RequestMethod.POST, value = "/boxes", params = "validateBeforeBinding")
+    public void registerValidatingBeforeBinding(@JsonRequestBody(schemaPath = "boxcontroller#register", validateBeforeBinding = true) BoxRequest request) {
+
+    }
+
+    @RequestMapping(method = RequestMethod.POST, value = "/boxes", params = "failFast")
+    public void registerFailingFast(@JsonRequestBody(schemaPath = "boxcontroller#register", failFast = true) BoxRequest request) {
+
+    }
+
+    @RequestMapping(method = RequestMethod.POST, value = "/boxes", params = "compiledFailFast")
+    public void registerCompiledFailingFast(@JsonRequestBody(schemaPath = "boxcontroller#register", engine = "compiled", failFast = true) BoxRequest request) {
+
+    }
+
+    @RequestMapping(method = RequestMethod.POST, value = "/boxes", params = "maxErrors")
+    public ApiError registerLaxlyWithMaxErrors(@JsonRequestBody(schemaPath = "boxcontroller#register", strict = false, maxErrors = 1) BoxRequest request, Errors errors) {
+        return ApiError.of(errors);
+    }
+
+    @RequestMapping(method = RequestMethod.POST, value = "/boxes", params = "unsampled")
+    public void registerUnsampled(@JsonRequestBody(schemaPath = "boxcontroller#register", sampleRate = 0) BoxRequest request) {
+
+    }
+
+    @RequestMapping(method = RequestMethod.POST, value = "/boxes", params = "shadow")
+    public void registerInShadowMode(@JsonRequestBody(schemaPath = "boxcontroller#register", shadow = true) BoxRequest request) {
+
+    }
+
+    @RequestMapping(method = RequestMethod.POST, value = "/boxes/batch")
+    public int registerBatch(@JsonRequestBody(schemaPath = "boxcontroller#register", format = PayloadFormat.JSON_ARRAY) List<BoxRequest> requests) {
+        return requests.size();
+    }
+
+    @RequestMapping(method = RequestMethod.POST, value = "/boxes/batch", params = "laxly")
+    public ApiError registerBatchLaxly(@JsonRequestBody(schemaPath = "boxcontroller#register", format = PayloadFormat.NDJSON, strict = false) List<BoxRequest> requests, Errors errors) {
+        return ApiError.of(errors);
+    }
+
+    @RequestMapping(method = RequestMethod.POST, value = "/boxes/batch", params = "stream")
+    public long registerBatchStream(@JsonRequestBody(schemaPath = "boxcontroller#register", format = PayloadFormat.NDJSON) Stream<BoxRequest> requests) {
+        return requests.filter(request -> request.getCount() > 1).count();
+    }
+
     @RequestMapping(method = RequestMethod.POST, value = "/unavailable-schema")
     public void registerWithUnavailableSchema(@JsonRequestBody(schemaPath = "unavailable-schema") BoxRequest request) {
 
@@ -1,15 +1,45 @@
 package com.github.novotnyr.springframework;
 
+import com.github.novotnyr.springframework.web.jsonschema.JsonRequestBodyArgumentResolver;
+import com.github.novotnyr.springframework.web.jsonschema.JsonRequestBodyArgumentResolverRegisteringBeanPostProcessor;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaCache;
+import com.github.novotnyr.springframework.web.jsonschema.ValidationResultCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 public class BoxControllerTest extends AbstractControllerTest {
+    @Autowired
+    private JsonRequestBodyArgumentResolverRegisteringBeanPostProcessor jsonRequestBodyArgumentResolverRegisteringBeanPostProcessor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RequestMappingHandlerAdapter requestMappingHandlerAdapter;
 
     @Test
     public void testPostOk() throws Exception {
@@ -126,4 +156,598 @@ public class BoxControllerTest extends AbstractControllerTest {
                 .andExpect(status().is(422));
     }
 
+    @Test
+    public void testSchemaIsCompiledOnce() throws Exception {
+        JsonSchemaCache jsonSchemaCache = this.jsonRequestBodyArgumentResolverRegisteringBeanPostProcessor.getJsonSchemaCache();
+        jsonSchemaCache.invalidateAll();
+        long missCount = jsonSchemaCache.getMissCount();
+        long hitCount = jsonSchemaCache.getHitCount();
+
+        for (int i = 0; i < 3; i++) {
+            this.mvc.perform(
+                    post("/boxes?laxly=true")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(new JSONObject().toString())
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().is(200));
+        }
+
+        assertEquals(1, jsonSchemaCache.getMissCount() - missCount);
+        assertEquals(2, jsonSchemaCache.getHitCount() - hitCount);
+    }
+
+    @Test
+    public void testValidationMetricsAreRecorded() throws Exception {
+        double requiredErrorCount = this.meterRegistry.counter("jsonschema.validation.errors", "handler", "BoxController#register", "keyword", "required").count();
+        long invalidCount = this.meterRegistry.timer("jsonschema.validation", "handler", "BoxController#register", "outcome", "invalid").count();
+
+        this.mvc.perform(
+                post("/boxes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new JSONObject().toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(422));
+
+        assertEquals(1, this.meterRegistry.timer("jsonschema.validation", "handler", "BoxController#register", "outcome", "invalid").count() - invalidCount);
+        assertEquals(2, this.meterRegistry.counter("jsonschema.validation.errors", "handler", "BoxController#register", "keyword", "required").count() - requiredErrorCount, 0);
+        assertTrue(this.meterRegistry.get("jsonschema.request.body.size").tag("handler", "BoxController#register").summary().count() > 0);
+    }
+
+    @Test
+    public void testPostUnsampled() throws Exception {
+        this.mvc.perform(
+                post("/boxes?unsampled")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new JSONObject().toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().is(200));
+    }
+
+    @Test
+    public void testPostInShadowMode() throws Exception {
+        Timer invalidTimer = this.meterRegistry.timer("jsonschema.validation", "handler", "BoxController#registerInShadowMode", "outcome", "invalid");
+        long invalidCount = invalidTimer.count();
+
+        this.mvc.perform(
+                post("/boxes?shadow")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new JSONObject().toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().is(200));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (invalidTimer.count() == invalidCount && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, invalidTimer.count() - invalidCount);
+    }
+
+    @Test
+    public void testReplayCachedValidationResult() throws Exception {
+        ValidationResultCache validationResultCache = new ValidationResultCache();
+        JsonRequestBodyArgumentResolver argumentResolver = getJsonRequestBodyArgumentResolver();
+        argumentResolver.setValidationResultCache(validationResultCache);
+        try {
+            for (int i = 0; i < 2; i++) {
+                this.mvc.perform(
+                        post("/boxes")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(new JSONObject().toString())
+                                .accept(MediaType.APPLICATION_JSON))
+                        .andDo(print())
+                        .andExpect(jsonPath("error.validation.field[0].code").value("required-field"))
+                        .andExpect(jsonPath("error.validation.field[0].name").value("count"))
+                        .andExpect(status().is(422));
+            }
+            assertEquals(1, validationResultCache.getMissCount());
+            assertEquals(1, validationResultCache.getHitCount());
+        } finally {
+            argumentResolver.setValidationResultCache(null);
+        }
+    }
+
+    private JsonRequestBodyArgumentResolver getJsonRequestBodyArgumentResolver() {
+        for (HandlerMethodArgumentResolver argumentResolver : this.requestMappingHandlerAdapter.getArgumentResolvers()) {
+            if (argumentResolver instanceof JsonRequestBodyArgumentResolver) {
+                return (JsonRequestBodyArgumentResolver) argumentResolver;
+            }
+        }
+        throw new IllegalStateException("No JSON request body argument resolver is registered");
+    }
+
+    @Test
+    public void testPostInSingleParse() throws Exception {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("count", 1);
+        JSONObject inner = new JSONObject();
+        jsonObject.put("inner", inner);
+        inner.put("innerId", "1");
+        inner.put("innerName", "innerN");
+
+        this.mvc.perform(
+                post("/boxes?singleParse=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonObject.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(jsonPath("count").value(1))
+                .andExpect(jsonPath("inner.innerName").value("innerN"))
+                .andExpect(status().is(200));
+    }
+
+    @Test
+    public void testPostInnerInSingleParse() throws Exception {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("count", 1);
+        JSONObject inner = new JSONObject();
+        jsonObject.put("inner", inner);
+
+        this.mvc.perform(
+                post("/boxes?singleParse=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonObject.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(jsonPath("error.validation.field[0].code").value("required-field"))
+                .andExpect(jsonPath("error.validation.field[0].name").value("inner.innerId"))
+                .andExpect(jsonPath("error.validation.field[1].code").value("required-field"))
+                .andExpect(jsonPath("error.validation.field[1].name").value("inner.innerName"))
+                .andExpect(status().is(422));
+    }
+
+    @Test
+    public void testPostWithTypeMismatchInSingleParse() throws Exception {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("count", 12);
+        jsonObject.put("id", "yes");
+        JSONObject inner = new JSONObject();
+        jsonObject.put("inner", inner);
+        inner.put("innerId", "1");
+        inner.put("innerName", "innerN");
+
+        this.mvc.perform(
+                post("/boxes?singleParse=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonObject.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("error.validation.field[0].code").value("invalid-property"))
+                .andExpect(jsonPath("error.validation.field[0].name").value("id"))
+                .andDo(print())
+                .andExpect(status().is(422));
+    }
+
+    @Test
+    public void testPostInStreaming() throws Exception {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("count", 1);
+        JSONObject inner = new JSONObject();
+        jsonObject.put("inner", inner);
+        inner.put("innerId", "1");
+        inner.put("innerName", "innerN");
+
+        this.mvc.perform(
+                post("/boxes?streaming=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonObject.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().is(200));
+    }
+
+    @Test
+    public void testPostInnerInStreaming() throws Exception {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("count", 1);
+        JSONObject inner = new JSONObject();
+        jsonObject.put("inner", inner);
+
+        this.mvc.perform(
+                post("/boxes?streaming=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonObject.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(jsonPath("error.validation.field[0].code").value("required-field"))
+                .andExpect(jsonPath("error.validation.field[0].name").value("inner.innerId"))
+                .andExpect(jsonPath("error.validation.field[1].code").value("required-field"))
+                .andExpect(jsonPath("error.validation.field[1].name").value("inner.innerName"))
+                .andExpect(status().is(422));
+    }
+
+    @Test
+    public void testPostArrayWithInvalidItemInStreaming() throws Exception {
+        JSONObject invalidBox = validBox(2);
+        invalidBox.getJSONObject("inner").remove("innerId");
+        JSONObject mistypedBox = validBox(3);
+        mistypedBox.put("inner", new JSONArray());
+        JSONArray boxes = new JSONArray().put(validBox(1)).put(invalidBox).put(mistypedBox);
+
+        this.mvc.perform(
+                post("/boxes/all?streaming=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(boxes.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(jsonPath("error.validation.field[0].code").value("required-field"))
+                .andExpect(jsonPath("error.validation.field[0].name").value("[1].inner.innerId"))
+                .andExpect(jsonPath("error.validation.field[1].code").value("type"))
+                .andExpect(jsonPath("error.validation.field[1].name").value("[2].inner"))
+                .andExpect(status().is(422));
+    }
+
+    @Test
+    public void testPostInStreamingWithoutInner() throws Exception {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("count", 1);
+
+        this.mvc.perform(
+                post("/boxes?streaming=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonObject.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(jsonPath("error.validation.field[0].code").value("required-field"))
+                .andExpect(jsonPath("error.validation.field[0].name").value("inner"))
+                .andExpect(status().is(422));
+    }
+
+    @Test
+    public void testPostCompiled() throws Exception {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("count", 1);
+        JSONObject inner = new JSONObject();
+        jsonObject.put("inner", inner);
+        inner.put("innerId", "1");
+        inner.put("innerName", "innerN");
+
+        this.mvc.perform(
+                post("/boxes?compiled")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonObject.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().is(200));
+    }
+
+    @Test
+    public void testPostInnerCompiled() throws Exception {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("count", 1);
+        JSONObject inner = new JSONObject();
+        jsonObject.put("inner", inner);
+
+        this.mvc.perform(
+                post("/boxes?compiled")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonObject.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(jsonPath("error.validation.field[0].code").value("required-field"))
+                .andExpect(jsonPath("error.validation.field[0].name").value("inner.innerId"))
+                .andExpect(jsonPath("error.validation.field[1].code").value("required-field"))
+                .andExpect(jsonPath("error.validation.field[1].name").value("inner.innerName"))
+                .andExpect(status().is(422));
+    }
+
+    @Test
+    public void testPostLimited() throws Exception {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("count", 1);
+        JSONObject inner = new JSONObject();
+        jsonObject.put("inner", inner);
+        inner.put("innerId", "1");
+        inner.put("innerName", "innerN");
+
+        this.mvc.perform(
+                post("/boxes?limited=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonObject.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().is(200));
+    }
+
+    @Test
+    public void testPostLimitedWithTooLargeBody() throws Exception {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("count", 1);
+        jsonObject.put("name", "a box with a name that is way too long for the limit");
+        JSONObject inner = new JSONObject();
+        jsonObject.put("inner", inner);
+        inner.put("innerId", "1");
+        inner.put("innerName", "innerN");
+
+        this.mvc.perform(
+                post("/boxes?limited=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonObject.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().is(413));
+    }
+
+    @Test
+    public void testPostGzipCompressed() throws Exception {
+        this.mvc.perform(
+                post("/boxes?echo=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .content(gzip(validBox(1).toString()))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(jsonPath("count").value(1))
+                .andExpect(jsonPath("inner.innerName").value("innerN"))
+                .andExpect(status().is(200));
+    }
+
+    @Test
+    public void testPostInnerGzipCompressed() throws Exception {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("count", 1);
+        jsonObject.put("inner", new JSONObject());
+
+        this.mvc.perform(
+                post("/boxes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .content(gzip(jsonObject.toString()))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(jsonPath("error.validation.field[0].code").value("required-field"))
+                .andExpect(jsonPath("error.validation.field[0].name").value("inner.innerId"))
+                .andExpect(status().is(422));
+    }
+
+    @Test
+    public void testPostDeflateCompressedInSingleParse() throws Exception {
+        ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+        try (OutputStream outputStream = new DeflaterOutputStream(deflated)) {
+            outputStream.write(validBox(1).toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        this.mvc.perform(
+                post("/boxes?singleParse=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "deflate")
+                        .content(deflated.toByteArray())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(jsonPath("count").value(1))
+                .andExpect(status().is(200));
+    }
+
+    @Test
+    public void testPostLimitedWithTooLargeDecompressedBody() throws Exception {
+        JSONObject jsonObject = validBox(1);
+        jsonObject.put("name", "a box with a name that is way too long for the limit");
+
+        byte[] compressedBody = gzip(jsonObject.toString());
+        assertTrue(compressedBody.length < jsonObject.toString().length());
+        this.mvc.perform(
+                post("/boxes?limited=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .content(compressedBody)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().is(413));
+    }
+
+    @Test
+    public void testPostDecompressionBomb() throws Exception {
+        char[] padding = new char[4 * 1024 * 1024];
+        Arrays.fill(padding, ' ');
+
+        this.mvc.perform(
+                post("/boxes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .content(gzip(new String(padding) + validBox(1)))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().is(413));
+    }
+
+    @Test
+    public void testPostMalformedGzipCompressed() throws Exception {
+        this.mvc.perform(
+                post("/boxes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .content(validBox(1).toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().is(422));
+    }
+
+    @Test
+    public void testPostWithUnsupportedContentEncoding() throws Exception {
+        this.mvc.perform(
+                post("/boxes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "br")
+                        .content(validBox(1).toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().is(415));
+    }
+
+    @Test
+    public void testPostValidatingBeforeBinding() throws Exception {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("count", 1);
+        JSONObject inner = new JSONObject();
+        jsonObject.put("inner", inner);
+        inner.put("innerId", "1");
+        inner.put("innerName", "innerN");
+
+        this.mvc.perform(
+                post("/boxes?validateBeforeBinding=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonObject.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().is(200));
+    }
+
+    @Test
+    public void testPostWithTypeMismatchValidatingBeforeBinding() throws Exception {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("id", "yes");
+
+        this.mvc.perform(
+                post("/boxes?validateBeforeBinding=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonObject.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(jsonPath("error.validation.field[0].code").value("required-field"))
+                .andExpect(jsonPath("error.validation.field[0].name").value("count"))
+                .andExpect(status().is(422));
+    }
+
+    @Test
+    public void testPostFailingFast() throws Exception {
+        JSONObject jsonObject = new JSONObject();
+
+        this.mvc.perform(
+                post("/boxes?failFast=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonObject.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(jsonPath("error.validation.field[0].code").value("required-field"))
+                .andExpect(jsonPath("error.validation.field[0].name").value("count"))
+                .andExpect(jsonPath("error.validation.field[1]").doesNotExist())
+                .andExpect(status().is(422));
+    }
+
+    @Test
+    public void testPostCompiledFailingFast() throws Exception {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("inner", new JSONObject());
+
+        this.mvc.perform(
+                post("/boxes?compiledFailFast=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonObject.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(jsonPath("error.validation.field[0].code").value("required-field"))
+                .andExpect(jsonPath("error.validation.field[1]").doesNotExist())
+                .andExpect(status().is(422));
+    }
+
+    @Test
+    public void testPostLaxlyWithMaxErrors() throws Exception {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("inner", new JSONObject());
+
+        this.mvc.perform(
+                post("/boxes?maxErrors=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonObject.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(jsonPath("error.validation.field[0].code").value("required-field"))
+                .andExpect(jsonPath("error.validation.field[0].name").value("inner.innerId"))
+                .andExpect(jsonPath("error.validation.field[1]").doesNotExist())
+                .andExpect(status().is(200));
+    }
+
+    @Test
+    public void testPostBatch() throws Exception {
+        JSONArray jsonArray = new JSONArray();
+        jsonArray.put(validBox(1));
+        jsonArray.put(validBox(2));
+
+        this.mvc.perform(
+                post("/boxes/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonArray.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(content().string("2"))
+                .andExpect(status().is(200));
+    }
+
+    @Test
+    public void testPostInvalidBatch() throws Exception {
+        JSONArray jsonArray = new JSONArray();
+        jsonArray.put(validBox(1));
+        jsonArray.put(validBox(2).put("inner", new JSONObject()));
+
+        this.mvc.perform(
+                post("/boxes/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonArray.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(jsonPath("error.validation.field[0].code").value("required-field"))
+                .andExpect(jsonPath("error.validation.field[0].name").value("[1].inner.innerId"))
+                .andExpect(jsonPath("error.validation.field[1].name").value("[1].inner.innerName"))
+                .andExpect(status().is(422));
+    }
+
+    @Test
+    public void testPostBatchLaxly() throws Exception {
+        String ndjson = validBox(1) + "\n" + new JSONObject().put("inner", validBox(2).get("inner")) + "\n";
+
+        this.mvc.perform(
+                post("/boxes/batch?laxly=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ndjson)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(jsonPath("error.validation.field[0].code").value("required-field"))
+                .andExpect(jsonPath("error.validation.field[0].name").value("[1].count"))
+                .andExpect(status().is(200));
+    }
+
+    @Test
+    public void testPostBatchAsStream() throws Exception {
+        String ndjson = validBox(1) + "\n" + validBox(2) + "\n" + validBox(3) + "\n";
+
+        this.mvc.perform(
+                post("/boxes/batch?stream=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ndjson)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(content().string("2"))
+                .andExpect(status().is(200));
+    }
+
+    @Test
+    public void testPostInvalidBatchAsStream() throws Exception {
+        String ndjson = validBox(1) + "\n" + validBox(2).put("inner", new JSONObject()) + "\n" + validBox(3) + "\n";
+
+        this.mvc.perform(
+                post("/boxes/batch?stream=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ndjson)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(jsonPath("error.validation.field[0].code").value("required-field"))
+                .andExpect(jsonPath("error.validation.field[0].name").value("[1].inner.innerId"))
+                .andExpect(status().is(422));
+    }
+
+    private byte[] gzip(String json) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream outputStream = new GZIPOutputStream(compressed)) {
+            outputStream.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+        return compressed.toByteArray();
+    }
+
+    private JSONObject validBox(int count) {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("count", count);
+        jsonObject.put("inner", new JSONObject().put("innerId", String.valueOf(count)).put("innerName", "innerN"));
+        return jsonObject;
+    }
+
 }
@@ -0,0 +1,144 @@
+package com.github.novotnyr.springframework;
+
+import com.github.novotnyr.springframework.web.jsonschema.CompiledJsonSchema;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.everit.json.schema.loader.SchemaLoader;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Conformance of compiled schemas to the Everit validation.
+ */
+public class CompiledJsonSchemaTest {
+    private static final String ORDER_SCHEMA = "{ \"type\": \"object\", \"required\": [\"id\", \"items\"],"
+            + " \"maxProperties\": 4, \"properties\": {"
+            + " \"id\": { \"type\": \"string\", \"pattern\": \"^ORD-\", \"maxLength\": 10 },"
+            + " \"customer\": { \"$ref\": \"#/definitions/customer\" },"
+            + " \"note\": { \"type\": [\"string\", \"null\"] },"
+            + " \"items\": { \"type\": \"array\", \"minItems\": 1, \"maxItems\": 5, \"items\": { \"type\": \"object\", \"required\": [\"sku\"],"
+            + "   \"properties\": { \"sku\": { \"type\": \"string\", \"minLength\": 3 },"
+            + "     \"quantity\": { \"type\": \"integer\", \"minimum\": 1, \"maximum\": 100, \"exclusiveMaximum\": true },"
+            + "     \"price\": { \"type\": \"number\", \"minimum\": 0 },"
+            + "     \"gift\": { \"type\": \"boolean\" },"
+            + "     \"size\": { \"enum\": [\"S\", \"M\", \"L\"] },"
+            + "     \"packaging\": { \"oneOf\": [ { \"type\": \"string\" }, { \"type\": \"integer\", \"minimum\": 1 } ] },"
+            + "     \"tags\": { \"type\": \"array\", \"items\": [ { \"type\": \"string\" } ], \"additionalItems\": { \"type\": \"integer\" } } },"
+            + "   \"additionalProperties\": false } } },"
+            + " \"additionalProperties\": { \"type\": [\"integer\", \"string\"] },"
+            + " \"definitions\": { \"customer\": { \"type\": \"object\", \"properties\": {"
+            + "   \"email\": { \"type\": \"string\", \"format\": \"email\" },"
+            + "   \"referrer\": { \"$ref\": \"#/definitions/customer\" } } } } }";
+
+    private final Schema schema = SchemaLoader.load(new JSONObject(ORDER_SCHEMA));
+
+    private final CompiledJsonSchema compiledJsonSchema = CompiledJsonSchema.compile(this.schema);
+
+    @Test
+    public void testValidOrders() {
+        for (JSONObject order : validOrders()) {
+            assertConforms(order);
+            assertTrue(order.toString(), this.compiledJsonSchema.isValid(order));
+        }
+    }
+
+    @Test
+    public void testInvalidOrders() {
+        for (JSONObject order : invalidOrders()) {
+            assertConforms(order);
+            assertFalse(order.toString(), this.compiledJsonSchema.isValid(order));
+        }
+    }
+
+    @Test
+    public void testRecursiveSchema() {
+        JSONObject customer = new JSONObject().put("email", "a@example.com")
+                .put("referrer", new JSONObject().put("referrer", new JSONObject().put("email", "invalid")));
+        JSONObject order = order().put("customer", customer);
+
+        assertConforms(order);
+        assertFalse(this.compiledJsonSchema.isValid(order));
+    }
+
+    private List<JSONObject> validOrders() {
+        return Arrays.asList(
+                order(),
+                order().put("note", JSONObject.NULL),
+                order().put("note", "Leave at the door").put("discount", 10),
+                order().put("customer", new JSONObject().put("email", "a@example.com")),
+                order().put("items", new JSONArray().put(item().put("quantity", 99).put("price", 0.5).put("gift", true))),
+                order().put("items", new JSONArray().put(item().put("size", "M").put("packaging", 2))),
+                order().put("items", new JSONArray().put(item().put("packaging", "box").put("tags", new JSONArray().put("new").put(1).put(2)))),
+                order().put("items", new JSONArray().put(item()).put(item()).put(item()).put(item()).put(item()))
+        );
+    }
+
+    private List<JSONObject> invalidOrders() {
+        return Arrays.asList(
+                new JSONObject().put("id", "ORD-1"),
+                order().put("id", 1),
+                order().put("id", "ORDER-1"),
+                order().put("id", "ORD-1234567"),
+                order().put("note", 1),
+                order().put("discount", JSONObject.NULL),
+                order().put("customer", "john"),
+                order().put("customer", new JSONObject().put("email", "invalid")),
+                order().put("a", 1).put("b", 2).put("c", 3),
+                order().put("items", new JSONArray()),
+                order().put("items", new JSONArray().put(item()).put(item()).put(item()).put(item()).put(item()).put(item())),
+                order().put("items", new JSONArray().put("SKU-1")),
+                order().put("items", new JSONArray().put(new JSONObject().put("quantity", 1))),
+                order().put("items", new JSONArray().put(item().put("sku", "AB"))),
+                order().put("items", new JSONArray().put(item().put("color", "red"))),
+                order().put("items", new JSONArray().put(item().put("quantity", 0))),
+                order().put("items", new JSONArray().put(item().put("quantity", 100))),
+                order().put("items", new JSONArray().put(item().put("quantity", 1.5))),
+                order().put("items", new JSONArray().put(item().put("quantity", "1"))),
+                order().put("items", new JSONArray().put(item().put("price", -1))),
+                order().put("items", new JSONArray().put(item().put("gift", "yes"))),
+                order().put("items", new JSONArray().put(item().put("size", "XL"))),
+                order().put("items", new JSONArray().put(item().put("packaging", 0))),
+                order().put("items", new JSONArray().put(item().put("packaging", true))),
+                order().put("items", new JSONArray().put(item().put("tags", new JSONArray().put(1)))),
+                order().put("items", new JSONArray().put(item().put("tags", new JSONArray().put("new").put("sale"))))
+        );
+    }
+
+    private JSONObject order() {
+        return new JSONObject().put("id", "ORD-1").put("items", new JSONArray().put(item()));
+    }
+
+    private JSONObject item() {
+        return new JSONObject().put("sku", "SKU-1").put("quantity", 1);
+    }
+
+    /**
+     * Asserts that the compiled schema reports the same violations as Everit.
+     */
+    private void assertConforms(JSONObject order) {
+        ValidationException everitException = validate(() -> this.schema.validate(order));
+        ValidationException compiledException = validate(() -> this.compiledJsonSchema.validate(order));
+
+        assertEquals(order.toString(), everitException == null, compiledException == null);
+        if (everitException != null) {
+            assertEquals(order.toString(), everitException.getAllMessages(), compiledException.getAllMessages());
+        }
+    }
+
+    private ValidationException validate(Runnable validation) {
+        try {
+            validation.run();
+            return null;
+        } catch (ValidationException e) {
+            return e;
+        }
+    }
+}
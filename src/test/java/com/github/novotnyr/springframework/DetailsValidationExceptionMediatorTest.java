@@ -0,0 +1,95 @@
+package com.github.novotnyr.springframework;
+
+import com.github.novotnyr.springframework.web.jsonschema.DetailsValidationExceptionMediator;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.everit.json.schema.loader.SchemaLoader;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.MapBindingResult;
+
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class DetailsValidationExceptionMediatorTest {
+    private static final String ORDER_SCHEMA = "{ \"type\": \"object\", \"required\": [\"id\"], \"properties\": {"
+            + " \"items\": { \"type\": \"array\", \"items\": { \"type\": \"object\", \"required\": [\"name\"],"
+            + "   \"properties\": { \"quantity\": { \"type\": \"integer\", \"minimum\": 1 } } } },"
+            + " \"a/b\": { \"type\": \"string\", \"maxLength\": 1 } } }";
+
+    private final DetailsValidationExceptionMediator mediator = new DetailsValidationExceptionMediator();
+
+    @Test
+    public void testConvertArrayItemViolations() {
+        JSONObject order = new JSONObject()
+                .put("id", 1)
+                .put("items", new JSONArray()
+                        .put(new JSONObject().put("name", "n"))
+                        .put(new JSONObject().put("quantity", 0)));
+
+        BindingResult bindingResult = convert(order);
+
+        assertEquals(2, bindingResult.getErrorCount());
+        assertFieldError(bindingResult.getFieldErrors().get(0), "items[1].quantity", "minimum");
+        assertFieldError(bindingResult.getFieldErrors().get(1), "items[1].name", "required-field");
+    }
+
+    @Test
+    public void testConvertEscapedPointer() {
+        BindingResult bindingResult = convert(new JSONObject().put("id", 1).put("a/b", "xyz"));
+
+        assertFieldError(bindingResult.getFieldError(), "a/b", "max-length");
+    }
+
+    @Test
+    public void testConvertRootViolation() {
+        BindingResult bindingResult = convert(new JSONArray());
+
+        assertEquals(1, bindingResult.getGlobalErrorCount());
+        assertEquals("type", bindingResult.getGlobalError().getCode());
+    }
+
+    @Test
+    public void testConvertToBeanWithoutViolatingProperty() {
+        BindingResult bindingResult = new BeanPropertyBindingResult(new BoxRequest(), "request");
+        this.mediator.convert(validate(new JSONObject().put("id", 1).put("items", new JSONArray().put(new JSONObject()))), bindingResult);
+
+        assertFieldError(bindingResult.getFieldError(), "items[0].name", "required-field");
+    }
+
+    @Test
+    public void testConvertBeyondMaxDepth() {
+        this.mediator.setMaxDepth(0);
+        BindingResult bindingResult = convert(new JSONObject().put("a/b", 1));
+
+        assertEquals(1, bindingResult.getErrorCount());
+    }
+
+    private BindingResult convert(Object json) {
+        BindingResult bindingResult = new MapBindingResult(new HashMap<>(), "order");
+        this.mediator.convert(validate(json), bindingResult);
+        return bindingResult;
+    }
+
+    private ValidationException validate(Object json) {
+        Schema schema = SchemaLoader.load(new JSONObject(ORDER_SCHEMA));
+        try {
+            schema.validate(json);
+        } catch (ValidationException e) {
+            return e;
+        }
+        fail("JSON must be invalid");
+        return null;
+    }
+
+    private void assertFieldError(FieldError fieldError, String field, String code) {
+        assertEquals(field, fieldError.getField());
+        assertEquals(code, fieldError.getCode());
+    }
+}
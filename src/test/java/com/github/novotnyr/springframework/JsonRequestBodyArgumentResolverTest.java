@@ -0,0 +1,101 @@
+package com.github.novotnyr.springframework;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.novotnyr.springframework.web.jsonschema.JsonRequestBodyArgumentResolver;
+import com.github.novotnyr.springframework.web.jsonschema.RequestBodyTooLargeException;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.annotation.ResponseStatusExceptionResolver;
+import org.springframework.web.servlet.mvc.method.annotation.RequestResponseBodyMethodProcessor;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+
+public class JsonRequestBodyArgumentResolverTest {
+    private final MethodParameter parameter = new MethodParameter(
+            ClassUtils.getMethod(BoxController.class, "register", BoxRequest.class), 0);
+
+    @Test
+    public void testReadCapturedRequestBodyAsynchronously() throws Exception {
+        JsonRequestBodyArgumentResolver resolver = new JsonRequestBodyArgumentResolver(new ReadListenerMethodProcessor());
+        JSONObject box = new JSONObject()
+                .put("count", 1)
+                .put("inner", new JSONObject().put("innerId", "1").put("innerName", "innerN"));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/boxes");
+        request.setContentType("application/json");
+        request.setContent(box.toString().getBytes(StandardCharsets.UTF_8));
+
+        BoxRequest boxRequest = (BoxRequest) resolver.resolveArgument(this.parameter, new ModelAndViewContainer(),
+                new ServletWebRequest(request, new MockHttpServletResponse()), null);
+
+        assertEquals(Long.valueOf(1), boxRequest.getCount());
+        assertEquals("innerN", boxRequest.getInner().getInnerName());
+    }
+
+    @Test
+    public void testTooLargeRequestBodyIsPayloadTooLarge() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new ResponseStatusExceptionResolver().resolveException(new MockHttpServletRequest(), response, null, new RequestBodyTooLargeException(64));
+
+        assertEquals(413, response.getStatus());
+    }
+
+    /**
+     * Reads the request body by the non-blocking servlet API
+     */
+    private static class ReadListenerMethodProcessor extends RequestResponseBodyMethodProcessor {
+        private final ObjectMapper objectMapper = new ObjectMapper();
+
+        ReadListenerMethodProcessor() {
+            super(Collections.singletonList(new MappingJackson2HttpMessageConverter()));
+        }
+
+        @Override
+        public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer, NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
+            ServletInputStream inputStream = webRequest.getNativeRequest(HttpServletRequest.class).getInputStream();
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            CompletableFuture<byte[]> completedBody = new CompletableFuture<>();
+            inputStream.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] buffer = new byte[16];
+                    while (inputStream.isReady() && !inputStream.isFinished()) {
+                        int count = inputStream.read(buffer);
+                        if (count > 0) {
+                            body.write(buffer, 0, count);
+                        }
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    completedBody.complete(body.toByteArray());
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    completedBody.completeExceptionally(throwable);
+                }
+            });
+            return this.objectMapper.readValue(completedBody.getNow(null), parameter.getParameterType());
+        }
+    }
+}
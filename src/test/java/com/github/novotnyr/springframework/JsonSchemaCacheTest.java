@@ -0,0 +1,202 @@
+package com.github.novotnyr.springframework;
+
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaCache;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaLoader;
+import com.github.novotnyr.springframework.web.jsonschema.UnavailableJsonSchemaException;
+import org.everit.json.schema.Schema;
+import org.junit.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JsonSchemaCacheTest {
+    private final JsonSchemaLoader jsonSchemaLoader = new JsonSchemaLoader();
+
+    private final AtomicInteger loadCount = new AtomicInteger();
+
+    private final Function<Resource, Schema> schemaLoader = resource -> {
+        this.loadCount.incrementAndGet();
+        return this.jsonSchemaLoader.load(resource);
+    };
+
+    @Test
+    public void testEvictLeastRecentlyUsedSchema() {
+        JsonSchemaCache cache = new JsonSchemaCache(2);
+        Resource first = schema(1);
+        Resource second = schema(2);
+        Resource third = schema(3);
+
+        cache.getSchema(first, this.schemaLoader);
+        cache.getSchema(second, this.schemaLoader);
+        cache.getSchema(first, this.schemaLoader);
+        cache.getSchema(third, this.schemaLoader);
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.getResources().contains(first));
+        assertFalse(cache.getResources().contains(second));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testEvictByWeight() throws IOException {
+        JsonSchemaCache cache = new JsonSchemaCache();
+        Resource first = schema(1);
+        cache.setMaxWeight(2 * first.contentLength());
+
+        for (int i = 1; i <= 5; i++) {
+            cache.getSchema(schema(i), this.schemaLoader);
+        }
+
+        assertEquals(2, cache.size());
+        assertEquals(2 * first.contentLength(), cache.getWeight());
+        assertEquals(3, cache.getEvictionCount());
+        assertEquals(3 * first.contentLength(), cache.getEvictionWeight());
+    }
+
+    @Test
+    public void testKeepLoadedSchemaExceedingMaxWeight() {
+        JsonSchemaCache cache = new JsonSchemaCache();
+        cache.setMaxWeight(1);
+
+        Schema schema = cache.getSchema(schema(1), this.schemaLoader);
+
+        assertSame(schema, cache.getSchema(schema(1), this.schemaLoader));
+        assertEquals(1, this.loadCount.get());
+    }
+
+    @Test
+    public void testLoadSchemaOnceForConcurrentMisses() throws Exception {
+        JsonSchemaCache cache = new JsonSchemaCache(16);
+        Resource resource = schema(1);
+        List<Future<Schema>> schemas = getConcurrently(cache, resource, slowly(this.schemaLoader));
+
+        for (Future<Schema> schema : schemas) {
+            assertSame(schemas.get(0).get(), schema.get());
+        }
+        assertEquals(1, this.loadCount.get());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testPropagateLoadingFailureToConcurrentMisses() throws Exception {
+        JsonSchemaCache cache = new JsonSchemaCache(16);
+        Resource resource = schema(1);
+        Function<Resource, Schema> failingLoader = slowly(failingResource -> {
+            this.loadCount.incrementAndGet();
+            throw new UnavailableJsonSchemaException(failingResource, new IOException("Unavailable"));
+        });
+
+        for (Future<Schema> schema : getConcurrently(cache, resource, failingLoader)) {
+            try {
+                schema.get();
+                fail("Loading failure must be propagated");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof UnavailableJsonSchemaException);
+            }
+        }
+        assertEquals(0, cache.size());
+        cache.getSchema(resource, this.schemaLoader);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testDoNotCacheSchemaLoadedDuringInvalidation() {
+        JsonSchemaCache cache = new JsonSchemaCache();
+        Resource resource = schema(1);
+
+        cache.getSchema(resource, loadedResource -> {
+            Schema schema = this.schemaLoader.apply(loadedResource);
+            cache.invalidate(loadedResource);
+            return schema;
+        });
+
+        assertEquals(0, cache.size());
+        cache.getSchema(resource, this.schemaLoader);
+        assertEquals(2, this.loadCount.get());
+    }
+
+    @Test
+    public void testNotifyListenerOfCachedAndRemovedSchemas() {
+        JsonSchemaCache cache = new JsonSchemaCache(1);
+        List<Schema> cachedSchemas = new ArrayList<>();
+        List<Schema> removedSchemas = new ArrayList<>();
+        cache.addListener(new JsonSchemaCache.Listener() {
+            @Override
+            public void onCached(Resource jsonSchemaResource, Schema schema) {
+                cachedSchemas.add(schema);
+            }
+
+            @Override
+            public void onRemoved(Resource jsonSchemaResource, Schema schema) {
+                removedSchemas.add(schema);
+            }
+        });
+
+        Schema first = cache.getSchema(schema(1), this.schemaLoader);
+        Schema second = cache.getSchema(schema(2), this.schemaLoader);
+        cache.invalidateAll();
+
+        assertEquals(Arrays.asList(first, second), cachedSchemas);
+        assertEquals(Arrays.asList(first, second), removedSchemas);
+    }
+
+    private List<Future<Schema>> getConcurrently(JsonSchemaCache cache, Resource resource, Function<Resource, Schema> schemaLoader) throws InterruptedException {
+        int threadCount = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Schema>> schemas = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                schemas.add(executor.submit(() -> {
+                    start.await();
+                    return cache.getSchema(resource, schemaLoader);
+                }));
+            }
+            start.countDown();
+            for (Future<Schema> schema : schemas) {
+                try {
+                    schema.get();
+                } catch (ExecutionException e) {
+                    // asserted by the caller
+                }
+            }
+            return schemas;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Function<Resource, Schema> slowly(Function<Resource, Schema> schemaLoader) {
+        return resource -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return schemaLoader.apply(resource);
+        };
+    }
+
+    private Resource schema(int minimum) {
+        String schema = "{ \"type\": \"integer\", \"minimum\": " + minimum + " }";
+        return new ByteArrayResource(schema.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,138 @@
+package com.github.novotnyr.springframework;
+
+import com.github.novotnyr.springframework.web.jsonschema.DirectoryJsonSchemaResolver;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaCache;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaDirectoryWatcher;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaLoader;
+import com.github.novotnyr.springframework.web.jsonschema.annotation.JsonRequestBody;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JsonSchemaDirectoryWatcherTest {
+    private static final String OPTIONAL_COUNT_SCHEMA = "{ \"type\": \"object\", \"properties\": { \"count\": { \"type\": \"integer\" } } }";
+
+    private static final String REQUIRED_COUNT_SCHEMA = "{ \"type\": \"object\", \"required\": [\"count\"] }";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path schemaFile;
+
+    private MethodParameter parameter;
+
+    private DirectoryJsonSchemaResolver resolver;
+
+    private Resource schemaResource;
+
+    private JsonSchemaCache jsonSchemaCache;
+
+    private JsonSchemaDirectoryWatcher watcher;
+
+    private final JsonSchemaLoader jsonSchemaLoader = new JsonSchemaLoader();
+
+    @Before
+    public void setUp() throws Exception {
+        Path directory = this.temporaryFolder.getRoot().toPath();
+        this.schemaFile = directory.resolve("boxcontroller#register.json");
+        write(OPTIONAL_COUNT_SCHEMA);
+
+        this.parameter = new MethodParameter(ClassUtils.getMethod(BoxController.class, "register", BoxRequest.class), 0);
+        this.resolver = new DirectoryJsonSchemaResolver(directory);
+        this.schemaResource = this.resolver.resolveJsonSchemaResource(this.parameter, null);
+
+        this.jsonSchemaCache = new JsonSchemaCache();
+        this.watcher = new JsonSchemaDirectoryWatcher(directory, this.jsonSchemaCache);
+        this.watcher.setQuietPeriod(10);
+        this.watcher.start();
+    }
+
+    @After
+    public void tearDown() {
+        this.watcher.stop();
+    }
+
+    @Test
+    public void testResolveFromDirectory() {
+        assertTrue(this.schemaResource instanceof FileSystemResource);
+        assertEquals(this.schemaFile.toFile().getAbsoluteFile(), ((FileSystemResource) this.schemaResource).getFile());
+        assertSame(this.schemaResource, this.resolver.resolveJsonSchemaResource(this.parameter, null));
+    }
+
+    @Test
+    public void testChangedSchemaIsSwapped() throws Exception {
+        Schema schema = getSchema();
+        schema.validate(new JSONObject());
+
+        write(REQUIRED_COUNT_SCHEMA);
+
+        Schema reloadedSchema = awaitSchemaChange(schema);
+        try {
+            reloadedSchema.validate(new JSONObject());
+            fail("Reloaded schema must require count");
+        } catch (ValidationException e) {
+            assertEquals("required", e.getKeyword());
+        }
+    }
+
+    @Test
+    public void testInvalidSchemaKeepsPreviousVersion() throws Exception {
+        Schema schema = getSchema();
+
+        write("{ \"type\": ");
+        Thread.sleep(500);
+
+        assertSame(schema, getSchema());
+    }
+
+    @Test
+    public void testDeletedSchemaIsRemoved() throws Exception {
+        getSchema();
+
+        Files.delete(this.schemaFile);
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (this.jsonSchemaCache.getResources().contains(this.schemaResource)) {
+            assertTrue("Deleted schema must be removed from cache", System.currentTimeMillis() < deadline);
+            Thread.sleep(20);
+        }
+        assertFalse(this.jsonSchemaCache.getResources().contains(this.schemaResource));
+    }
+
+    private Schema getSchema() {
+        return this.jsonSchemaCache.getSchema(this.schemaResource, this.jsonSchemaLoader::load);
+    }
+
+    private Schema awaitSchemaChange(Schema schema) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (getSchema() == schema) {
+            assertTrue("Changed schema must be reloaded", System.currentTimeMillis() < deadline);
+            Thread.sleep(20);
+        }
+        return getSchema();
+    }
+
+    private void write(String schema) throws IOException {
+        Files.write(this.schemaFile, schema.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.novotnyr.springframework;
+
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaInterner;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaLoader;
+import org.everit.json.schema.ObjectSchema;
+import org.everit.json.schema.ReferenceSchema;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JsonSchemaInternerTest {
+    private static final String ORDER_SCHEMA = "{ \"type\": \"object\", \"required\": [\"billing\"], \"properties\": {"
+            + " \"billing\": { \"type\": \"object\", \"required\": [\"street\", \"city\"], \"properties\": {"
+            + "   \"street\": { \"type\": \"string\" }, \"city\": { \"type\": \"string\", \"minLength\": 1 } } },"
+            + " \"shipping\": { \"properties\": { \"city\": { \"minLength\": 1, \"type\": \"string\" },"
+            + "   \"street\": { \"type\": \"string\" } }, \"required\": [\"street\", \"city\"], \"type\": \"object\" } } }";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private JsonSchemaInterner jsonSchemaInterner;
+
+    private JsonSchemaLoader jsonSchemaLoader;
+
+    @Before
+    public void setUp() {
+        this.jsonSchemaInterner = new JsonSchemaInterner();
+        this.jsonSchemaLoader = new JsonSchemaLoader();
+        this.jsonSchemaLoader.setJsonSchemaInterner(this.jsonSchemaInterner);
+    }
+
+    @Test
+    public void testShareSchemaOfIdenticalResources() throws IOException {
+        Resource orderResource = write("order.json", ORDER_SCHEMA);
+        Resource copyResource = write("order-copy.json", ORDER_SCHEMA);
+        Resource reformattedResource = write("order-reformatted.json", new JSONObject(ORDER_SCHEMA).toString(4));
+
+        Schema schema = this.jsonSchemaLoader.load(orderResource);
+
+        assertSame(schema, this.jsonSchemaLoader.load(copyResource));
+        assertSame(schema, this.jsonSchemaLoader.load(reformattedResource));
+        JsonSchemaInterner.Report report = this.jsonSchemaInterner.getReport();
+        assertEquals(3, report.getResourceCount());
+        assertEquals(1, report.getSchemaCount());
+        assertTrue(report.getSavedNodeCount() > 0);
+    }
+
+    @Test
+    public void testDeduplicateSubschemas() throws IOException {
+        Resource orderResource = write("order.json", ORDER_SCHEMA);
+        JSONObject order = new JSONObject()
+                .put("billing", new JSONObject().put("street", "Main"))
+                .put("shipping", new JSONObject().put("street", 1).put("city", ""));
+
+        ObjectSchema schema = (ObjectSchema) this.jsonSchemaLoader.load(orderResource);
+
+        Schema billingSchema = schema.getPropertySchemas().get("billing");
+        Schema shippingSchema = schema.getPropertySchemas().get("shipping");
+        assertTrue(billingSchema instanceof ReferenceSchema);
+        assertSame(((ReferenceSchema) billingSchema).getReferredSchema(), ((ReferenceSchema) shippingSchema).getReferredSchema());
+        assertEquals(getAllMessages(new JsonSchemaLoader().load(orderResource), order), getAllMessages(schema, order));
+    }
+
+    @Test
+    public void testReferencedSubschemasAreNotMoved() throws IOException {
+        JSONObject rawSchema = new JSONObject(ORDER_SCHEMA);
+        rawSchema.getJSONObject("properties").put("pickup", new JSONObject().put("$ref", "#/properties/billing"));
+
+        ObjectSchema schema = (ObjectSchema) this.jsonSchemaLoader.load(write("order.json", rawSchema.toString()));
+
+        assertTrue(schema.getPropertySchemas().get("billing") instanceof ObjectSchema);
+        assertTrue(schema.getPropertySchemas().get("shipping") instanceof ObjectSchema);
+    }
+
+    @Test
+    public void testReleaseSchemaOfReloadedResource() throws IOException {
+        Resource orderResource = write("order.json", ORDER_SCHEMA);
+        Schema schema = this.jsonSchemaLoader.load(orderResource);
+
+        write("order.json", "{ \"type\": \"object\" }");
+
+        assertNotSame(schema, this.jsonSchemaLoader.load(orderResource));
+        JsonSchemaInterner.Report report = this.jsonSchemaInterner.getReport();
+        assertEquals(1, report.getResourceCount());
+        assertEquals(1, report.getSchemaCount());
+        assertEquals(1, report.getSchemaNodeCount());
+    }
+
+    private Resource write(String fileName, String content) throws IOException {
+        File file = new File(this.temporaryFolder.getRoot(), fileName);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return new FileSystemResource(file);
+    }
+
+    private Object getAllMessages(Schema schema, JSONObject json) {
+        try {
+            schema.validate(json);
+            fail("Document must be invalid");
+            return null;
+        } catch (ValidationException e) {
+            return e.getAllMessages();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.novotnyr.springframework;
+
+import com.github.novotnyr.springframework.web.jsonschema.DetailsValidationExceptionMediator;
+import com.github.novotnyr.springframework.web.jsonschema.JsonRequestBodyArgumentResolverRegisteringBeanPostProcessor;
+import com.github.novotnyr.springframework.web.jsonschema.UnavailableJsonSchemaException;
+import com.github.novotnyr.springframework.web.jsonschema.VersionedJsonSchemaResolver;
+import com.github.novotnyr.springframework.web.jsonschema.annotation.JsonRequestBody;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JsonSchemaPrecompilationTest {
+    private AnnotationConfigWebApplicationContext context;
+
+    @After
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Test
+    public void testPrecompile() {
+        refresh(PrecompiledBoxController.class);
+
+        JsonRequestBodyArgumentResolverRegisteringBeanPostProcessor postProcessor
+                = this.context.getBean(JsonRequestBodyArgumentResolverRegisteringBeanPostProcessor.class);
+        assertEquals(1, postProcessor.getJsonSchemaCache().size());
+    }
+
+    @Test
+    public void testPrecompileWithUnavailableSchema() {
+        try {
+            refresh(BoxController.class);
+            fail("Application context must not start with unavailable schema");
+        } catch (BeanInitializationException e) {
+            assertTrue(e.getCause() instanceof UnavailableJsonSchemaException);
+        }
+    }
+
+    @Test
+    public void testPrecompileAllVersions() {
+        refresh(VersionedPrecompilingApplicationContext.class, VersionedBoxController.class);
+
+        JsonRequestBodyArgumentResolverRegisteringBeanPostProcessor postProcessor
+                = this.context.getBean(JsonRequestBodyArgumentResolverRegisteringBeanPostProcessor.class);
+        assertEquals(2, postProcessor.getJsonSchemaCache().size());
+    }
+
+    @Test
+    public void testPrecompileWithUnavailableVersion() {
+        try {
+            refresh(VersionedPrecompilingApplicationContext.class, UnavailableVersionBoxController.class);
+            fail("Application context must not start with unavailable schema version");
+        } catch (BeanInitializationException e) {
+            assertTrue(e.getCause() instanceof UnavailableJsonSchemaException);
+        }
+    }
+
+    private void refresh(Class<?> controllerClass) {
+        refresh(PrecompilingApplicationContext.class, controllerClass);
+    }
+
+    private void refresh(Class<?> applicationContextClass, Class<?> controllerClass) {
+        this.context = new AnnotationConfigWebApplicationContext();
+        this.context.setServletContext(new MockServletContext());
+        this.context.register(applicationContextClass, controllerClass);
+        this.context.refresh();
+    }
+
+    @EnableWebMvc
+    static class PrecompilingApplicationContext {
+        @Bean
+        static BeanPostProcessor jsonRequestBodyArgumentResolverRegisteringBeanPostProcessor() {
+            JsonRequestBodyArgumentResolverRegisteringBeanPostProcessor postProcessor
+                    = new JsonRequestBodyArgumentResolverRegisteringBeanPostProcessor();
+            postProcessor.setPrecompileJsonSchemas(true);
+            return postProcessor;
+        }
+    }
+
+    @EnableWebMvc
+    static class VersionedPrecompilingApplicationContext {
+        @Bean
+        static BeanPostProcessor jsonRequestBodyArgumentResolverRegisteringBeanPostProcessor() {
+            JsonRequestBodyArgumentResolverRegisteringBeanPostProcessor postProcessor
+                    = new JsonRequestBodyArgumentResolverRegisteringBeanPostProcessor(
+                            new VersionedJsonSchemaResolver(VersionedJsonSchemaResolver.fromHeader("Api-Version")),
+                            new DetailsValidationExceptionMediator());
+            postProcessor.setPrecompileJsonSchemas(true);
+            return postProcessor;
+        }
+    }
+
+    @RequestMapping("/versioned")
+    static class VersionedBoxController {
+        @RequestMapping(method = RequestMethod.POST, value = "/boxes")
+        public void register(@JsonRequestBody(schemaPath = "boxcontroller#register", versions = {"v1", "v2"}) BoxRequest request) {
+
+        }
+    }
+
+    @RequestMapping("/unavailable")
+    static class UnavailableVersionBoxController {
+        @RequestMapping(method = RequestMethod.POST, value = "/boxes")
+        public void register(@JsonRequestBody(schemaPath = "boxcontroller#register", versions = {"v1", "v3"}) BoxRequest request) {
+
+        }
+    }
+
+    @RequestMapping("/precompiled")
+    static class PrecompiledBoxController {
+        @RequestMapping(method = RequestMethod.POST, value = "/boxes")
+        public void register(@JsonRequestBody(schemaPath = "boxcontroller#register") BoxRequest request) {
+
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.novotnyr.springframework;
+
+import com.github.novotnyr.springframework.web.jsonschema.InvalidJsonSchemaException;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaLoader;
+import com.github.novotnyr.springframework.web.jsonschema.ResourceSchemaClient;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class JsonSchemaReferenceTest {
+    private ResourceSchemaClient schemaClient;
+
+    private JsonSchemaLoader jsonSchemaLoader;
+
+    @Before
+    public void setUp() {
+        this.schemaClient = new ResourceSchemaClient();
+        this.schemaClient.addUriMapping("http://schemas.example.com/", "classpath:/");
+        this.jsonSchemaLoader = new JsonSchemaLoader();
+        this.jsonSchemaLoader.setSchemaClient(this.schemaClient);
+    }
+
+    @Test
+    public void testRelativeReference() {
+        Schema schema = this.jsonSchemaLoader.load(new ClassPathResource("/references#relative.json"));
+
+        assertInvalidInner(schema);
+    }
+
+    @Test
+    public void testMappedReference() {
+        Schema schema = this.jsonSchemaLoader.load(new ClassPathResource("/references#mapped.json"));
+
+        assertInvalidInner(schema);
+    }
+
+    @Test(expected = InvalidJsonSchemaException.class)
+    public void testUnmappedReference() {
+        this.jsonSchemaLoader.load(new ClassPathResource("/references#unmapped.json"));
+    }
+
+    @Test
+    public void testReferencedDocumentIsReadOnce() {
+        this.jsonSchemaLoader.load(new ClassPathResource("/references#relative.json"));
+        this.jsonSchemaLoader.load(new ClassPathResource("/references#relative.json"));
+        this.jsonSchemaLoader.load(new ClassPathResource("/references#mapped.json"));
+
+        assertEquals(1, this.schemaClient.size());
+    }
+
+    private void assertInvalidInner(Schema schema) {
+        schema.validate(new JSONObject().put("inner", new JSONObject().put("innerId", "1").put("innerName", "innerN")));
+        try {
+            schema.validate(new JSONObject().put("inner", new JSONObject()));
+            fail("Inner object must be validated by the referenced schema");
+        } catch (ValidationException e) {
+            assertEquals(2, e.getViolationCount());
+        }
+    }
+}
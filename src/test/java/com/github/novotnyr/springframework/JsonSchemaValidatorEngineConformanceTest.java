@@ -0,0 +1,131 @@
+package com.github.novotnyr.springframework;
+
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaValidatorEngine;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaValidatorEngines;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.everit.json.schema.loader.SchemaLoader;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Conformance of each registered validation engine to the Everit validation.
+ * <p>
+ *     Each engine validates the same documents and must report the same violations as Everit.
+ *     Custom engines are verified by registering them in {@link #engines()}.
+ * </p>
+ */
+@RunWith(Parameterized.class)
+public class JsonSchemaValidatorEngineConformanceTest {
+    private static final String SHIPMENT_SCHEMA = "{ \"type\": \"object\", \"required\": [\"id\", \"parcels\"],"
+            + " \"properties\": {"
+            + " \"id\": { \"type\": \"string\", \"minLength\": 1 },"
+            + " \"carrier\": { \"enum\": [\"UPS\", \"DHL\"] },"
+            + " \"insured\": { \"type\": \"boolean\" },"
+            + " \"insurance\": { \"type\": \"number\", \"multipleOf\": 0.5 },"
+            + " \"parcels\": { \"type\": \"array\", \"minItems\": 1, \"uniqueItems\": true, \"items\": { \"$ref\": \"#/definitions/parcel\" } },"
+            + " \"labels\": { \"type\": \"object\", \"patternProperties\": { \"^x-\": { \"type\": \"string\" } }, \"additionalProperties\": false } },"
+            + " \"dependencies\": { \"insurance\": [\"insured\"] },"
+            + " \"definitions\": { \"parcel\": { \"type\": \"object\", \"required\": [\"weight\"], \"properties\": {"
+            + "   \"weight\": { \"type\": \"number\", \"minimum\": 0, \"exclusiveMinimum\": true },"
+            + "   \"fragile\": { \"anyOf\": [ { \"type\": \"boolean\" }, { \"type\": \"null\" } ] },"
+            + "   \"dimensions\": { \"type\": \"array\", \"items\": { \"type\": \"integer\", \"maximum\": 200 }, \"maxItems\": 3 } },"
+            + "   \"additionalProperties\": false } } }";
+
+    private final Schema schema = SchemaLoader.load(new JSONObject(SHIPMENT_SCHEMA));
+
+    private final JsonSchemaValidatorEngine engine;
+
+    public JsonSchemaValidatorEngineConformanceTest(String engineName, JsonSchemaValidatorEngine engine) {
+        this.engine = engine;
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<Object[]> engines() {
+        return new JsonSchemaValidatorEngines().getEngines().stream()
+                .map(engine -> new Object[] { engine.getName(), engine })
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testValidShipments() {
+        JsonSchemaValidatorEngine.Validator validator = this.engine.compile(this.schema);
+        for (JSONObject shipment : validShipments()) {
+            assertNull(shipment.toString(), validate(validator, shipment));
+        }
+    }
+
+    @Test
+    public void testInvalidShipments() {
+        JsonSchemaValidatorEngine.Validator validator = this.engine.compile(this.schema);
+        for (JSONObject shipment : invalidShipments()) {
+            ValidationException everitException = validate(this.schema::validate, shipment);
+            ValidationException engineException = validate(validator, shipment);
+
+            assertNotNull(shipment.toString(), engineException);
+            assertEquals(shipment.toString(), everitException.getAllMessages(), engineException.getAllMessages());
+            assertEquals(shipment.toString(), everitException.getViolationCount(), engineException.getViolationCount());
+        }
+    }
+
+    private List<JSONObject> validShipments() {
+        return Arrays.asList(
+                shipment(),
+                shipment().put("carrier", "DHL").put("insured", true).put("insurance", 2.5),
+                shipment().put("labels", new JSONObject().put("x-priority", "high")),
+                shipment().put("parcels", new JSONArray().put(parcel(1)).put(parcel(2).put("fragile", JSONObject.NULL))),
+                shipment().put("parcels", new JSONArray().put(parcel(0.1).put("fragile", true)
+                        .put("dimensions", new JSONArray().put(10).put(20).put(200))))
+        );
+    }
+
+    private List<JSONObject> invalidShipments() {
+        return Arrays.asList(
+                new JSONObject(),
+                shipment().put("id", ""),
+                shipment().put("carrier", "FedEx"),
+                shipment().put("insured", 1),
+                shipment().put("insurance", 2.5),
+                shipment().put("insured", true).put("insurance", 2.2),
+                shipment().put("labels", new JSONObject().put("priority", "high")),
+                shipment().put("labels", new JSONObject().put("x-priority", 1)),
+                shipment().put("parcels", new JSONArray()),
+                shipment().put("parcels", new JSONArray().put(parcel(1)).put(parcel(1))),
+                shipment().put("parcels", new JSONArray().put(parcel(0))),
+                shipment().put("parcels", new JSONArray().put(new JSONObject())),
+                shipment().put("parcels", new JSONArray().put(parcel(1).put("color", "red"))),
+                shipment().put("parcels", new JSONArray().put(parcel(1).put("fragile", "yes"))),
+                shipment().put("parcels", new JSONArray().put(parcel(1).put("dimensions", new JSONArray().put(1).put(2).put(3).put(4)))),
+                shipment().put("parcels", new JSONArray().put(parcel(1).put("dimensions", new JSONArray().put(201).put(1.5)))),
+                shipment().put("parcels", new JSONArray().put(parcel(0)).put(parcel(2).put("fragile", 1)))
+        );
+    }
+
+    private JSONObject shipment() {
+        return new JSONObject().put("id", "SHP-1").put("parcels", new JSONArray().put(parcel(1)));
+    }
+
+    private JSONObject parcel(double weight) {
+        return new JSONObject().put("weight", weight);
+    }
+
+    private ValidationException validate(JsonSchemaValidatorEngine.Validator validator, JSONObject shipment) {
+        try {
+            validator.validate(shipment);
+            return null;
+        } catch (ValidationException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.github.novotnyr.springframework;
+
+import com.github.novotnyr.springframework.web.jsonschema.EveritJsonSchemaValidatorEngine;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaCache;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaLoader;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaValidatorEngine;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaValidatorEngines;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.loader.SchemaLoader;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class JsonSchemaValidatorEnginesTest {
+    private final JsonSchemaValidatorEngines engines = new JsonSchemaValidatorEngines();
+
+    private final JsonSchemaLoader jsonSchemaLoader = new JsonSchemaLoader();
+
+    @Test
+    public void testCompileValidatorOncePerSchema() {
+        Schema schema = SchemaLoader.load(new JSONObject("{ \"type\": \"object\" }"));
+
+        JsonSchemaValidatorEngine.Validator validator = this.engines.getValidator("compiled", schema);
+
+        assertSame(validator, this.engines.getValidator("compiled", schema));
+    }
+
+    @Test
+    public void testRecompileValidatorOfReloadedSchema() {
+        Schema schema = SchemaLoader.load(new JSONObject("{ \"type\": \"object\" }"));
+        Schema reloadedSchema = SchemaLoader.load(new JSONObject("{ \"type\": \"object\" }"));
+
+        JsonSchemaValidatorEngine.Validator validator = this.engines.getValidator("compiled", schema);
+
+        assertNotSame(validator, this.engines.getValidator("compiled", reloadedSchema));
+    }
+
+    @Test
+    public void testKeepValidatorOfEachSchemaVersion() {
+        Schema firstVersion = SchemaLoader.load(new JSONObject("{ \"type\": \"object\" }"));
+        Schema secondVersion = SchemaLoader.load(new JSONObject("{ \"type\": \"object\", \"required\": [\"count\"] }"));
+
+        JsonSchemaValidatorEngine.Validator firstValidator = this.engines.getValidator("compiled", firstVersion);
+        JsonSchemaValidatorEngine.Validator secondValidator = this.engines.getValidator("compiled", secondVersion);
+
+        assertSame(firstValidator, this.engines.getValidator("compiled", firstVersion));
+        assertSame(secondValidator, this.engines.getValidator("compiled", secondVersion));
+    }
+
+    @Test
+    public void testDiscardValidatorOfInvalidatedSchema() {
+        JsonSchemaCache cache = new JsonSchemaCache();
+        cache.addListener(this.engines);
+        Resource resource = new ByteArrayResource("{ \"type\": \"object\" }".getBytes(StandardCharsets.UTF_8));
+        Schema schema = cache.getSchema(resource, this.jsonSchemaLoader::load);
+        JsonSchemaValidatorEngine.Validator validator = this.engines.getValidator("compiled", schema);
+
+        cache.invalidate(resource);
+
+        assertNotSame(validator, this.engines.getValidator("compiled", schema));
+        Schema reloadedSchema = cache.getSchema(resource, this.jsonSchemaLoader::load);
+        JsonSchemaValidatorEngine.Validator reloadedValidator = this.engines.getValidator("compiled", reloadedSchema);
+        assertSame(reloadedValidator, this.engines.getValidator("compiled", reloadedSchema));
+    }
+
+    @Test
+    public void testCompileValidatorOnceForConcurrentRequests() throws Exception {
+        Schema schema = SchemaLoader.load(new JSONObject("{ \"type\": \"object\" }"));
+        AtomicInteger compilationCount = new AtomicInteger();
+        this.engines.register(new EveritJsonSchemaValidatorEngine() {
+            @Override
+            public String getName() {
+                return "slow";
+            }
+
+            @Override
+            public Validator compile(Schema schema) {
+                compilationCount.incrementAndGet();
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.compile(schema);
+            }
+        });
+        int threadCount = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<JsonSchemaValidatorEngine.Validator>> validators = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                validators.add(executor.submit(() -> {
+                    start.await();
+                    return this.engines.getValidator("slow", schema);
+                }));
+            }
+            start.countDown();
+            for (Future<JsonSchemaValidatorEngine.Validator> validator : validators) {
+                assertSame(validators.get(0).get(), validator.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, compilationCount.get());
+    }
+
+    @Test
+    public void testDefaultEngine() {
+        assertEquals(EveritJsonSchemaValidatorEngine.NAME, this.engines.getEngine("").getName());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnknownEngine() {
+        this.engines.getEngine("unknown");
+    }
+}
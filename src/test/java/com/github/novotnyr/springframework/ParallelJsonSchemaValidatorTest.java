@@ -0,0 +1,109 @@
+package com.github.novotnyr.springframework;
+
+import com.github.novotnyr.springframework.web.jsonschema.ParallelJsonSchemaValidator;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.everit.json.schema.loader.SchemaLoader;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ParallelJsonSchemaValidatorTest {
+    private static final String ORDER_SCHEMA = "{ \"type\": \"object\", \"required\": [\"id\", \"items\"], \"properties\": {"
+            + " \"id\": { \"type\": \"string\" },"
+            + " \"items\": { \"type\": \"array\", \"minItems\": 1, \"items\": { \"type\": \"object\", \"required\": [\"sku\"],"
+            + "   \"properties\": { \"sku\": { \"type\": \"string\" }, \"quantity\": { \"type\": \"integer\", \"minimum\": 1 } },"
+            + "   \"additionalProperties\": false } } } }";
+
+    private final Schema schema = SchemaLoader.load(new JSONObject(ORDER_SCHEMA));
+
+    private final ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+
+    private final ParallelJsonSchemaValidator validator = new ParallelJsonSchemaValidator(this.forkJoinPool, 16);
+
+    @After
+    public void tearDown() {
+        this.forkJoinPool.shutdown();
+    }
+
+    @Test
+    public void testValidateValidOrder() {
+        this.validator.validate(this.schema, order(1000, false));
+    }
+
+    @Test
+    public void testViolationsAreSameAsSequential() {
+        JSONObject order = order(1000, true);
+
+        ValidationException sequentialException = validate(() -> this.schema.validate(order));
+        ValidationException parallelException = validate(() -> this.validator.validate(this.schema, order));
+
+        assertEquals(sequentialException.getViolationCount(), parallelException.getViolationCount());
+        assertEquals(sequentialException.getAllMessages(), parallelException.getAllMessages());
+    }
+
+    @Test
+    public void testViolationsOfSmallArray() {
+        JSONObject order = order(3, true);
+        order.remove("id");
+
+        ValidationException sequentialException = validate(() -> this.schema.validate(order));
+        ValidationException parallelException = validate(() -> this.validator.validate(this.schema, order));
+
+        assertEquals(sequentialException.getAllMessages(), parallelException.getAllMessages());
+    }
+
+    @Test
+    public void testObjectOfArraySchema() {
+        JSONObject order = new JSONObject().put("id", "ORD-1").put("items", new JSONObject().put("a", 1));
+
+        ValidationException sequentialException = validate(() -> this.schema.validate(order));
+        ValidationException parallelException = validate(() -> this.validator.validate(this.schema, order));
+
+        assertEquals("#/items", parallelException.getPointerToViolation());
+        assertEquals(sequentialException.getAllMessages(), parallelException.getAllMessages());
+    }
+
+    @Test
+    public void testArrayOfObjectSchema() {
+        JSONArray orders = new JSONArray();
+        for (int i = 0; i < 32; i++) {
+            orders.put(i);
+        }
+
+        ValidationException sequentialException = validate(() -> this.schema.validate(orders));
+        ValidationException parallelException = validate(() -> this.validator.validate(this.schema, orders));
+
+        assertEquals(sequentialException.getAllMessages(), parallelException.getAllMessages());
+    }
+
+    private JSONObject order(int itemCount, boolean invalid) {
+        JSONArray items = new JSONArray();
+        for (int i = 0; i < itemCount; i++) {
+            JSONObject item = new JSONObject().put("sku", "SKU-" + i).put("quantity", 1 + i % 5);
+            if (invalid && i % 7 == 0) {
+                item.remove("sku");
+                item.put("quantity", 0);
+                item.put("color", "red");
+            }
+            items.put(item);
+        }
+        return new JSONObject().put("id", "ORD-1").put("items", items);
+    }
+
+    private ValidationException validate(Runnable validation) {
+        try {
+            validation.run();
+        } catch (ValidationException e) {
+            return e;
+        }
+        fail("Order must be invalid");
+        return null;
+    }
+}
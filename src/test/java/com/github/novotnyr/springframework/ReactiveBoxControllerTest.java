@@ -0,0 +1,230 @@
+package com.github.novotnyr.springframework;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.novotnyr.springframework.web.jsonschema.DetailsValidationExceptionMediator;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaLoader;
+import com.github.novotnyr.springframework.web.jsonschema.VersionedJsonSchemaResolver;
+import com.github.novotnyr.springframework.web.jsonschema.annotation.JsonRequestBody;
+import com.github.novotnyr.springframework.web.jsonschema.annotation.PayloadFormat;
+import com.github.novotnyr.springframework.web.jsonschema.reactive.ReactiveJsonRequestBodyArgumentResolver;
+import com.github.novotnyr.springframework.web.jsonschema.reactive.ReactiveVersionStrategy;
+import org.everit.json.schema.Schema;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.validation.Errors;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ReactiveBoxControllerTest {
+    private WebTestClient client;
+
+    private ReactiveJsonRequestBodyArgumentResolver argumentResolver;
+
+    @Before
+    public void setUp() {
+        this.argumentResolver = new ReactiveJsonRequestBodyArgumentResolver(new ObjectMapper());
+        this.argumentResolver.setMaxBodySize(1024);
+        this.client = createClient(this.argumentResolver);
+    }
+
+    private WebTestClient createClient(ReactiveJsonRequestBodyArgumentResolver argumentResolver) {
+        return WebTestClient.bindToController(new ReactiveBoxController())
+                .argumentResolvers(configurer -> configurer.addCustomResolver(argumentResolver))
+                .controllerAdvice(new RestExceptionHandler())
+                .httpMessageCodecs(configurer -> configurer.defaultCodecs()
+                        .jackson2JsonEncoder(new Jackson2JsonEncoder(new TestApplicationContext().createJacksonObjectMapperBuilder().build())))
+                .build();
+    }
+
+    @Test
+    public void testPostOk() {
+        post("/reactive/boxes", validBox())
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("count").isEqualTo(1)
+                .jsonPath("inner.innerId").isEqualTo("1");
+    }
+
+    @Test
+    public void testPostInner() {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("count", 1);
+        jsonObject.put("inner", new JSONObject());
+
+        post("/reactive/boxes", jsonObject)
+                .expectStatus().isEqualTo(422)
+                .expectBody()
+                .jsonPath("error.validation.field[0].code").isEqualTo("required-field")
+                .jsonPath("error.validation.field[0].name").isEqualTo("inner.innerId")
+                .jsonPath("error.validation.field[1].name").isEqualTo("inner.innerName");
+    }
+
+    @Test
+    public void testPostStreaming() {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("inner", new JSONObject().put("innerId", "1").put("innerName", "innerN"));
+
+        post("/reactive/boxes/streaming", jsonObject)
+                .expectStatus().isEqualTo(422)
+                .expectBody()
+                .jsonPath("error.validation.field[0].code").isEqualTo("required-field")
+                .jsonPath("error.validation.field[0].name").isEqualTo("count");
+    }
+
+    @Test
+    public void testPostLaxlyWithErrors() {
+        post("/reactive/boxes/lax", new JSONObject())
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("2");
+    }
+
+    @Test
+    public void testPostOffloaded() {
+        this.argumentResolver.setOffloadThreshold(0);
+
+        post("/reactive/boxes", validBox())
+                .expectStatus().isOk();
+    }
+
+    @Test
+    public void testPostTooLarge() {
+        JSONObject jsonObject = validBox();
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 2048; i++) {
+            name.append('x');
+        }
+        jsonObject.put("name", name);
+
+        post("/reactive/boxes", jsonObject)
+                .expectStatus().isEqualTo(413);
+    }
+
+    @Test
+    public void testPostInvalidBatch() {
+        JSONArray jsonArray = new JSONArray();
+        jsonArray.put(validBox());
+        jsonArray.put(new JSONObject().put("inner", validBox().get("inner")));
+
+        this.client.post()
+                .uri("/reactive/boxes/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .syncBody(jsonArray.toString())
+                .exchange()
+                .expectStatus().isEqualTo(422)
+                .expectBody()
+                .jsonPath("error.validation.field[0].name").isEqualTo("[1].count");
+    }
+
+    @Test
+    public void testPostVersionFromHeader() {
+        ReactiveJsonRequestBodyArgumentResolver argumentResolver = new ReactiveJsonRequestBodyArgumentResolver(new ObjectMapper(),
+                new VersionedJsonSchemaResolver(VersionedJsonSchemaResolver.fromHeader("Api-Version")), new DetailsValidationExceptionMediator());
+        argumentResolver.setVersionStrategy(ReactiveVersionStrategy.fromHeader("Api-Version"));
+        WebTestClient client = createClient(argumentResolver);
+        String box = new JSONObject().put("count", 1).toString();
+
+        client.post().uri("/reactive/boxes/versioned").header("Api-Version", "v1")
+                .contentType(MediaType.APPLICATION_JSON).syncBody(box).exchange()
+                .expectStatus().isOk();
+        client.post().uri("/reactive/boxes/versioned").header("Api-Version", "v2")
+                .contentType(MediaType.APPLICATION_JSON).syncBody(box).exchange()
+                .expectStatus().isEqualTo(422)
+                .expectBody()
+                .jsonPath("error.validation.field[0].name").isEqualTo("inner");
+    }
+
+    @Test
+    public void testPostVersionWithoutVersionStrategy() {
+        ReactiveJsonRequestBodyArgumentResolver argumentResolver = new ReactiveJsonRequestBodyArgumentResolver(new ObjectMapper(),
+                new VersionedJsonSchemaResolver(VersionedJsonSchemaResolver.fromHeader("Api-Version")), new DetailsValidationExceptionMediator());
+
+        createClient(argumentResolver).post().uri("/reactive/boxes/versioned").header("Api-Version", "v2")
+                .contentType(MediaType.APPLICATION_JSON).syncBody(validBox().toString()).exchange()
+                .expectStatus().is5xxServerError();
+    }
+
+    @Test
+    public void testLoadSchemaOnSchemaLoadingScheduler() {
+        List<String> loadingThreads = new CopyOnWriteArrayList<>();
+        Scheduler schemaLoadingScheduler = Schedulers.newSingle("schema-loading");
+        try {
+            this.argumentResolver.setSchemaLoadingScheduler(schemaLoadingScheduler);
+            this.argumentResolver.setJsonSchemaLoader(new JsonSchemaLoader() {
+                @Override
+                public Schema load(Resource jsonSchemaResource) {
+                    loadingThreads.add(Thread.currentThread().getName());
+                    return super.load(jsonSchemaResource);
+                }
+            });
+
+            post("/reactive/boxes", validBox()).expectStatus().isOk();
+            post("/reactive/boxes", validBox()).expectStatus().isOk();
+
+            assertEquals(1, loadingThreads.size());
+            assertTrue(loadingThreads.get(0).startsWith("schema-loading"));
+        } finally {
+            schemaLoadingScheduler.dispose();
+        }
+    }
+
+    private JSONObject validBox() {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("count", 1);
+        jsonObject.put("inner", new JSONObject().put("innerId", "1").put("innerName", "innerN"));
+        return jsonObject;
+    }
+
+    private WebTestClient.ResponseSpec post(String uri, JSONObject jsonObject) {
+        return this.client.post()
+                .uri(uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .syncBody(jsonObject.toString())
+                .exchange();
+    }
+
+    @RequestMapping("/reactive/boxes")
+    @ResponseBody
+    static class ReactiveBoxController {
+        @RequestMapping(method = RequestMethod.POST)
+        public BoxRequest register(@JsonRequestBody(schemaPath = "boxcontroller#register") BoxRequest request) {
+            return request;
+        }
+
+        @RequestMapping(method = RequestMethod.POST, value = "/streaming")
+        public BoxRequest registerStreaming(@JsonRequestBody(schemaPath = "boxcontroller#register", streaming = true) BoxRequest request) {
+            return request;
+        }
+
+        @RequestMapping(method = RequestMethod.POST, value = "/batch")
+        public int registerBatch(@JsonRequestBody(schemaPath = "boxcontroller#register", format = PayloadFormat.JSON_ARRAY) List<BoxRequest> requests) {
+            return requests.size();
+        }
+
+        @RequestMapping(method = RequestMethod.POST, value = "/versioned")
+        public BoxRequest registerVersioned(@JsonRequestBody(schemaPath = "boxcontroller#register", versions = {"v1", "v2"}) BoxRequest request) {
+            return request;
+        }
+
+        @RequestMapping(method = RequestMethod.POST, value = "/lax")
+        public String registerLaxly(@JsonRequestBody(schemaPath = "boxcontroller#register", strict = false) BoxRequest request, Errors errors) {
+            return String.valueOf(errors.getErrorCount());
+        }
+    }
+}
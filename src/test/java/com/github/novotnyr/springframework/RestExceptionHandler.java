@@ -3,6 +3,7 @@ package com.github.novotnyr.springframework;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaValidationException;
+import com.github.novotnyr.springframework.web.jsonschema.RequestBodyTooLargeException;
 import com.github.novotnyr.springframework.web.jsonschema.UnavailableJsonSchemaException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -43,6 +44,13 @@ public class RestExceptionHandler {
         return new ApiError().addGlobalError("payload", "Internal validation error");
     }
 
+    @ExceptionHandler
+    @ResponseBody
+    @ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+    public ApiError handleRequestBodyTooLargeException(RequestBodyTooLargeException exception) {
+        return new ApiError().withHttpStatus(HttpStatus.PAYLOAD_TOO_LARGE).addGlobalError("payload", exception.getMessage());
+    }
+
     private String getField(InvalidFormatException exception) {
         List<JsonMappingException.Reference> path = exception.getPath();
         JsonMappingException.Reference lastComponent = path.get(path.size() - 1);
@@ -0,0 +1,64 @@
+package com.github.novotnyr.springframework;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.novotnyr.springframework.web.jsonschema.CapturedRequestBody;
+import com.github.novotnyr.springframework.web.jsonschema.NoOpJsonSchemaValidationMetrics;
+import com.github.novotnyr.springframework.web.jsonschema.RequestBodyBufferPool;
+import com.github.novotnyr.springframework.web.jsonschema.ShadowJsonSchemaValidator;
+import com.github.novotnyr.springframework.web.jsonschema.annotation.PayloadFormat;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.loader.SchemaLoader;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.util.ClassUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ShadowJsonSchemaValidatorTest {
+    private final Schema schema = SchemaLoader.load(new JSONObject("{ \"type\": \"object\", \"required\": [\"count\"] }"));
+
+    private final MethodParameter parameter = new MethodParameter(ClassUtils.getMethod(BoxController.class, "registerInShadowMode", BoxRequest.class), 0);
+
+    @Test
+    public void testDropRequestBodiesOverMaxPendingValidations() throws IOException {
+        List<Runnable> pendingValidations = new ArrayList<>();
+        ShadowJsonSchemaValidator validator = new ShadowJsonSchemaValidator(pendingValidations::add, 2);
+
+        assertTrue(submit(validator));
+        assertTrue(submit(validator));
+        assertFalse(submit(validator));
+        assertEquals(2, pendingValidations.size());
+        assertEquals(1, validator.getDroppedValidationCount());
+
+        pendingValidations.remove(0).run();
+
+        assertTrue(submit(validator));
+        assertEquals(1, validator.getDroppedValidationCount());
+    }
+
+    @Test
+    public void testDropRequestBodiesAfterDestroy() throws IOException {
+        ShadowJsonSchemaValidator validator = new ShadowJsonSchemaValidator(new ObjectMapper());
+
+        validator.destroy();
+
+        assertFalse(submit(validator));
+        assertEquals(1, validator.getDroppedValidationCount());
+    }
+
+    private boolean submit(ShadowJsonSchemaValidator validator) throws IOException {
+        byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+        try (CapturedRequestBody requestBody = CapturedRequestBody.capture(new ByteArrayInputStream(body), -1, new RequestBodyBufferPool())) {
+            return validator.submit(this.parameter, this.schema, requestBody, PayloadFormat.DOCUMENT, new NoOpJsonSchemaValidationMetrics());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.github.novotnyr.springframework;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.novotnyr.springframework.web.jsonschema.StreamingJsonSchemaValidator;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.everit.json.schema.loader.SchemaLoader;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class StreamingJsonSchemaValidatorTest {
+    private static final String ORDER_SCHEMA = "{ \"type\": \"object\", \"properties\": {"
+            + " \"inner\": { \"type\": \"object\", \"properties\": { \"id\": { \"type\": \"string\" } } },"
+            + " \"list\": { \"type\": \"array\", \"items\": { \"type\": \"integer\" } } } }";
+
+    private final Schema schema = SchemaLoader.load(new JSONObject(ORDER_SCHEMA));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final StreamingJsonSchemaValidator validator = new StreamingJsonSchemaValidator();
+
+    @Test
+    public void testArrayOfObjectSchema() throws IOException {
+        ValidationException exception = validate("[1, 2]");
+
+        assertEquals("type", exception.getKeyword());
+        assertEquals(getEveritMessages("[1, 2]"), exception.getAllMessages());
+    }
+
+    @Test
+    public void testNestedArrayOfObjectSchema() throws IOException {
+        ValidationException exception = validate("{ \"inner\": [1] }");
+
+        assertEquals("#/inner", exception.getPointerToViolation());
+        assertEquals(getEveritMessages("{ \"inner\": [1] }"), exception.getAllMessages());
+    }
+
+    @Test
+    public void testNestedObjectOfArraySchema() throws IOException {
+        ValidationException exception = validate("{ \"list\": { \"a\": 1 } }");
+
+        assertEquals("#/list", exception.getPointerToViolation());
+        assertEquals(getEveritMessages("{ \"list\": { \"a\": 1 } }"), exception.getAllMessages());
+    }
+
+    @Test
+    public void testArrayItemViolation() throws IOException {
+        ValidationException exception = validate("{ \"list\": [1, \"two\", 3] }");
+
+        assertEquals("#/list/1", exception.getPointerToViolation());
+        assertEquals(getEveritMessages("{ \"list\": [1, \"two\", 3] }"), exception.getAllMessages());
+    }
+
+    private ValidationException validate(String json) throws IOException {
+        try (JsonParser parser = this.objectMapper.getFactory().createParser(json)) {
+            this.validator.validate(this.schema, parser);
+        } catch (ValidationException e) {
+            return e;
+        }
+        fail("Document must be invalid");
+        return null;
+    }
+
+    private Object getEveritMessages(String json) {
+        try {
+            this.schema.validate(new JSONTokener(json).nextValue());
+        } catch (ValidationException e) {
+            return e.getAllMessages();
+        }
+        fail("Document must be invalid");
+        return null;
+    }
+}
@@ -2,6 +2,9 @@ package com.github.novotnyr.springframework;
 
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.github.novotnyr.springframework.web.jsonschema.JsonRequestBodyArgumentResolverRegisteringBeanPostProcessor;
+import com.github.novotnyr.springframework.web.jsonschema.micrometer.MicrometerJsonSchemaValidationMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
@@ -19,8 +22,16 @@ import java.util.List;
 @ComponentScan
 public class TestApplicationContext extends WebMvcConfigurerAdapter {
     @Bean
-    static BeanPostProcessor jsonRequestBodyArgumentResolverRegisteringBeanPostProcessor() {
-        return new JsonRequestBodyArgumentResolverRegisteringBeanPostProcessor();
+    static MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    static BeanPostProcessor jsonRequestBodyArgumentResolverRegisteringBeanPostProcessor(MeterRegistry meterRegistry) {
+        JsonRequestBodyArgumentResolverRegisteringBeanPostProcessor postProcessor
+                = new JsonRequestBodyArgumentResolverRegisteringBeanPostProcessor();
+        postProcessor.setJsonSchemaValidationMetrics(new MicrometerJsonSchemaValidationMetrics(meterRegistry));
+        return postProcessor;
     }
 
     Jackson2ObjectMapperBuilder createJacksonObjectMapperBuilder() {
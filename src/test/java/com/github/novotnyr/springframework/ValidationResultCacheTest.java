@@ -0,0 +1,130 @@
+package com.github.novotnyr.springframework;
+
+import com.github.novotnyr.springframework.web.jsonschema.CapturedRequestBody;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaCache;
+import com.github.novotnyr.springframework.web.jsonschema.JsonSchemaLoader;
+import com.github.novotnyr.springframework.web.jsonschema.RequestBodyBufferPool;
+import com.github.novotnyr.springframework.web.jsonschema.ValidationResultCache;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.everit.json.schema.loader.SchemaLoader;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ValidationResultCacheTest {
+    private final Schema schema = SchemaLoader.load(new JSONObject("{ \"type\": \"object\", \"required\": [\"count\"] }"));
+
+    private final RequestBodyBufferPool bufferPool = new RequestBodyBufferPool(16, 64);
+
+    @Test
+    public void testReplayResultOfIdenticalBody() throws IOException {
+        ValidationResultCache cache = new ValidationResultCache();
+        ValidationException validationException = new ValidationException(this.schema, "required key [count] not found", "required");
+        cache.put(key(cache, this.schema, "{\"name\": \"box\"}"), validationException);
+        cache.put(key(cache, this.schema, "{\"count\": 1}"), null);
+
+        ValidationResultCache.Result invalidResult = cache.get(key(cache, this.schema, "{\"name\": \"box\"}"));
+        ValidationResultCache.Result validResult = cache.get(key(cache, this.schema, "{\"count\": 1}"));
+
+        assertFalse(invalidResult.isValid());
+        assertSame(validationException, invalidResult.getValidationException());
+        assertTrue(validResult.isValid());
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void testDistinguishBodiesSchemasAndOptions() throws IOException {
+        ValidationResultCache cache = new ValidationResultCache();
+        Schema otherSchema = SchemaLoader.load(new JSONObject("{ \"type\": \"object\", \"required\": [\"count\"] }"));
+        cache.put(key(cache, this.schema, "{\"count\": 1}"), null);
+
+        assertNull(cache.get(key(cache, this.schema, "{\"count\": 2}")));
+        assertNull(cache.get(key(cache, this.schema, "{\"count\": 1} ")));
+        assertNull(cache.get(key(cache, otherSchema, "{\"count\": 1}")));
+        assertNull(cache.get(cache.createKey(this.schema, capture("{\"count\": 1}"), 1)));
+        assertEquals(4, cache.getMissCount());
+        assertNotEquals(key(cache, this.schema, "{\"count\": 1}"), key(cache, this.schema, "{\"count\": 1}\u0000"));
+    }
+
+    @Test
+    public void testCompareOptionsByValue() throws IOException {
+        ValidationResultCache cache = new ValidationResultCache();
+        cache.put(cache.createKey(this.schema, capture("{\"count\": 1}"), Arrays.asList(1, "compiled", false)), null);
+
+        assertNotNull(cache.get(cache.createKey(this.schema, capture("{\"count\": 1}"), Arrays.asList(1, "compiled", false))));
+        assertNull(cache.get(cache.createKey(this.schema, capture("{\"count\": 1}"), Arrays.asList(1, "compiled", true))));
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsedResult() throws IOException {
+        ValidationResultCache cache = new ValidationResultCache(2, -1, TimeUnit.MILLISECONDS);
+        cache.put(key(cache, this.schema, "{\"count\": 1}"), null);
+        cache.put(key(cache, this.schema, "{\"count\": 2}"), null);
+        cache.get(key(cache, this.schema, "{\"count\": 1}"));
+        cache.put(key(cache, this.schema, "{\"count\": 3}"), null);
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(key(cache, this.schema, "{\"count\": 1}")));
+        assertNull(cache.get(key(cache, this.schema, "{\"count\": 2}")));
+    }
+
+    @Test
+    public void testExpireResult() throws Exception {
+        ValidationResultCache cache = new ValidationResultCache(16, 10, TimeUnit.MILLISECONDS);
+        cache.put(key(cache, this.schema, "{\"count\": 1}"), null);
+
+        Thread.sleep(20);
+
+        assertNull(cache.get(key(cache, this.schema, "{\"count\": 1}")));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testDropResultsOfRemovedSchema() throws IOException {
+        ValidationResultCache cache = new ValidationResultCache();
+        JsonSchemaCache jsonSchemaCache = new JsonSchemaCache();
+        jsonSchemaCache.addListener(cache);
+        Resource resource = new ByteArrayResource("{ \"type\": \"object\" }".getBytes(StandardCharsets.UTF_8));
+        Schema cachedSchema = jsonSchemaCache.getSchema(resource, new JsonSchemaLoader()::load);
+        cache.put(key(cache, cachedSchema, "{\"count\": 1}"), null);
+        cache.put(key(cache, this.schema, "{\"count\": 1}"), null);
+
+        jsonSchemaCache.invalidate(resource);
+
+        assertEquals(1, cache.size());
+        assertNull(cache.get(key(cache, cachedSchema, "{\"count\": 1}")));
+        assertNotNull(cache.get(key(cache, this.schema, "{\"count\": 1}")));
+    }
+
+    @Test
+    public void testSkipLargeBody() throws IOException {
+        ValidationResultCache cache = new ValidationResultCache();
+        cache.setMaxBodySize(8);
+
+        assertNull(key(cache, this.schema, "{\"count\": 1}"));
+    }
+
+    private ValidationResultCache.Key key(ValidationResultCache cache, Schema schema, String body) throws IOException {
+        return cache.createKey(schema, capture(body), 0);
+    }
+
+    private CapturedRequestBody capture(String body) throws IOException {
+        return CapturedRequestBody.capture(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), -1, this.bufferPool);
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.novotnyr.springframework;
+
+import com.github.novotnyr.springframework.web.jsonschema.DetailsValidationExceptionMediator;
+import com.github.novotnyr.springframework.web.jsonschema.JsonRequestBodyArgumentResolverRegisteringBeanPostProcessor;
+import com.github.novotnyr.springframework.web.jsonschema.VersionedJsonSchemaResolver;
+import com.github.novotnyr.springframework.web.jsonschema.annotation.JsonRequestBody;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs without the {@link RestExceptionHandler}, so that the default statuses of exceptions apply.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@WebAppConfiguration
+@ContextConfiguration(classes = {VersionedBoxControllerTest.VersionedApplicationContext.class, VersionedBoxControllerTest.VersionedBoxController.class})
+public class VersionedBoxControllerTest {
+    @Autowired
+    private WebApplicationContext wac;
+
+    private MockMvc mvc;
+
+    @Before
+    public void setup() {
+        this.mvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+    }
+
+    @Test
+    public void testPostDeclaredVersion() throws Exception {
+        this.mvc.perform(
+                post("/versioned/boxes")
+                        .header("Api-Version", "v1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new JSONObject().put("count", 1).toString()))
+                .andDo(print())
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testPostUndeclaredVersion() throws Exception {
+        this.mvc.perform(
+                post("/versioned/boxes")
+                        .header("Api-Version", "v3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new JSONObject().put("count", 1).toString()))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testPostWithoutVersion() throws Exception {
+        this.mvc.perform(
+                post("/versioned/boxes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new JSONObject().put("count", 1).toString()))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @EnableWebMvc
+    static class VersionedApplicationContext {
+        @Bean
+        static BeanPostProcessor jsonRequestBodyArgumentResolverRegisteringBeanPostProcessor() {
+            return new JsonRequestBodyArgumentResolverRegisteringBeanPostProcessor(
+                    new VersionedJsonSchemaResolver(VersionedJsonSchemaResolver.fromHeader("Api-Version")),
+                    new DetailsValidationExceptionMediator());
+        }
+    }
+
+    @RequestMapping("/versioned")
+    static class VersionedBoxController {
+        @RequestMapping(method = RequestMethod.POST, value = "/boxes")
+        public void register(@JsonRequestBody(schemaPath = "boxcontroller#register", versions = {"v1", "v2"}) BoxRequest request) {
+
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.novotnyr.springframework;
+
+import com.github.novotnyr.springframework.web.jsonschema.UnsupportedJsonSchemaVersionException;
+import com.github.novotnyr.springframework.web.jsonschema.VersionedJsonSchemaResolver;
+import com.github.novotnyr.springframework.web.jsonschema.annotation.JsonRequestBody;
+import org.junit.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class VersionedJsonSchemaResolverTest {
+    private final MethodParameter parameter = new MethodParameter(
+            ClassUtils.getMethod(VersionedBoxController.class, "register", BoxRequest.class), 0);
+
+    private final MethodParameter unversionedParameter = new MethodParameter(
+            ClassUtils.getMethod(VersionedBoxController.class, "registerUnversioned", BoxRequest.class), 0);
+
+    @Test
+    public void testResolveVersionFromHeader() {
+        VersionedJsonSchemaResolver resolver = new VersionedJsonSchemaResolver(VersionedJsonSchemaResolver.fromHeader("Api-Version"));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Api-Version", "v1");
+
+        assertEquals(new ClassPathResource("/v1/boxcontroller#register.json"),
+                resolver.resolveJsonSchemaResource(this.parameter, new ServletWebRequest(request)));
+    }
+
+    @Test
+    public void testResolveVersionFromMediaTypeParameter() {
+        VersionedJsonSchemaResolver resolver = new VersionedJsonSchemaResolver(VersionedJsonSchemaResolver.fromMediaTypeParameter("version"));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContentType("application/json;version=v2");
+
+        assertEquals(new ClassPathResource("/v2/boxcontroller#register.json"),
+                resolver.resolveJsonSchemaResource(this.parameter, new ServletWebRequest(request)));
+    }
+
+    @Test
+    public void testResolveVersionFromPathVariable() {
+        VersionedJsonSchemaResolver resolver = new VersionedJsonSchemaResolver(VersionedJsonSchemaResolver.fromPathVariable("version"));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Collections.singletonMap("version", "v1"));
+
+        assertEquals(new ClassPathResource("/v1/boxcontroller#register.json"),
+                resolver.resolveJsonSchemaResource(this.parameter, new ServletWebRequest(request)));
+    }
+
+    @Test
+    public void testResolveFallbackVersion() {
+        VersionedJsonSchemaResolver resolver = new VersionedJsonSchemaResolver(VersionedJsonSchemaResolver.fromHeader("Api-Version"));
+        resolver.setFallbackVersion("v2");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletRequest undeclaredVersionRequest = new MockHttpServletRequest();
+        undeclaredVersionRequest.addHeader("Api-Version", "v3");
+
+        assertEquals(new ClassPathResource("/v2/boxcontroller#register.json"),
+                resolver.resolveJsonSchemaResource(this.parameter, new ServletWebRequest(request)));
+        assertEquals(new ClassPathResource("/v2/boxcontroller#register.json"),
+                resolver.resolveJsonSchemaResource(this.parameter, new ServletWebRequest(undeclaredVersionRequest)));
+    }
+
+    @Test
+    public void testRejectUndeclaredVersionWithoutFallback() {
+        VersionedJsonSchemaResolver resolver = new VersionedJsonSchemaResolver(VersionedJsonSchemaResolver.fromHeader("Api-Version"));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Api-Version", "v3");
+
+        try {
+            resolver.resolveJsonSchemaResource(this.parameter, new ServletWebRequest(request));
+            fail("Undeclared version must be rejected");
+        } catch (UnsupportedJsonSchemaVersionException e) {
+            assertEquals("v3", e.getVersion());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRejectUndeclaredFallbackVersion() {
+        VersionedJsonSchemaResolver resolver = new VersionedJsonSchemaResolver(VersionedJsonSchemaResolver.fromHeader("Api-Version"));
+        resolver.setFallbackVersion("v3");
+
+        resolver.resolveJsonSchemaResources(this.parameter);
+    }
+
+    @Test
+    public void testResolveAllVersions() {
+        VersionedJsonSchemaResolver resolver = new VersionedJsonSchemaResolver(VersionedJsonSchemaResolver.fromHeader("Api-Version"));
+
+        assertEquals(new HashSet<>(Arrays.asList(new ClassPathResource("/v1/boxcontroller#register.json"), new ClassPathResource("/v2/boxcontroller#register.json"))),
+                new HashSet<>(resolver.resolveJsonSchemaResources(this.parameter)));
+        assertEquals(Collections.singletonList(new ClassPathResource("/boxcontroller#register.json")),
+                resolver.resolveJsonSchemaResources(this.unversionedParameter));
+    }
+
+    static class VersionedBoxController {
+        public void register(@JsonRequestBody(schemaPath = "boxcontroller#register", versions = {"v1", "v2"}) BoxRequest request) {
+
+        }
+
+        public void registerUnversioned(@JsonRequestBody(schemaPath = "boxcontroller#register") BoxRequest request) {
+
+        }
+    }
+}
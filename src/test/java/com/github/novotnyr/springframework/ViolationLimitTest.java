@@ -0,0 +1,84 @@
+package com.github.novotnyr.springframework;
+
+import com.github.novotnyr.springframework.web.jsonschema.ViolationLimit;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.everit.json.schema.loader.SchemaLoader;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class ViolationLimitTest {
+    private static final String SCHEMA = "{ \"type\": \"object\", \"required\": [\"id\"], \"properties\": {"
+            + " \"a\": { \"type\": \"integer\" }, \"b\": { \"type\": \"integer\" },"
+            + " \"c\": { \"anyOf\": [ { \"type\": \"integer\" }, { \"type\": \"boolean\" } ] } } }";
+
+    private final Schema schema = SchemaLoader.load(new JSONObject(SCHEMA));
+
+    @Test
+    public void testWithinLimit() {
+        ValidationException exception = validate("{ \"a\": \"x\" }");
+
+        assertSame(exception, new ViolationLimit(2).apply(exception));
+    }
+
+    @Test
+    public void testUnlimited() {
+        ValidationException exception = validate("{ \"a\": \"x\", \"b\": \"y\" }");
+
+        assertSame(exception, new ViolationLimit(-1).apply(exception));
+    }
+
+    @Test
+    public void testFirstViolation() {
+        ValidationException exception = new ViolationLimit(1).apply(validate("{ \"id\": 1, \"a\": \"x\", \"b\": \"y\" }"));
+
+        assertEquals("type", exception.getKeyword());
+        assertEquals(1, exception.getViolationCount());
+    }
+
+    @Test
+    public void testFirstViolations() {
+        ValidationException exception = validate("{ \"a\": \"x\", \"b\": \"y\" }");
+        List<String> pointers = getPointers(exception);
+
+        ValidationException limitedException = new ViolationLimit(2).apply(exception);
+
+        assertEquals(2, limitedException.getViolationCount());
+        assertEquals(pointers.subList(0, 2), getPointers(limitedException));
+    }
+
+    @Test
+    public void testAlternativesAreSingleViolation() {
+        ValidationException exception = new ViolationLimit(2).apply(validate("{ \"id\": 1, \"c\": \"x\", \"b\": \"y\" }"));
+
+        assertEquals(2, exception.getCausingExceptions().size());
+        assertEquals("anyOf", exception.getCausingExceptions().stream()
+                .filter(cause -> cause.getPointerToViolation().equals("#/c"))
+                .findFirst()
+                .map(ValidationException::getKeyword)
+                .orElse(null));
+    }
+
+    private List<String> getPointers(ValidationException exception) {
+        return exception.getCausingExceptions().stream()
+                .map(ValidationException::getPointerToViolation)
+                .collect(Collectors.toList());
+    }
+
+    private ValidationException validate(String json) {
+        try {
+            this.schema.validate(new JSONObject(json));
+        } catch (ValidationException e) {
+            return e;
+        }
+        fail("Document must be invalid");
+        return null;
+    }
+}